@@ -1,5 +1,7 @@
 package br.com.clinica;
 
+import br.com.clinica.service.IndicePacientesService;
+import br.com.clinica.service.ResumoDiarioService;
 import br.com.clinica.view.TelaPrincipal;
 import javax.swing.*;
 
@@ -12,6 +14,12 @@ public class Main {
             // Usar padrao se der erro
         }
         
+        // Reconstroi os totais diarios em segundo plano (agora e periodicamente)
+        ResumoDiarioService.getInstance().iniciarReconstrucaoPeriodica();
+
+        // Monta o indice de busca de pacientes usado no agendamento
+        IndicePacientesService.getInstance().iniciarCargaEmSegundoPlano();
+
         // Iniciar aplicacao
         SwingUtilities.invokeLater(() -> {
             new TelaPrincipal().setVisible(true);
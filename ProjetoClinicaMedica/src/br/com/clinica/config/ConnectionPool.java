@@ -0,0 +1,323 @@
+package br.com.clinica.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool limitado de conexões JDBC usado pelo DatabaseConnection.
+ * Mantém entre 'tamanhoMinimo' e 'tamanhoMaximo' conexões físicas, valida cada conexão
+ * no empréstimo, descarta conexões ociosas além do mínimo e registra no log conexões
+ * que ficaram emprestadas por tempo demais (possível vazamento). O ponto do código que pegou a
+ * conexão só é registrado com -Dclinica.pool.rastrearVazamentos=true, pois capturar a pilha a
+ * cada empréstimo tem custo.
+ * As conexões entregues são proxies: chamar close() devolve a conexão ao pool.
+ * Interage com as classes: DatabaseConnection, DriverManager, Connection.
+ */
+public class ConnectionPool {
+
+    // Liga a captura da pilha de cada empréstimo, exibida no aviso de vazamento
+    private static final boolean RASTREAR_VAZAMENTOS = Boolean.getBoolean("clinica.pool.rastrearVazamentos");
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long timeoutEmprestimoMs;
+    private final long tempoOciosoMaximoMs;
+    private final long limiteVazamentoMs;
+
+    private final Semaphore permissoes;
+    private final LinkedBlockingDeque<ConexaoOciosa> ociosas = new LinkedBlockingDeque<>();
+    private final Map<Connection, Emprestimo> emprestadas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService manutencao;
+    private volatile boolean encerrado;
+
+    /**
+     * Cria o pool e abre as conexões mínimas.
+     * @param url A URL JDBC do banco.
+     * @param username O usuário do banco.
+     * @param password A senha do banco.
+     * @param tamanhoMinimo Quantidade de conexões mantidas abertas mesmo sem uso.
+     * @param tamanhoMaximo Quantidade máxima de conexões abertas ao mesmo tempo.
+     * @param timeoutEmprestimoMs Tempo máximo de espera por uma conexão livre.
+     * @param tempoOciosoMaximoMs Tempo após o qual uma conexão ociosa excedente é fechada.
+     * @param limiteVazamentoMs Tempo de empréstimo a partir do qual a conexão é reportada como vazamento.
+     */
+    public ConnectionPool(String url, String username, String password, int tamanhoMinimo, int tamanhoMaximo,
+                          long timeoutEmprestimoMs, long tempoOciosoMaximoMs, long limiteVazamentoMs) {
+        if (tamanhoMinimo < 0 || tamanhoMaximo < 1 || tamanhoMinimo > tamanhoMaximo) {
+            throw new IllegalArgumentException("Tamanhos do pool invalidos: min=" + tamanhoMinimo + ", max=" + tamanhoMaximo);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeoutEmprestimoMs = timeoutEmprestimoMs;
+        this.tempoOciosoMaximoMs = tempoOciosoMaximoMs;
+        this.limiteVazamentoMs = limiteVazamentoMs;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexoes-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = Math.max(1000, Math.min(tempoOciosoMaximoMs, limiteVazamentoMs) / 2);
+        manutencao.scheduleWithFixedDelay(this::executarManutencao, intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        preencherMinimo();
+    }
+
+    /**
+     * Empresta uma conexão do pool, aguardando até o timeout configurado.
+     * Interage com as classes: Connection.
+     * @return Uma conexão válida. Deve ser fechada (close) para voltar ao pool.
+     * @throws SQLException Se o pool estiver encerrado, esgotado após o timeout ou o banco recusar a conexão.
+     */
+    // Lógica: O semáforo limita o total de conexões emprestadas a 'tamanhoMaximo'. Após obter a permissão,
+    // reaproveita a conexão ociosa mais recente (LIFO, mantém as demais elegíveis para expiração),
+    // validando-a com isValid; conexões inválidas são descartadas e substituídas por uma nova.
+    public Connection getConnection() throws SQLException {
+        if (encerrado) {
+            throw new SQLException("Pool de conexoes encerrado.");
+        }
+
+        boolean obteve;
+        try {
+            obteve = permissoes.tryAcquire(timeoutEmprestimoMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexao do pool.", e);
+        }
+        if (!obteve) {
+            throw new SQLException("Timeout de " + timeoutEmprestimoMs + " ms aguardando conexao livre (max=" + tamanhoMaximo + ").");
+        }
+
+        try {
+            Connection fisica = null;
+            ConexaoOciosa ociosa;
+            while (fisica == null && (ociosa = ociosas.pollFirst()) != null) {
+                if (validar(ociosa.conexao)) {
+                    fisica = ociosa.conexao;
+                } else {
+                    fecharSilenciosamente(ociosa.conexao);
+                }
+            }
+            if (fisica == null) {
+                fisica = abrirConexao();
+            }
+
+            Connection proxy = criarProxy(fisica);
+            StackTraceElement[] origem = RASTREAR_VAZAMENTOS ? Thread.currentThread().getStackTrace() : null;
+            emprestadas.put(proxy, new Emprestimo(fisica, System.currentTimeMillis(), Thread.currentThread().getName(), origem));
+            return proxy;
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e interrompe a manutenção.
+     * Conexões ainda emprestadas são fechadas quando devolvidas.
+     */
+    public void shutdown() {
+        encerrado = true;
+        manutencao.shutdownNow();
+        ConexaoOciosa ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            fecharSilenciosamente(ociosa.conexao);
+        }
+    }
+
+    /** @return A quantidade de conexões atualmente emprestadas. */
+    public int getConexoesAtivas() { return emprestadas.size(); }
+
+    /** @return A quantidade de conexões abertas aguardando uso. */
+    public int getConexoesOciosas() { return ociosas.size(); }
+
+    /**
+     * Devolve a conexão física ao pool. Chamado pelo proxy no close().
+     */
+    // Lógica: Desfaz transações pendentes e restaura o autocommit antes de recolocar a conexão
+    // na fila de ociosas, para que o próximo usuário não herde estado de outra operação.
+    private void devolver(Connection proxy) {
+        Emprestimo emprestimo = emprestadas.remove(proxy);
+        if (emprestimo == null) {
+            return;
+        }
+        Connection fisica = emprestimo.conexao;
+        try {
+            if (encerrado || fisica.isClosed()) {
+                fecharSilenciosamente(fisica);
+                return;
+            }
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            ociosas.offerFirst(new ConexaoOciosa(fisica, System.currentTimeMillis()));
+        } catch (SQLException e) {
+            System.err.println("Erro devolver conexao ao pool: " + e.getMessage());
+            fecharSilenciosamente(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    /**
+     * Rotina periódica: expira conexões ociosas excedentes, repõe o mínimo e reporta vazamentos.
+     */
+    private void executarManutencao() {
+        try {
+            long agora = System.currentTimeMillis();
+
+            Iterator<ConexaoOciosa> it = ociosas.descendingIterator();
+            while (it.hasNext() && ociosas.size() > tamanhoMinimo) {
+                ConexaoOciosa ociosa = it.next();
+                if (agora - ociosa.desde > tempoOciosoMaximoMs && ociosas.remove(ociosa)) {
+                    fecharSilenciosamente(ociosa.conexao);
+                }
+            }
+
+            for (Emprestimo emprestimo : emprestadas.values()) {
+                if (!emprestimo.reportado && agora - emprestimo.desde > limiteVazamentoMs) {
+                    emprestimo.reportado = true;
+                    System.err.println("Possivel vazamento de conexao: emprestada ha " + (agora - emprestimo.desde) +
+                        " ms pela thread '" + emprestimo.thread + "'" + descreverOrigem(emprestimo.origem));
+                }
+            }
+
+            preencherMinimo();
+        } catch (RuntimeException e) {
+            System.err.println("Erro manutencao pool: " + e.getMessage());
+        }
+    }
+
+    // Lógica: Mostra só o primeiro ponto da pilha fora do pool e do DatabaseConnection, ou seja,
+    // quem pediu a conexão (normalmente um método de DAO).
+    private static String descreverOrigem(StackTraceElement[] origem) {
+        if (origem == null) {
+            return " (para ver onde, use -Dclinica.pool.rastrearVazamentos=true)";
+        }
+        for (StackTraceElement elemento : origem) {
+            String classe = elemento.getClassName();
+            if (!classe.startsWith("java.") && !classe.equals(ConnectionPool.class.getName())
+                    && !classe.equals(DatabaseConnection.class.getName())) {
+                return " em " + elemento;
+            }
+        }
+        return "";
+    }
+
+    private void preencherMinimo() {
+        while (!encerrado && ociosas.size() + emprestadas.size() < tamanhoMinimo) {
+            try {
+                ociosas.offerLast(new ConexaoOciosa(abrirConexao(), System.currentTimeMillis()));
+            } catch (SQLException e) {
+                System.err.println("Erro abrir conexao do pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private Connection abrirConexao() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private boolean validar(Connection conexao) {
+        try {
+            return !conexao.isClosed() && conexao.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void fecharSilenciosamente(Connection conexao) {
+        try {
+            conexao.close();
+        } catch (SQLException e) {
+            System.err.println("Erro fechar conexao do pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cria o proxy entregue aos DAOs. close() devolve ao pool em vez de fechar o socket
+     * e qualquer uso após o close() falha, evitando que duas operações compartilhem a conexão.
+     */
+    private Connection criarProxy(Connection fisica) {
+        InvocationHandler handler = new InvocationHandler() {
+            private volatile boolean fechado;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!fechado) {
+                            fechado = true;
+                            devolver((Connection) proxy);
+                        }
+                        return null;
+                    case "isClosed":
+                        return fechado || fisica.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "ConexaoDoPool[" + fisica + "]";
+                    default:
+                        if (fechado) {
+                            throw new SQLException("Conexao ja devolvida ao pool.");
+                        }
+                        try {
+                            return method.invoke(fisica, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static class ConexaoOciosa {
+        final Connection conexao;
+        final long desde;
+
+        ConexaoOciosa(Connection conexao, long desde) {
+            this.conexao = conexao;
+            this.desde = desde;
+        }
+    }
+
+    private static class Emprestimo {
+        final Connection conexao;
+        final long desde;
+        final String thread;
+        final StackTraceElement[] origem;
+        volatile boolean reportado;
+
+        Emprestimo(Connection conexao, long desde, String thread, StackTraceElement[] origem) {
+            this.conexao = conexao;
+            this.desde = desde;
+            this.thread = thread;
+            this.origem = origem;
+        }
+    }
+}
@@ -1,31 +1,37 @@
 package br.com.clinica.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/clinica_medica";
+    // rewriteBatchedStatements: o driver junta os INSERTs de um batch em um único INSERT multi-valores (saveAll dos DAOs)
+    private static final String URL = "jdbc:mysql://localhost:3306/clinica_medica?rewriteBatchedStatements=true";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "root";
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    // Parâmetros do pool de conexões
+    private static final int POOL_MINIMO = 2;
+    private static final int POOL_MAXIMO = 10;
+    private static final long POOL_TIMEOUT_EMPRESTIMO_MS = 10_000;
+    private static final long POOL_TEMPO_OCIOSO_MS = 5 * 60_000;
+    private static final long POOL_LIMITE_VAZAMENTO_MS = 60_000;
     
     private static DatabaseConnection instance;
-    private Connection connection;
+    private ConnectionPool pool;
 
     /**
      * Construtor privado para implementar o padrão Singleton.
-     * Tenta estabelecer a conexão inicial com o banco de dados.
+     * Carrega o driver e cria o pool de conexões com o banco de dados.
      */
     private DatabaseConnection() {
         try {
             Class.forName(DRIVER);
-            this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            System.out.println("Conexao estabelecida!");
+            this.pool = new ConnectionPool(URL, USERNAME, PASSWORD, POOL_MINIMO, POOL_MAXIMO,
+                    POOL_TIMEOUT_EMPRESTIMO_MS, POOL_TEMPO_OCIOSO_MS, POOL_LIMITE_VAZAMENTO_MS);
+            System.out.println("Pool de conexoes criado!");
         } catch (ClassNotFoundException e) {
             System.err.println("Driver MySQL nao encontrado: " + e.getMessage());
-        } catch (SQLException e) {
-            System.err.println("Erro conexao banco: " + e.getMessage());
         }
     }
 
@@ -34,8 +40,9 @@ public class DatabaseConnection {
      * Interage com as classes: DatabaseConnection.
      */
     // Lógica: Implementa o padrão Singleton. Se a instância ainda não foi criada,
-    // invoca o construtor privado para inicializá-la, garantindo que exista apenas um objeto de conexão.
-    public static DatabaseConnection getInstance() {
+    // invoca o construtor privado para inicializá-la, garantindo que exista apenas um pool de conexões.
+    // É sincronizado porque telas e relatórios podem pedir conexões a partir de threads diferentes.
+    public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
             instance = new DatabaseConnection();
         }
@@ -43,34 +50,26 @@ public class DatabaseConnection {
     }
 
     /**
-     * Retorna a instância ativa da conexão com o banco de dados.
-     * Interage com as classes: Connection.
+     * Empresta uma conexão do pool. Quem chama deve fechá-la (try-with-resources)
+     * ao final da operação para devolvê-la ao pool.
+     * Interage com as classes: ConnectionPool, Connection.
+     * @throws SQLException Se o driver não foi carregado, o pool estiver esgotado ou o banco estiver indisponível.
      */
-    // Lógica: Verifica se a conexão é nula ou foi fechada. Se uma dessas condições for verdadeira,
-    // tenta restabelecer a conexão antes de retorná-la, garantindo sua disponibilidade.
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            }
-        } catch (SQLException e) {
-            System.err.println("Erro verificar conexao: " + e.getMessage());
+    public Connection getConnection() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("Driver MySQL nao carregado.");
         }
-        return connection;
+        return pool.getConnection();
     }
 
     /**
-     * Fecha a conexão com o banco de dados se ela estiver aberta.
-     * Interage com as classes: Connection.
+     * Encerra o pool, fechando as conexões ociosas com o banco de dados.
+     * Interage com as classes: ConnectionPool.
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Conexao fechada!");
-            }
-        } catch (SQLException e) {
-            System.err.println("Erro fechar conexao: " + e.getMessage());
+        if (pool != null) {
+            pool.shutdown();
+            System.out.println("Pool de conexoes encerrado!");
         }
     }
-}
\ No newline at end of file
+}
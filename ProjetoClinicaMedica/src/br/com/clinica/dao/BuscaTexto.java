@@ -0,0 +1,89 @@
+package br.com.clinica.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Apoio às buscas por texto dos DAOs (MedicoDAO.buscar, PacienteDAO.buscar).
+ * Uma busca é feita em etapas, da mais precisa para a mais ampla (ex.: documento por prefixo,
+ * nome por prefixo, palavras do nome em qualquer posição via FULLTEXT); cada etapa é uma consulta
+ * indexada com LIMIT, e os resultados são acumulados sem repetição, na ordem das etapas, até o limite.
+ * Interage com as classes: MedicoDAO, PacienteDAO, MapeamentoLinhas.
+ */
+final class BuscaTexto {
+
+    // ER_FT_MATCHING_KEY_NOT_FOUND: a tabela não tem o índice FULLTEXT usado no MATCH
+    private static final int ERRO_SEM_INDICE_TEXTO_COMPLETO = 1191;
+
+    private BuscaTexto() {}
+
+    /**
+     * @return O texto com os curingas do LIKE escapados, seguido de '%' (busca por prefixo).
+     */
+    static String prefixoLike(String texto) {
+        StringBuilder padrao = new StringBuilder(texto.length() + 1);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                padrao.append('\\');
+            }
+            padrao.append(c);
+        }
+        return padrao.append('%').toString();
+    }
+
+    /**
+     * Monta a expressão do MATCH ... AGAINST em modo booleano: cada palavra do texto normalizado é
+     * obrigatória e aceita como prefixo ("+silva* +jo*").
+     * @return A expressão, ou null se não restar palavra (os operadores do modo booleano são removidos).
+     */
+    static String consultaTextoCompleto(String normalizado) {
+        StringBuilder consulta = new StringBuilder();
+        for (String palavra : normalizado.split(" ")) {
+            String limpa = palavra.replaceAll("[^\\p{L}\\p{N}]", "");
+            if (limpa.isEmpty()) continue;
+            if (consulta.length() > 0) consulta.append(' ');
+            consulta.append('+').append(limpa).append('*');
+        }
+        return consulta.length() > 0 ? consulta.toString() : null;
+    }
+
+    /**
+     * @return true se o erro indica que o índice FULLTEXT não foi criado (ver README).
+     */
+    static boolean isSemIndiceTextoCompleto(SQLException e) {
+        return e.getErrorCode() == ERRO_SEM_INDICE_TEXTO_COMPLETO;
+    }
+
+    /**
+     * Executa uma etapa da busca, acrescentando a 'encontrados' os registros ainda ausentes.
+     * @param sql Consulta cujo último parâmetro é o LIMIT.
+     * @param limite Total desejado de registros; a etapa para ao atingi-lo.
+     * @param compilador Cria o mapeador de linhas do resultado (ver MapeamentoLinhas).
+     * @param parametros Os valores dos demais '?', na ordem em que aparecem.
+     */
+    static <T> void executarEtapa(Connection conn, String sql, int limite, MapeamentoLinhas.Compilador<T> compilador,
+                                  Function<T, String> chave, Map<String, T> encontrados, Object... parametros) throws SQLException {
+        if (encontrados.size() >= limite) return;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            // Pede o limite inteiro, pois registros de etapas anteriores podem reaparecer nesta
+            stmt.setInt(parametros.length + 1, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<T> mapeador = compilador.compilar(sql, rs);
+                while (rs.next() && encontrados.size() < limite) {
+                    T registro = mapeador.mapear(rs);
+                    encontrados.putIfAbsent(chave.apply(registro), registro);
+                }
+            }
+        }
+    }
+}
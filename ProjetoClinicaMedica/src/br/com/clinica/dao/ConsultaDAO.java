@@ -6,37 +6,89 @@ import br.com.clinica.model.*;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class ConsultaDAO {
-    private Connection connection;
-    private MedicoDAO medicoDAO;
-    private PacienteDAO pacienteDAO;
 
     /**
-     * Construtor. Inicializa a conexão com o banco de dados e as instâncias de MedicoDAO e PacienteDAO.
-     * Interage com as classes: DatabaseConnection, MedicoDAO, PacienteDAO.
+     * Projeção usada por todas as leituras: traz a consulta, o médico e o paciente em uma única
+     * consulta SQL. As colunas de médico e paciente recebem os prefixos 'medico_' e 'paciente_'
+     * para que MedicoDAO e PacienteDAO possam mapeá-las a partir do mesmo ResultSet.
+     * LEFT JOIN preserva consultas cujo médico ou paciente não exista mais.
      */
-    public ConsultaDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-        this.medicoDAO = new MedicoDAO();
-        this.pacienteDAO = new PacienteDAO();
+    private static final String SELECT_COMPLETO =
+        "SELECT c.id, c.data_horario, c.observacoes, c.status, " +
+        "m.crm AS medico_crm, m.nome AS medico_nome, m.especialidade AS medico_especialidade, " +
+        "m.dias_atendimento AS medico_dias_atendimento, m.horario_inicio AS medico_horario_inicio, " +
+        "m.horario_fim AS medico_horario_fim, m.sala_atendimento AS medico_sala_atendimento, " +
+        "p.cpf AS paciente_cpf, p.nome AS paciente_nome, p.data_nascimento AS paciente_data_nascimento, " +
+        "p.endereco AS paciente_endereco, p.telefone AS paciente_telefone " +
+        "FROM consultas c " +
+        "LEFT JOIN medicos m ON m.crm = c.medico_crm " +
+        "LEFT JOIN pacientes p ON p.cpf = c.paciente_cpf ";
+
+    // Caracteres de observações lidos nas listagens das telas, que exibem só uma prévia
+    private static final int TAMANHO_PREVIA_OBSERVACOES = 100;
+
+    /**
+     * Projeção das listagens e relatórios (LinhaConsulta): apenas as colunas exibidas, sem os dados
+     * de agenda do médico nem os de contato do paciente. '%s' é a coluna de observações: nas telas,
+     * só o início do texto; nos relatórios, o texto inteiro.
+     */
+    private static final String SELECT_LINHA_BASE =
+        "SELECT c.id, c.data_horario, c.status, %s AS observacoes, c.medico_crm, m.nome AS medico_nome, " +
+        "c.paciente_cpf, p.nome AS paciente_nome " +
+        "FROM consultas c " +
+        "LEFT JOIN medicos m ON m.crm = c.medico_crm " +
+        "LEFT JOIN pacientes p ON p.cpf = c.paciente_cpf ";
+    private static final String SELECT_LINHA = String.format(SELECT_LINHA_BASE, "LEFT(c.observacoes, " + TAMANHO_PREVIA_OBSERVACOES + ")");
+    private static final String SELECT_LINHA_RELATORIO = String.format(SELECT_LINHA_BASE, "c.observacoes");
+
+    // Colunas lidas pelos mapeadores compilados, na ordem das posições usadas neles
+    private static final String[] COLUNAS_CONSULTA = {"id", "data_horario", "observacoes", "status"};
+    private static final String[] COLUNAS_LINHA = {"id", "data_horario", "status", "observacoes",
+        "medico_crm", "medico_nome", "paciente_cpf", "paciente_nome"};
+
+    private static final String SQL_INSERT = "INSERT INTO consultas (medico_crm, paciente_cpf, data_horario, observacoes, status) " +
+        "VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE consultas SET medico_crm = ?, paciente_cpf = ?, data_horario = ?, " +
+        "observacoes = ?, status = ? WHERE id = ?";
+
+    // Avisados após cada gravação confirmada (save, update, delete e lotes)
+    private static final List<OuvinteConsultas> OUVINTES = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra quem deve ser avisado das gravações de consultas feitas por qualquer ConsultaDAO.
+     */
+    public static void adicionarOuvinte(OuvinteConsultas ouvinte) {
+        OUVINTES.add(ouvinte);
     }
 
     /**
      * Salva uma nova consulta no banco de dados.
+     * Não atualiza consultas_resumo_diario: os totais desse dia só voltam a bater na próxima
+     * reconstrução (ResumoDiarioService); agendamentos das telas passam pelo ConsultaService.
      * Interage com as classes: Consulta, DatabaseConnection.
      */
     public void save(Consulta consulta) throws SQLException {
-        String sql = "INSERT INTO consultas (medico_crm, paciente_cpf, data_horario, observacoes, status) " +
-                    "VALUES (?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, consulta.getMedico().getCrm());
-            stmt.setString(2, consulta.getPaciente().getCpf());
-            stmt.setTimestamp(3, Timestamp.valueOf(consulta.getDataHorario()));
-            stmt.setString(4, consulta.getObservacoes());
-            stmt.setString(5, consulta.getStatus().name());
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            save(conn, consulta);
+        }
+        avisarAlteracao(consulta.getMedico().getCrm(), consulta.getDataHorario());
+    }
+
+    /**
+     * Salva uma nova consulta usando a conexão (e a transação) de quem chama.
+     * Os ouvintes não são avisados: quem chama deve usar avisarAlteracao() após o commit.
+     * Interage com as classes: Consulta, ConsultaService.
+     */
+    public void save(Connection conn, Consulta consulta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            preencherInsert(stmt, consulta);
             
             stmt.executeUpdate();
             
@@ -48,93 +100,541 @@ public class ConsultaDAO {
         }
     }
 
+    /**
+     * Salva várias consultas com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Não atualiza consultas_resumo_diario (ver save).
+     * Interage com as classes: Consulta, Lote.
+     */
+    int saveAll(List<Consulta> consultas) throws SQLException {
+        return saveAll(consultas, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Salva várias consultas com JDBC batch: cada bloco de 'tamanhoLote' itens é enviado
+     * de uma vez e confirmado em sua própria transação.
+     * Os ids gerados são atribuídos a cada consulta.
+     * Os ouvintes recebem um único aviso genérico (consultasAlteradas) após a gravação de todos os
+     * blocos; se um bloco falhar, não há aviso, e os caches dependem da própria expiração.
+     * Não atualiza consultas_resumo_diario (ver save).
+     * Interage com as classes: Consulta, Lote.
+     * @return O total de consultas gravadas.
+     */
+    int saveAll(List<Consulta> consultas, int tamanhoLote) throws SQLException {
+        int gravadas = Lote.executar(SQL_INSERT, consultas, tamanhoLote, ConsultaDAO::preencherInsert, (consulta, id) -> consulta.setId(id));
+        for (OuvinteConsultas ouvinte : OUVINTES) {
+            ouvinte.consultasAlteradas();
+        }
+        return gravadas;
+    }
+
+    /**
+     * Indica se a falha de gravação foi causada pelo índice único de horário ativo
+     * (uk_consultas_medico_horario_ativo), ou seja, o médico já tem consulta ativa no horário.
+     */
+    public static boolean isHorarioDuplicado(SQLException e) {
+        // 1062 = ER_DUP_ENTRY no MySQL; o nome do índice separa de outras chaves únicas
+        return e.getErrorCode() == 1062 && e.getMessage() != null
+            && e.getMessage().contains("uk_consultas_medico_horario_ativo");
+    }
+
     /**
      * Atualiza os dados de uma consulta existente no banco de dados.
+     * Não atualiza consultas_resumo_diario (ver save); mudanças de status passam pelo
+     * ConsultaService, e as observações por updateObservacoes().
      * Interage com as classes: Consulta, DatabaseConnection.
      */
-    public void update(Consulta consulta) throws SQLException {
-        String sql = "UPDATE consultas SET medico_crm = ?, paciente_cpf = ?, data_horario = ?, " +
-                    "observacoes = ?, status = ? WHERE id = ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, consulta.getMedico().getCrm());
-            stmt.setString(2, consulta.getPaciente().getCpf());
-            stmt.setTimestamp(3, Timestamp.valueOf(consulta.getDataHorario()));
-            stmt.setString(4, consulta.getObservacoes());
-            stmt.setString(5, consulta.getStatus().name());
-            stmt.setLong(6, consulta.getId());
+    void update(Consulta consulta) throws SQLException {
+        Object[] anterior;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            anterior = buscarMedicoEHorario(conn, consulta.getId());
+            preencherUpdate(stmt, consulta);
             
             stmt.executeUpdate();
         }
+        if (anterior != null) {
+            avisarAlteracao((String) anterior[0], (LocalDateTime) anterior[1]);
+        }
+        avisarAlteracao(consulta.getMedico().getCrm(), consulta.getDataHorario());
+    }
+
+    /**
+     * Atualiza apenas as observações de uma consulta, sem regravar status, médico ou horário.
+     * Interage com as classes: DatabaseConnection, TelaGerenciarConsultas.
+     * @return false se a consulta não existe mais.
+     */
+    // Lógica: Gravar só a coluna alterada evita que uma cópia desatualizada em memória desfaça
+    // uma mudança de status feita em outra estação (e deixe os totais diários divergentes).
+    public boolean updateObservacoes(Long id, String observacoes) throws SQLException {
+        Object[] anterior;
+        int alteradas;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE consultas SET observacoes = ? WHERE id = ?")) {
+            anterior = buscarMedicoEHorario(conn, id);
+            stmt.setString(1, observacoes);
+            stmt.setLong(2, id);
+            alteradas = stmt.executeUpdate();
+        }
+        if (anterior != null) {
+            avisarAlteracao((String) anterior[0], (LocalDateTime) anterior[1]);
+        }
+        return alteradas == 1;
+    }
+
+    /**
+     * Atualiza uma consulta usando a conexão (e a transação) de quem chama, sem trocar médico
+     * nem horário, apenas se no banco ela ainda estiver com 'statusAtual'. Os ouvintes não são
+     * avisados: quem chama deve usar avisarAlteracao() após o commit.
+     * Interage com as classes: Consulta, ConsultaService.
+     * @return false se a consulta não existe mais ou já mudou de status (ex.: em outra recepção).
+     */
+    // Lógica: A condição no WHERE faz a verificação e a troca em um único comando, então duas
+    // estações que alteram a mesma consulta ao mesmo tempo não conseguem ambas sair de 'statusAtual'.
+    public boolean updateSeStatus(Connection conn, Consulta consulta, Consulta.StatusConsulta statusAtual) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE + " AND status = ?")) {
+            preencherUpdate(stmt, consulta);
+            stmt.setString(7, statusAtual.name());
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Atualiza várias consultas com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Não atualiza consultas_resumo_diario (ver save).
+     * Interage com as classes: Consulta, Lote.
+     */
+    int updateAll(List<Consulta> consultas) throws SQLException {
+        return updateAll(consultas, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Atualiza várias consultas com JDBC batch, um bloco de 'tamanhoLote' itens por transação.
+     * Não atualiza consultas_resumo_diario (ver save).
+     * Interage com as classes: Consulta, Lote.
+     * @return O total de consultas processadas.
+     */
+    int updateAll(List<Consulta> consultas, int tamanhoLote) throws SQLException {
+        try {
+            return Lote.executar(SQL_UPDATE, consultas, tamanhoLote, ConsultaDAO::preencherUpdate, null);
+        } finally {
+            // As posições antigas das consultas não são lidas no lote; o aviso é genérico
+            for (OuvinteConsultas ouvinte : OUVINTES) {
+                ouvinte.consultasAlteradas();
+            }
+        }
+    }
+
+    private static void preencherInsert(PreparedStatement stmt, Consulta consulta) throws SQLException {
+        stmt.setString(1, consulta.getMedico().getCrm());
+        stmt.setString(2, consulta.getPaciente().getCpf());
+        stmt.setTimestamp(3, Timestamp.valueOf(consulta.getDataHorario()));
+        stmt.setString(4, consulta.getObservacoes());
+        stmt.setString(5, consulta.getStatus().name());
+    }
+
+    private static void preencherUpdate(PreparedStatement stmt, Consulta consulta) throws SQLException {
+        stmt.setString(1, consulta.getMedico().getCrm());
+        stmt.setString(2, consulta.getPaciente().getCpf());
+        stmt.setTimestamp(3, Timestamp.valueOf(consulta.getDataHorario()));
+        stmt.setString(4, consulta.getObservacoes());
+        stmt.setString(5, consulta.getStatus().name());
+        stmt.setLong(6, consulta.getId());
     }
 
     /**
      * Remove uma consulta do banco de dados com base no seu ID.
+     * Não atualiza consultas_resumo_diario (ver save): quem remove deve reconstruir os dias
+     * afetados com ResumoDiarioService.reconstruirPeriodo().
      * Interage com as classes: DatabaseConnection.
      */
     public void delete(Long id) throws SQLException {
         String sql = "DELETE FROM consultas WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        Object[] anterior;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            anterior = buscarMedicoEHorario(conn, id);
             stmt.setLong(1, id);
             stmt.executeUpdate();
         }
+        if (anterior != null) {
+            avisarAlteracao((String) anterior[0], (LocalDateTime) anterior[1]);
+        }
     }
 
     /**
-     * Busca e retorna todas as consultas cadastradas, ordenadas por data.
-     * Interage com as classes: Consulta, DatabaseConnection, MedicoDAO, PacienteDAO.
+     * Lê médico e horário gravados de uma consulta, para avisar os ouvintes sobre a posição
+     * que ela ocupava antes de uma alteração ou remoção.
+     * @return {crm, dataHorario}, ou null se a consulta não existir (ou não houver ouvintes).
      */
-    public List<Consulta> findAll() throws SQLException {
-        String sql = "SELECT * FROM consultas ORDER BY data_horario DESC";
-        List<Consulta> consultas = new ArrayList<>();
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                consultas.add(mapResultSet(rs));
+    private static Object[] buscarMedicoEHorario(Connection conn, Long id) throws SQLException {
+        if (OUVINTES.isEmpty() || id == null) return null;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT medico_crm, data_horario FROM consultas WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new Object[]{ rs.getString(1), rs.getTimestamp(2).toLocalDateTime() } : null;
             }
         }
-        
-        return consultas;
+    }
+
+    /**
+     * Avisa os ouvintes de uma gravação confirmada; usado por quem grava com save/update
+     * na própria transação, depois do commit.
+     */
+    public static void avisarAlteracao(String crmMedico, LocalDateTime dataHorario) {
+        for (OuvinteConsultas ouvinte : OUVINTES) {
+            ouvinte.consultaAlterada(crmMedico, dataHorario);
+        }
+    }
+
+    /**
+     * Busca uma consulta pelo seu ID (chave primária), com médico e paciente.
+     * Interage com as classes: Consulta, DatabaseConnection.
+     * @return A consulta, ou null se não existir.
+     */
+    public Consulta findById(Long id) throws SQLException {
+        List<Consulta> consultas = listar(SELECT_COMPLETO + "WHERE c.id = ?", id);
+        return consultas.isEmpty() ? null : consultas.get(0);
+    }
+
+    /**
+     * Busca e retorna todas as consultas cadastradas, ordenadas por data.
+     * Interage com as classes: Consulta, DatabaseConnection.
+     */
+    public List<Consulta> findAll() throws SQLException {
+        return listar(SELECT_COMPLETO + "ORDER BY c.data_horario DESC");
     }
 
     /**
      * Busca e retorna todas as consultas associadas a um médico específico.
-     * Interage com as classes: Consulta, DatabaseConnection, MedicoDAO, PacienteDAO.
+     * Interage com as classes: Consulta, DatabaseConnection.
      */
     public List<Consulta> findByMedico(String crmMedico) throws SQLException {
-        String sql = "SELECT * FROM consultas WHERE medico_crm = ? ORDER BY data_horario DESC";
-        List<Consulta> consultas = new ArrayList<>();
+        return listar(SELECT_COMPLETO + "WHERE c.medico_crm = ? ORDER BY c.data_horario DESC", crmMedico);
+    }
+
+    /**
+     * Busca e retorna todas as consultas associadas a um paciente específico.
+     * Interage com as classes: Consulta, DatabaseConnection.
+     */
+    public List<Consulta> findByPaciente(String cpfPaciente) throws SQLException {
+        return listar(SELECT_COMPLETO + "WHERE c.paciente_cpf = ? ORDER BY c.data_horario DESC", cpfPaciente);
+    }
+
+    /**
+     * Busca as consultas de um período [inicio, fim), ordenadas por data.
+     * Usa o índice (data_horario, status).
+     * Interage com as classes: Consulta, DatabaseConnection.
+     * @param inicio Início do período (inclusivo).
+     * @param fim Fim do período (exclusivo).
+     */
+    public List<Consulta> findByPeriodo(LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listar(SELECT_COMPLETO + "WHERE c.data_horario >= ? AND c.data_horario < ? ORDER BY c.data_horario DESC",
+            Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as consultas de um médico em um período [inicio, fim), ordenadas por data.
+     * Usa o índice (medico_crm, data_horario).
+     * Interage com as classes: Consulta, DatabaseConnection.
+     */
+    public List<Consulta> findByMedicoEPeriodo(String crmMedico, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listar(SELECT_COMPLETO + "WHERE c.medico_crm = ? AND c.data_horario >= ? AND c.data_horario < ? " +
+            "ORDER BY c.data_horario DESC", crmMedico, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as consultas de um paciente em um período [inicio, fim), ordenadas por data.
+     * Usa o índice (paciente_cpf, data_horario).
+     * Interage com as classes: Consulta, DatabaseConnection.
+     */
+    public List<Consulta> findByPacienteEPeriodo(String cpfPaciente, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listar(SELECT_COMPLETO + "WHERE c.paciente_cpf = ? AND c.data_horario >= ? AND c.data_horario < ? " +
+            "ORDER BY c.data_horario DESC", cpfPaciente, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as linhas (LinhaConsulta) das consultas de um período [inicio, fim), ordenadas por data.
+     * Usa o índice (data_horario, status).
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public List<LinhaConsulta> findLinhasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listarLinhas(SELECT_LINHA + "WHERE c.data_horario >= ? AND c.data_horario < ? ORDER BY c.data_horario DESC",
+            Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as linhas das consultas de um médico em um período [inicio, fim), ordenadas por data.
+     * Usa o índice (medico_crm, data_horario).
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public List<LinhaConsulta> findLinhasPorMedicoEPeriodo(String crmMedico, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listarLinhas(SELECT_LINHA + "WHERE c.medico_crm = ? AND c.data_horario >= ? AND c.data_horario < ? " +
+            "ORDER BY c.data_horario DESC", crmMedico, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as linhas das consultas de um paciente em um período [inicio, fim), ordenadas por data.
+     * Usa o índice (paciente_cpf, data_horario).
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public List<LinhaConsulta> findLinhasPorPacienteEPeriodo(String cpfPaciente, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listarLinhas(SELECT_LINHA + "WHERE c.paciente_cpf = ? AND c.data_horario >= ? AND c.data_horario < ? " +
+            "ORDER BY c.data_horario DESC", cpfPaciente, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Busca as consultas com um status em um período [inicio, fim), ordenadas por data.
+     * Usa o índice (data_horario, status).
+     * Interage com as classes: Consulta, DatabaseConnection.
+     */
+    public List<Consulta> findByStatusEPeriodo(Consulta.StatusConsulta status, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return listar(SELECT_COMPLETO + "WHERE c.data_horario >= ? AND c.data_horario < ? AND c.status = ? " +
+            "ORDER BY c.data_horario DESC", Timestamp.valueOf(inicio), Timestamp.valueOf(fim), status.name());
+    }
+
+    /**
+     * Busca uma página da listagem de consultas (LinhaConsulta), da mais recente para a mais antiga,
+     * por paginação keyset: a página seguinte começa logo após a última linha da página anterior,
+     * pela chave (data_horario, id), então o custo de cada página não depende de quantas já foram lidas.
+     * Depende do índice idx_consultas_data_id (data_horario, id) para ler na ordem sem filesort (ver README).
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     * @param ultima A última linha da página anterior, ou null para a primeira página.
+     * @param limite Tamanho máximo da página.
+     * @return As linhas da página; menos que 'limite' indica que não há mais páginas.
+     */
+    public List<LinhaConsulta> findPagina(LinhaConsulta ultima, int limite) throws SQLException {
+        if (ultima == null) {
+            return listarLinhas(SELECT_LINHA + "ORDER BY c.data_horario DESC, c.id DESC LIMIT ?", limite);
+        }
+        Timestamp data = Timestamp.valueOf(ultima.getDataHorario());
+        return listarLinhas(SELECT_LINHA + "WHERE c.data_horario < ? OR (c.data_horario = ? AND c.id < ?) " +
+            "ORDER BY c.data_horario DESC, c.id DESC LIMIT ?", data, data, ultima.getId(), limite);
+    }
+
+    /**
+     * Busca uma página da listagem de findPagina começando no próprio marco (inclusive).
+     * Usado para saltar direto a um ponto da lista a partir dos marcos de findMarcos: o índice
+     * idx_consultas_data_id é posicionado na chave do marco, sem percorrer as linhas anteriores.
+     * Interage com as classes: LinhaConsulta, Marco, DatabaseConnection.
+     * @param limite Tamanho máximo da página.
+     */
+    public List<LinhaConsulta> findPaginaNoMarco(Marco marco, int limite) throws SQLException {
+        Timestamp data = Timestamp.valueOf(marco.getDataHorario());
+        return listarLinhas(SELECT_LINHA + "WHERE c.data_horario < ? OR (c.data_horario = ? AND c.id <= ?) " +
+            "ORDER BY c.data_horario DESC, c.id DESC LIMIT ?", data, data, marco.getId(), limite);
+    }
+
+    /**
+     * Lê a chave (data_horario, id) de uma a cada 'intervalo' consultas da listagem de findPagina:
+     * o marco i é a primeira consulta da posição i * intervalo.
+     * Percorre uma vez só o índice idx_consultas_data_id (sem a junção), como o COUNT(*) de
+     * contarTodas; depois disso, findPaginaNoMarco e findPosicao não dependem da profundidade.
+     * Interage com as classes: Marco, DatabaseConnection, ModeloTabelaConsultas.
+     */
+    public List<Marco> findMarcos(int intervalo) throws SQLException {
+        String sql = "SELECT data_horario, id FROM (" +
+            "SELECT data_horario, id, ROW_NUMBER() OVER (ORDER BY data_horario DESC, id DESC) AS linha FROM consultas) ordenadas " +
+            "WHERE MOD(linha - 1, ?) = 0 ORDER BY linha";
+        List<Marco> marcos = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, intervalo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    marcos.add(new Marco(rs.getObject(1, LocalDateTime.class), rs.getLong(2)));
+                }
+            }
+        }
+        return marcos;
+    }
+
+    /**
+     * Conta todas as consultas.
+     * Interage com as classes: DatabaseConnection.
+     */
+    public int contarTodas() throws SQLException {
+        return contar("SELECT COUNT(*) FROM consultas", 0);
+    }
+
+    /**
+     * Conta as consultas de um período, de qualquer status, pelo índice de data_horario.
+     * Interage com as classes: DatabaseConnection, RelatorioService.
+     * @param fim Fim do período (exclusivo).
+     */
+    public int contarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        return contar("SELECT COUNT(*) FROM consultas WHERE data_horario >= ? AND data_horario < ?", 0,
+            Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Retorna a posição de uma consulta na listagem de findPagina (mais recente primeiro).
+     * A consulta é situada entre os marcos de findMarcos (lidos com o mesmo 'intervalo') e só as
+     * consultas entre o marco anterior e ela são contadas, no máximo 'intervalo' linhas do índice.
+     * Interage com as classes: Marco, DatabaseConnection, ModeloTabelaConsultas.
+     * @return A posição (a partir de 0), ou -1 se a consulta não existir.
+     */
+    public int findPosicao(Long id, List<Marco> marcos, int intervalo) throws SQLException {
+        Marco alvo;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT data_horario FROM consultas WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return -1;
+                alvo = new Marco(rs.getObject(1, LocalDateTime.class), id);
+            }
+        }
+
+        // Último marco que não vem depois do alvo na listagem
+        int inicio = 0, fim = marcos.size() - 1, bloco = -1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (marcos.get(meio).compareTo(alvo) <= 0) {
+                bloco = meio;
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        if (bloco < 0) {
+            // Consulta mais recente que os marcos (gravada depois da leitura deles)
+            return -1;
+        }
+        Marco marco = marcos.get(bloco);
+        Timestamp dataMarco = Timestamp.valueOf(marco.getDataHorario());
+        Timestamp dataAlvo = Timestamp.valueOf(alvo.getDataHorario());
+        String sql = "SELECT COUNT(*) FROM consultas WHERE (data_horario < ? OR (data_horario = ? AND id <= ?)) " +
+            "AND (data_horario > ? OR (data_horario = ? AND id > ?))";
+        return bloco * intervalo + contar(sql, 0, dataMarco, dataMarco, marco.getId(), dataAlvo, dataAlvo, id);
+    }
+
+    /**
+     * Busca uma página do histórico de um paciente, da consulta mais recente para a mais antiga,
+     * por paginação keyset sobre o índice (paciente_cpf, data_horario).
+     * Interage com as classes: Consulta, DatabaseConnection.
+     * @param ultima A última consulta da página anterior, ou null para a primeira página.
+     */
+    public List<Consulta> findPaginaPorPaciente(String cpfPaciente, Consulta ultima, int limite) throws SQLException {
+        if (ultima == null) {
+            return listar(SELECT_COMPLETO + "WHERE c.paciente_cpf = ? ORDER BY c.data_horario DESC, c.id DESC LIMIT ?",
+                cpfPaciente, limite);
+        }
+        Timestamp data = Timestamp.valueOf(ultima.getDataHorario());
+        return listar(SELECT_COMPLETO + "WHERE c.paciente_cpf = ? AND (c.data_horario < ? OR (c.data_horario = ? AND c.id < ?)) " +
+            "ORDER BY c.data_horario DESC, c.id DESC LIMIT ?", cpfPaciente, data, data, ultima.getId(), limite);
+    }
+
+    /**
+     * Percorre todas as consultas, da mais recente para a mais antiga, sem carregá-las em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     * @param acao Chamada para cada linha lida (LinhaConsulta, com as observações completas). Não deve
+     *             guardar as linhas se o objetivo for manter a memória constante.
+     */
+    public void percorrerTodas(Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "ORDER BY c.data_horario DESC", acao);
+    }
+
+    /**
+     * Percorre as consultas de um médico, da mais recente para a mais antiga, sem carregá-las em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public void percorrerPorMedico(String crmMedico, Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "WHERE c.medico_crm = ? ORDER BY c.data_horario DESC", acao, crmMedico);
+    }
+
+    /**
+     * Percorre o histórico de um paciente, da consulta mais recente para a mais antiga, sem carregá-lo em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public void percorrerPorPaciente(String cpfPaciente, Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "WHERE c.paciente_cpf = ? ORDER BY c.data_horario DESC", acao, cpfPaciente);
+    }
+
+    /**
+     * Percorre as consultas de um período [inicio, fim) sem carregá-las em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public void percorrerPorPeriodo(LocalDateTime inicio, LocalDateTime fim, Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "WHERE c.data_horario >= ? AND c.data_horario < ? ORDER BY c.data_horario DESC",
+            acao, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Percorre as consultas de um médico em um período [inicio, fim) sem carregá-las em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public void percorrerPorMedicoEPeriodo(String crmMedico, LocalDateTime inicio, LocalDateTime fim, Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "WHERE c.medico_crm = ? AND c.data_horario >= ? AND c.data_horario < ? " +
+            "ORDER BY c.data_horario DESC", acao, crmMedico, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * Percorre as consultas com um status em um período [inicio, fim) sem carregá-las em memória.
+     * Interage com as classes: LinhaConsulta, DatabaseConnection.
+     */
+    public void percorrerPorStatusEPeriodo(Consulta.StatusConsulta status, LocalDateTime inicio, LocalDateTime fim, Consumer<LinhaConsulta> acao) throws SQLException {
+        percorrer(SELECT_LINHA_RELATORIO + "WHERE c.data_horario >= ? AND c.data_horario < ? AND c.status = ? " +
+            "ORDER BY c.data_horario DESC", acao, Timestamp.valueOf(inicio), Timestamp.valueOf(fim), status.name());
+    }
+
+    /**
+     * Retorna apenas as datas/horas ocupadas (status AGENDADA ou REALIZADA) de um médico em um período.
+     * Lê somente a coluna data_horario, resolvida inteiramente pelo índice (medico_crm, data_horario).
+     * Interage com as classes: DatabaseConnection, DisponibilidadeService.
+     */
+    public List<LocalDateTime> findHorariosOcupados(String crmMedico, LocalDateTime inicio, LocalDateTime fim) throws SQLException {
+        String sql = "SELECT data_horario FROM consultas WHERE medico_crm = ? AND data_horario >= ? AND data_horario < ? " +
+                    "AND status IN ('AGENDADA', 'REALIZADA')";
+        List<LocalDateTime> horarios = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, crmMedico);
+            stmt.setTimestamp(2, Timestamp.valueOf(inicio));
+            stmt.setTimestamp(3, Timestamp.valueOf(fim));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    consultas.add(mapResultSet(rs));
+                    horarios.add(rs.getTimestamp(1).toLocalDateTime());
                 }
             }
         }
         
-        return consultas;
+        return horarios;
+    }
+
+    // Lógica: Lê o primeiro valor da primeira linha; 'seVazio' é devolvido quando não há linha.
+    private int contar(String sql, int seVazio, Object... parametros) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : seVazio;
+            }
+        }
     }
 
     /**
-     * Busca e retorna todas as consultas associadas a um paciente específico.
-     * Interage com as classes: Consulta, DatabaseConnection, MedicoDAO, PacienteDAO.
+     * Executa uma consulta sobre SELECT_COMPLETO e mapeia todas as linhas.
+     * Interage com as classes: DatabaseConnection, MapeamentoLinhas.
+     * @param sql O SQL completo (projeção, filtro e ordenação).
+     * @param parametros Os valores dos '?' na ordem em que aparecem.
      */
-    public List<Consulta> findByPaciente(String cpfPaciente) throws SQLException {
-        String sql = "SELECT * FROM consultas WHERE paciente_cpf = ? ORDER BY data_horario DESC";
+    private List<Consulta> listar(String sql, Object... parametros) throws SQLException {
         List<Consulta> consultas = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, cpfPaciente);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Consulta> mapeador = compilarMapeador(sql, rs);
                 while (rs.next()) {
-                    consultas.add(mapResultSet(rs));
+                    consultas.add(mapeador.mapear(rs));
                 }
             }
         }
@@ -143,29 +643,151 @@ public class ConsultaDAO {
     }
 
     /**
-     * Mapeia uma linha do ResultSet para um objeto do tipo Consulta.
-     * Interage com as classes: ResultSet, Consulta, MedicoDAO, PacienteDAO.
+     * Executa uma consulta sobre a projeção de linhas (SELECT_LINHA ou SELECT_LINHA_RELATORIO).
+     * Interage com as classes: DatabaseConnection, LinhaConsulta.
      */
-    // Lógica: Transforma os dados de uma linha da tabela 'consultas' em um objeto.
-    // Utiliza os DAOs de Medico e Paciente para buscar os objetos associados com base nas chaves estrangeiras.
-    private Consulta mapResultSet(ResultSet rs) throws SQLException {
-        Consulta consulta = new Consulta();
-        consulta.setId(rs.getLong("id"));
-        consulta.setDataHorario(rs.getTimestamp("data_horario").toLocalDateTime());
-        consulta.setObservacoes(rs.getString("observacoes"));
-        consulta.setStatus(Consulta.StatusConsulta.valueOf(rs.getString("status")));
-        
-        // Buscar médico e paciente
-        try {
-            Medico medico = medicoDAO.findById(rs.getString("medico_crm"));
-            Paciente paciente = pacienteDAO.findById(rs.getString("paciente_cpf"));
-            
-            consulta.setMedico(medico);
-            consulta.setPaciente(paciente);
-        } catch (SQLException e) {
-            System.err.println("Erro buscar medico/paciente: " + e.getMessage());
+    private List<LinhaConsulta> listarLinhas(String sql, Object... parametros) throws SQLException {
+        List<LinhaConsulta> linhas = new ArrayList<>();
+        Map<String, String> textos = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<LinhaConsulta> mapeador = compilarMapeadorLinha(sql, rs, textos);
+                while (rs.next()) {
+                    linhas.add(mapeador.mapear(rs));
+                }
+            }
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Executa uma consulta sobre a projeção de linhas entregando cada linha mapeada à ação, em streaming.
+     * Interage com as classes: DatabaseConnection, LinhaConsulta.
+     */
+    // Lógica: Com um statement forward-only/read-only e fetch size Integer.MIN_VALUE, o driver do
+    // MySQL lê as linhas do socket uma a uma em vez de bufferizar o resultado inteiro; a memória
+    // fica limitada à linha atual mais os nomes e documentos distintos já lidos.
+    // Enquanto o streaming está aberto a conexão fica dedicada a ele, por isso a ação não deve
+    // reutilizá-la (o pool entrega outra conexão a quem pedir). O try-with-resources fecha
+    // ResultSet, statement e devolve a conexão ao pool mesmo se a ação lançar exceção.
+    private void percorrer(String sql, Consumer<LinhaConsulta> acao, Object... parametros) throws SQLException {
+        Map<String, String> textos = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<LinhaConsulta> mapeador = compilarMapeadorLinha(sql, rs, textos);
+                while (rs.next()) {
+                    acao.accept(mapeador.mapear(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compila o mapeador de linhas do ResultSet (projeção SELECT_LINHA_BASE) para LinhaConsulta,
+     * com as Strings compartilhadas apenas dentro deste ResultSet.
+     * Interage com as classes: MapeamentoLinhas, BenchmarkMapeamento.
+     */
+    public static MapeamentoLinhas.Mapeador<LinhaConsulta> compilarMapeadorLinha(String sql, ResultSet rs) throws SQLException {
+        return compilarMapeadorLinha(sql, rs, new HashMap<>());
+    }
+
+    /**
+     * Compila o mapeador de linhas do ResultSet (projeção SELECT_LINHA_BASE) para LinhaConsulta.
+     * Interage com as classes: ResultSet, LinhaConsulta, MapeamentoLinhas.
+     * @param textos Nomes e documentos já lidos nesta leitura, para que as linhas do mesmo médico
+     *               ou paciente compartilhem as mesmas Strings em vez de cópias.
+     */
+    private static MapeamentoLinhas.Mapeador<LinhaConsulta> compilarMapeadorLinha(String sql, ResultSet rs,
+                                                                                Map<String, String> textos) throws SQLException {
+        int[] posicoes = MapeamentoLinhas.posicoes(sql, rs, "", COLUNAS_LINHA);
+        int colunaId = posicoes[0];
+        int colunaDataHorario = posicoes[1];
+        int colunaStatus = posicoes[2];
+        int colunaObservacoes = posicoes[3];
+        int colunaCrm = posicoes[4];
+        int colunaNomeMedico = posicoes[5];
+        int colunaCpf = posicoes[6];
+        int colunaNomePaciente = posicoes[7];
+
+        return linha -> new LinhaConsulta(
+            linha.getLong(colunaId),
+            linha.getObject(colunaDataHorario, LocalDateTime.class),
+            Consulta.StatusConsulta.valueOf(linha.getString(colunaStatus)),
+            compartilhar(textos, linha.getString(colunaCrm)),
+            compartilhar(textos, linha.getString(colunaNomeMedico)),
+            compartilhar(textos, linha.getString(colunaCpf)),
+            compartilhar(textos, linha.getString(colunaNomePaciente)),
+            linha.getString(colunaObservacoes));
+    }
+
+    private static String compartilhar(Map<String, String> textos, String texto) {
+        if (texto == null) return null;
+        String existente = textos.putIfAbsent(texto, texto);
+        return existente != null ? existente : texto;
+    }
+
+    /**
+     * Compila o mapeador de linhas do ResultSet (projeção SELECT_COMPLETO) para objetos Consulta.
+     * Interage com as classes: ResultSet, Consulta, MapaIdentidade, MapeamentoLinhas.
+     */
+    // Lógica: Transforma os dados de uma linha da junção consultas/medicos/pacientes em um objeto.
+    // Médico e paciente vêm das colunas prefixadas da mesma linha, sem idas extras ao banco,
+    // e o mapa de identidade (um por leitura) faz com que linhas do mesmo CRM/CPF compartilhem
+    // a mesma instância.
+    private static MapeamentoLinhas.Mapeador<Consulta> compilarMapeador(String sql, ResultSet rs) throws SQLException {
+        int[] posicoes = MapeamentoLinhas.posicoes(sql, rs, "", COLUNAS_CONSULTA);
+        int colunaId = posicoes[0];
+        int colunaDataHorario = posicoes[1];
+        int colunaObservacoes = posicoes[2];
+        int colunaStatus = posicoes[3];
+        MapaIdentidade mapa = new MapaIdentidade(sql, rs);
+
+        return linha -> {
+            Consulta consulta = new Consulta();
+            consulta.setId(linha.getLong(colunaId));
+            consulta.setDataHorario(linha.getObject(colunaDataHorario, LocalDateTime.class));
+            consulta.setObservacoes(linha.getString(colunaObservacoes));
+            consulta.setStatus(Consulta.StatusConsulta.valueOf(linha.getString(colunaStatus)));
+            consulta.setMedico(mapa.medico(linha));
+            consulta.setPaciente(mapa.paciente(linha));
+            return consulta;
+        };
+    }
+
+    /**
+     * Chave (data_horario, id) de uma consulta na listagem de findPagina, usada como ponto de
+     * partida dos saltos. Marcos são comparados na ordem da listagem: mais recente primeiro.
+     */
+    public static final class Marco implements Comparable<Marco> {
+        private final LocalDateTime dataHorario;
+        private final long id;
+
+        Marco(LocalDateTime dataHorario, long id) {
+            this.dataHorario = dataHorario;
+            this.id = id;
+        }
+
+        public LocalDateTime getDataHorario() { return dataHorario; }
+        public long getId() { return id; }
+
+        @Override
+        public int compareTo(Marco outro) {
+            int comparacao = outro.dataHorario.compareTo(dataHorario);
+            return comparacao != 0 ? comparacao : Long.compare(outro.id, id);
         }
-        
-        return consulta;
     }
-}
\ No newline at end of file
+}
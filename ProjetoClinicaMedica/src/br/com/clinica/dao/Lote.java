@@ -0,0 +1,86 @@
+package br.com.clinica.dao;
+
+import br.com.clinica.config.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Execução em lote (JDBC batch) compartilhada pelos métodos saveAll/updateAll dos DAOs.
+ * Os itens são enviados em blocos de 'tamanhoLote' comandos; cada bloco é uma transação
+ * própria, então uma falha desfaz apenas o bloco atual e os anteriores permanecem gravados.
+ * Com rewriteBatchedStatements=true na URL (DatabaseConnection), o driver do MySQL reescreve
+ * cada bloco de INSERTs em um único INSERT multi-valores, reduzindo as idas ao banco.
+ * Interage com as classes: DatabaseConnection, ConsultaDAO, MedicoDAO, PacienteDAO.
+ */
+final class Lote {
+
+    /** Tamanho de bloco usado quando o chamador não informa um. */
+    static final int TAMANHO_PADRAO = 1000;
+
+    /** Preenche os parâmetros do comando para um item. */
+    interface Preenchedor<T> {
+        void preencher(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /** Recebe a chave gerada pelo banco para um item inserido. */
+    interface ReceptorChave<T> {
+        void receber(T item, long chave);
+    }
+
+    private Lote() {}
+
+    /**
+     * Executa o comando para todos os itens, em blocos transacionais.
+     * @param receptor Recebe as chaves geradas (AUTO_INCREMENT), ou null se não houver.
+     * @return O total de itens gravados.
+     * @throws SQLException Se um bloco falhar; a mensagem informa quantos itens já foram confirmados.
+     */
+    // Lógica: Uma única conexão e um único PreparedStatement para toda a operação; a cada bloco,
+    // executeBatch + commit. As chaves geradas voltam na mesma ordem dos itens do bloco.
+    static <T> int executar(String sql, List<T> itens, int tamanhoLote, Preenchedor<T> preenchedor, ReceptorChave<T> receptor) throws SQLException {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        int confirmados = 0;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = receptor != null
+                 ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                 : conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            try {
+                for (int inicio = 0; inicio < itens.size(); inicio += tamanhoLote) {
+                    List<T> bloco = itens.subList(inicio, Math.min(inicio + tamanhoLote, itens.size()));
+                    for (T item : bloco) {
+                        preenchedor.preencher(stmt, item);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    if (receptor != null) {
+                        try (ResultSet chaves = stmt.getGeneratedKeys()) {
+                            for (int i = 0; i < bloco.size() && chaves.next(); i++) {
+                                receptor.receber(bloco.get(i), chaves.getLong(1));
+                            }
+                        }
+                    }
+                    conn.commit();
+                    confirmados += bloco.size();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Falha na gravação em lote após " + confirmados + " de " + itens.size()
+                    + " itens confirmados: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return confirmados;
+    }
+}
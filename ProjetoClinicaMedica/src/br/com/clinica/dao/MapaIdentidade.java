@@ -0,0 +1,75 @@
+package br.com.clinica.dao;
+
+import br.com.clinica.model.Medico;
+import br.com.clinica.model.Paciente;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapa de identidade (Identity Map) válido durante uma única leitura de consultas.
+ * Garante que cada CRM e cada CPF vire exatamente uma instância de Medico e Paciente
+ * dentro do resultado, em vez de uma cópia por linha da junção.
+ * Não é compartilhado entre leituras, então nunca devolve dados desatualizados.
+ * Interage com as classes: ConsultaDAO, MedicoDAO, PacienteDAO, MapeamentoLinhas, Medico, Paciente.
+ */
+class MapaIdentidade {
+
+    private static final String[] COLUNA_CHAVE_MEDICO = {"crm"};
+    private static final String[] COLUNA_CHAVE_PACIENTE = {"cpf"};
+
+    private final Map<String, Medico> medicos = new HashMap<>();
+    private final Map<String, Paciente> pacientes = new HashMap<>();
+
+    private final int colunaCrm;
+    private final int colunaCpf;
+    private final MapeamentoLinhas.Mapeador<Medico> mapeadorMedico;
+    private final MapeamentoLinhas.Mapeador<Paciente> mapeadorPaciente;
+
+    /**
+     * Prepara o mapa para o ResultSet de uma junção com as colunas prefixadas por 'medico_' e 'paciente_'.
+     * @param sql O SQL que gerou o ResultSet (ver MapeamentoLinhas).
+     */
+    MapaIdentidade(String sql, ResultSet rs) throws SQLException {
+        this.colunaCrm = MapeamentoLinhas.posicoes(sql, rs, "medico_", COLUNA_CHAVE_MEDICO)[0];
+        this.colunaCpf = MapeamentoLinhas.posicoes(sql, rs, "paciente_", COLUNA_CHAVE_PACIENTE)[0];
+        this.mapeadorMedico = MedicoDAO.compilarMapeador(sql, rs, "medico_");
+        this.mapeadorPaciente = PacienteDAO.compilarMapeador(sql, rs, "paciente_");
+    }
+
+    /**
+     * Retorna o médico da linha atual, mapeando-o apenas na primeira vez que o CRM aparece.
+     */
+    // Lógica: Lê somente a chave (CRM); as demais colunas do médico só são lidas do ResultSet
+    // quando o CRM ainda não está no mapa.
+    Medico medico(ResultSet rs) throws SQLException {
+        String crm = rs.getString(colunaCrm);
+        if (crm == null) {
+            return null;
+        }
+        Medico medico = medicos.get(crm);
+        if (medico == null) {
+            medico = mapeadorMedico.mapear(rs);
+            medicos.put(crm, medico);
+        }
+        return medico;
+    }
+
+    /**
+     * Retorna o paciente da linha atual, mapeando-o apenas na primeira vez que o CPF aparece.
+     */
+    Paciente paciente(ResultSet rs) throws SQLException {
+        String cpf = rs.getString(colunaCpf);
+        if (cpf == null) {
+            return null;
+        }
+        Paciente paciente = pacientes.get(cpf);
+        if (paciente == null) {
+            paciente = mapeadorPaciente.mapear(rs);
+            pacientes.put(cpf, paciente);
+        }
+        return paciente;
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.clinica.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Camada de mapeamento de linhas dos DAOs: converte o ResultSet em objetos lendo as colunas por
+ * posição (rs.getString(3)) em vez de por nome (rs.getString("nome")), que obriga o driver a
+ * procurar o rótulo a cada coluna de cada linha.
+ * Cada DAO compila, para um ResultSet, um Mapeador que já conhece a posição de cada coluna; as
+ * posições são resolvidas pelos metadados na primeira execução de cada SQL (e prefixo) e
+ * reaproveitadas nas seguintes. A cada ResultSet os rótulos das colunas são conferidos com os
+ * guardados; se mudarem (ex.: SELECT * após alterar a tabela), as posições são resolvidas de novo.
+ * As posições guardadas nunca são descartadas: há uma entrada por combinação de SQL, prefixo e
+ * colunas, então os DAOs devem usar SQL fixo (parâmetros em '?'), nunca montado com valores.
+ * Sem reflexão: os mapeadores são lambdas escritas em cada DAO.
+ * Mapeador e Compilador são públicos para que ferramentas de medição (BenchmarkMapeamento) apliquem
+ * os mapeadores dos DAOs a um ResultSet próprio.
+ * Interage com as classes: ConsultaDAO, MedicoDAO, PacienteDAO, MapaIdentidade, BuscaTexto, BenchmarkMapeamento.
+ */
+public final class MapeamentoLinhas {
+
+    /** Converte a linha atual do ResultSet em um registro. */
+    public interface Mapeador<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+
+    /** Cria o Mapeador de um ResultSet do SQL informado, com as posições das colunas já resolvidas. */
+    public interface Compilador<T> {
+        Mapeador<T> compilar(String sql, ResultSet rs) throws SQLException;
+    }
+
+    private static final Map<Chave, Layout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private MapeamentoLinhas() {}
+
+    /**
+     * Retorna a posição (a partir de 1) de cada coluna pedida, na ordem de 'colunas'.
+     * @param sql O SQL que gerou o ResultSet; identifica o formato das linhas.
+     * @param prefixo Prefixo dos rótulos (ex.: "medico_" em junções; "" para a própria tabela).
+     * @param colunas Os rótulos sem prefixo, comparados pelo conteúdo.
+     * @throws SQLException Se alguma coluna não estiver no resultado.
+     */
+    static int[] posicoes(String sql, ResultSet rs, String prefixo, String... colunas) throws SQLException {
+        ResultSetMetaData metadados = rs.getMetaData();
+        Chave chave = new Chave(sql, prefixo, colunas);
+        Layout layout = LAYOUTS.get(chave);
+        if (layout == null || !layout.rotulosIguais(metadados)) {
+            layout = new Layout(rotulos(metadados), resolver(metadados, prefixo, colunas));
+            LAYOUTS.put(chave, layout);
+        }
+        return layout.posicoes;
+    }
+
+    private static String[] rotulos(ResultSetMetaData metadados) throws SQLException {
+        String[] rotulos = new String[metadados.getColumnCount()];
+        for (int i = 0; i < rotulos.length; i++) {
+            rotulos[i] = metadados.getColumnLabel(i + 1);
+        }
+        return rotulos;
+    }
+
+    // Lógica: Em uma junção pode haver rótulos repetidos; vale o primeiro, como em rs.findColumn.
+    private static int[] resolver(ResultSetMetaData metadados, String prefixo, String... colunas) throws SQLException {
+        Map<String, Integer> porRotulo = new HashMap<>();
+        for (int i = metadados.getColumnCount(); i >= 1; i--) {
+            porRotulo.put(metadados.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        int[] posicoes = new int[colunas.length];
+        for (int i = 0; i < colunas.length; i++) {
+            Integer posicao = porRotulo.get((prefixo + colunas[i]).toLowerCase(Locale.ROOT));
+            if (posicao == null) {
+                throw new SQLException("Coluna '" + prefixo + colunas[i] + "' ausente no resultado.");
+            }
+            posicoes[i] = posicao;
+        }
+        return posicoes;
+    }
+
+    private static final class Chave {
+        final String sql;
+        final String prefixo;
+        final String[] colunas;
+        final int hash;
+
+        Chave(String sql, String prefixo, String[] colunas) {
+            this.sql = sql;
+            this.prefixo = prefixo;
+            this.colunas = colunas;
+            this.hash = (sql.hashCode() * 31 + prefixo.hashCode()) * 31 + Arrays.hashCode(colunas);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave outra = (Chave) o;
+            return prefixo.equals(outra.prefixo) && sql.equals(outra.sql) && Arrays.equals(colunas, outra.colunas);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Layout {
+        final String[] rotulos;
+        final int[] posicoes;
+
+        Layout(String[] rotulos, int[] posicoes) {
+            this.rotulos = rotulos;
+            this.posicoes = posicoes;
+        }
+
+        // Lógica: Uma leitura de metadados por ResultSet (não por linha), já em memória no driver.
+        boolean rotulosIguais(ResultSetMetaData metadados) throws SQLException {
+            if (metadados.getColumnCount() != rotulos.length) return false;
+            for (int i = 0; i < rotulos.length; i++) {
+                if (!rotulos[i].equals(metadados.getColumnLabel(i + 1))) return false;
+            }
+            return true;
+        }
+    }
+}
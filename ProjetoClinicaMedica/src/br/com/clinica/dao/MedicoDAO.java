@@ -2,64 +2,110 @@ package br.com.clinica.dao;
 
 import br.com.clinica.config.DatabaseConnection;
 import br.com.clinica.model.Medico;
+import br.com.clinica.util.NormalizadorTexto;
 
 import java.sql.*;
 import java.time.LocalTime;
 import java.util.*;
 
 public class MedicoDAO {
-    private Connection connection;
 
-    /**
-     * Construtor. Inicializa a conexão com o banco de dados.
-     * Interage com as classes: DatabaseConnection.
-     */
-    public MedicoDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
+    // 'nome_normalizado' é mantido pelo DAO (NormalizadorTexto) e indexado para a busca por nome
+    private static final String SQL_INSERT = "INSERT INTO medicos (crm, nome, especialidade, dias_atendimento, " +
+        "horario_inicio, horario_fim, sala_atendimento, nome_normalizado) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE medicos SET nome = ?, especialidade = ?, dias_atendimento = ?, " +
+        "horario_inicio = ?, horario_fim = ?, sala_atendimento = ?, nome_normalizado = ? WHERE crm = ?";
+
+    // Colunas lidas por compilarMapeador, na ordem das posições usadas nele
+    private static final String[] COLUNAS_MAPEADAS = {"crm", "nome", "especialidade", "dias_atendimento",
+        "horario_inicio", "horario_fim", "sala_atendimento"};
+
+    // Desligada na primeira busca que encontrar o banco sem o índice FULLTEXT (ver README)
+    private static volatile boolean textoCompletoDisponivel = true;
 
     /**
      * Salva um novo médico no banco de dados.
      * Interage com as classes: Medico, DatabaseConnection.
      */
     public void save(Medico medico) throws SQLException {
-        String sql = "INSERT INTO medicos (crm, nome, especialidade, dias_atendimento, " +
-                    "horario_inicio, horario_fim, sala_atendimento) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, medico.getCrm());
-            stmt.setString(2, medico.getNome());
-            stmt.setString(3, medico.getEspecialidade());
-            stmt.setString(4, String.join(",", medico.getDiasAtendimento()));
-            stmt.setTime(5, Time.valueOf(medico.getHorarioInicio()));
-            stmt.setTime(6, Time.valueOf(medico.getHorarioFim()));
-            stmt.setString(7, medico.getSalaAtendimento());
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            preencherInsert(stmt, medico);
             
             stmt.executeUpdate();
         }
     }
 
+    /**
+     * Salva vários médicos com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Interage com as classes: Medico, Lote.
+     */
+    public int saveAll(List<Medico> medicos) throws SQLException {
+        return saveAll(medicos, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Salva vários médicos com JDBC batch: cada bloco de 'tamanhoLote' itens é enviado
+     * de uma vez e confirmado em sua própria transação.
+     * Interage com as classes: Medico, Lote.
+     * @return O total de médicos gravados.
+     */
+    public int saveAll(List<Medico> medicos, int tamanhoLote) throws SQLException {
+        return Lote.executar(SQL_INSERT, medicos, tamanhoLote, MedicoDAO::preencherInsert, null);
+    }
+
     /**
      * Atualiza os dados de um médico existente no banco de dados.
      * Interage com as classes: Medico, DatabaseConnection.
      */
     public void update(Medico medico) throws SQLException {
-        String sql = "UPDATE medicos SET nome = ?, especialidade = ?, dias_atendimento = ?, " +
-                    "horario_inicio = ?, horario_fim = ?, sala_atendimento = ? WHERE crm = ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, medico.getNome());
-            stmt.setString(2, medico.getEspecialidade());
-            stmt.setString(3, String.join(",", medico.getDiasAtendimento()));
-            stmt.setTime(4, Time.valueOf(medico.getHorarioInicio()));
-            stmt.setTime(5, Time.valueOf(medico.getHorarioFim()));
-            stmt.setString(6, medico.getSalaAtendimento());
-            stmt.setString(7, medico.getCrm());
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            preencherUpdate(stmt, medico);
             
             stmt.executeUpdate();
         }
     }
 
+    /**
+     * Atualiza vários médicos com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Interage com as classes: Medico, Lote.
+     */
+    public int updateAll(List<Medico> medicos) throws SQLException {
+        return updateAll(medicos, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Atualiza vários médicos com JDBC batch, um bloco de 'tamanhoLote' itens por transação.
+     * Interage com as classes: Medico, Lote.
+     * @return O total de médicos processados.
+     */
+    public int updateAll(List<Medico> medicos, int tamanhoLote) throws SQLException {
+        return Lote.executar(SQL_UPDATE, medicos, tamanhoLote, MedicoDAO::preencherUpdate, null);
+    }
+
+    private static void preencherInsert(PreparedStatement stmt, Medico medico) throws SQLException {
+        stmt.setString(1, medico.getCrm());
+        stmt.setString(2, medico.getNome());
+        stmt.setString(3, medico.getEspecialidade());
+        stmt.setString(4, String.join(",", medico.getDiasAtendimento()));
+        stmt.setTime(5, Time.valueOf(medico.getHorarioInicio()));
+        stmt.setTime(6, Time.valueOf(medico.getHorarioFim()));
+        stmt.setString(7, medico.getSalaAtendimento());
+        stmt.setString(8, NormalizadorTexto.normalizar(medico.getNome()));
+    }
+
+    private static void preencherUpdate(PreparedStatement stmt, Medico medico) throws SQLException {
+        stmt.setString(1, medico.getNome());
+        stmt.setString(2, medico.getEspecialidade());
+        stmt.setString(3, String.join(",", medico.getDiasAtendimento()));
+        stmt.setTime(4, Time.valueOf(medico.getHorarioInicio()));
+        stmt.setTime(5, Time.valueOf(medico.getHorarioFim()));
+        stmt.setString(6, medico.getSalaAtendimento());
+        stmt.setString(7, NormalizadorTexto.normalizar(medico.getNome()));
+        stmt.setString(8, medico.getCrm());
+    }
+
     /**
      * Remove um médico do banco de dados com base no seu CRM.
      * Interage com as classes: DatabaseConnection.
@@ -67,7 +113,8 @@ public class MedicoDAO {
     public void delete(String crm) throws SQLException {
         String sql = "DELETE FROM medicos WHERE crm = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, crm);
             stmt.executeUpdate();
         }
@@ -80,12 +127,13 @@ public class MedicoDAO {
     public Medico findById(String crm) throws SQLException {
         String sql = "SELECT * FROM medicos WHERE crm = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, crm);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSet(rs);
+                    return compilarMapeador(sql, rs).mapear(rs);
                 }
                 return null;
             }
@@ -100,11 +148,13 @@ public class MedicoDAO {
         String sql = "SELECT * FROM medicos ORDER BY nome";
         List<Medico> medicos = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            MapeamentoLinhas.Mapeador<Medico> mapeador = compilarMapeador(sql, rs);
             while (rs.next()) {
-                medicos.add(mapResultSet(rs));
+                medicos.add(mapeador.mapear(rs));
             }
         }
         
@@ -112,26 +162,152 @@ public class MedicoDAO {
     }
 
     /**
-     * Mapeia uma linha do ResultSet para um objeto do tipo Medico.
-     * Interage com as classes: ResultSet, Medico.
+     * Busca médicos por CRM ou nome, inteiramente no banco e por índices.
+     * Os resultados vêm em ordem de relevância: primeiro os CRMs que começam com o texto digitado,
+     * depois os nomes que começam com ele (sem acentos e maiúsculas, via 'nome_normalizado') e,
+     * por fim, os nomes que contêm todas as palavras digitadas como prefixo em qualquer posição
+     * (índice FULLTEXT; etapa ignorada se o índice não existir).
+     * Interage com as classes: Medico, DatabaseConnection, NormalizadorTexto, BuscaTexto.
+     * @param termo Parte do CRM ou do nome.
+     * @param limite Quantidade máxima de médicos retornados.
      */
-    // Lógica: Converte os dados de uma linha da tabela 'medicos' em um objeto Medico.
-    // O campo 'dias_atendimento', armazenado como texto, é dividido para formar a lista de dias.
-    private Medico mapResultSet(ResultSet rs) throws SQLException {
-        Medico medico = new Medico();
-        medico.setCrm(rs.getString("crm"));
-        medico.setNome(rs.getString("nome"));
-        medico.setEspecialidade(rs.getString("especialidade"));
-        
-        String dias = rs.getString("dias_atendimento");
-        if (dias != null && !dias.isEmpty()) {
-            medico.setDiasAtendimento(Arrays.asList(dias.split(",")));
+    public List<Medico> buscar(String termo, int limite) throws SQLException {
+        String crm = termo.trim();
+        String normalizado = NormalizadorTexto.normalizar(termo);
+        String textoCompleto = BuscaTexto.consultaTextoCompleto(normalizado);
+        Map<String, Medico> encontrados = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!crm.isEmpty()) {
+                BuscaTexto.executarEtapa(conn, "SELECT * FROM medicos WHERE crm LIKE ? ORDER BY crm LIMIT ?",
+                    limite, MedicoDAO::compilarMapeador, Medico::getCrm, encontrados, BuscaTexto.prefixoLike(crm));
+            }
+            if (!normalizado.isEmpty()) {
+                BuscaTexto.executarEtapa(conn, "SELECT * FROM medicos WHERE nome_normalizado LIKE ? ORDER BY nome_normalizado, crm LIMIT ?",
+                    limite, MedicoDAO::compilarMapeador, Medico::getCrm, encontrados, BuscaTexto.prefixoLike(normalizado));
+            }
+            if (textoCompleto != null && textoCompletoDisponivel) {
+                try {
+                    BuscaTexto.executarEtapa(conn, "SELECT * FROM medicos WHERE MATCH(nome_normalizado) AGAINST (? IN BOOLEAN MODE) " +
+                        "ORDER BY MATCH(nome_normalizado) AGAINST (? IN BOOLEAN MODE) DESC, nome_normalizado, crm LIMIT ?",
+                        limite, MedicoDAO::compilarMapeador, Medico::getCrm, encontrados, textoCompleto, textoCompleto);
+                } catch (SQLException e) {
+                    if (!BuscaTexto.isSemIndiceTextoCompleto(e)) throw e;
+                    textoCompletoDisponivel = false;
+                    System.err.println("Busca de médicos sem índice FULLTEXT; usando apenas prefixos: " + e.getMessage());
+                }
+            }
+        }
+
+        return new ArrayList<>(encontrados.values());
+    }
+
+    /**
+     * Preenche 'nome_normalizado' dos médicos gravados antes da coluna existir.
+     * Deve ser executado uma vez após a migração do README; registros já preenchidos são ignorados.
+     * Interage com as classes: DatabaseConnection, Lote, NormalizadorTexto.
+     * @return A quantidade de médicos atualizados.
+     */
+    public int preencherNomesNormalizados() throws SQLException {
+        List<String[]> pendentes = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT crm, nome FROM medicos WHERE nome_normalizado IS NULL");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                pendentes.add(new String[]{ rs.getString("crm"), NormalizadorTexto.normalizar(rs.getString("nome")) });
+            }
         }
+        return Lote.executar("UPDATE medicos SET nome_normalizado = ? WHERE crm = ?", pendentes, Lote.TAMANHO_PADRAO,
+            (stmt, pendente) -> {
+                stmt.setString(1, pendente[1]);
+                stmt.setString(2, pendente[0]);
+            }, null);
+    }
+
+    /**
+     * Busca uma página de médicos ordenados por nome, por paginação keyset: a página seguinte
+     * começa logo após o último registro da anterior pela chave (nome, crm), usando o índice
+     * de nome, então o custo de cada página não depende de quantas já foram lidas.
+     * Interage com as classes: Medico, DatabaseConnection.
+     * @param ultimo O último registro da página anterior, ou null para a primeira página.
+     * @param limite Tamanho máximo da página.
+     * @return Os registros da página; menos que 'limite' indica que não há mais páginas.
+     */
+    public List<Medico> findPagina(Medico ultimo, int limite) throws SQLException {
+        String sql = ultimo == null
+            ? "SELECT * FROM medicos ORDER BY nome, crm LIMIT ?"
+            : "SELECT * FROM medicos WHERE nome > ? OR (nome = ? AND crm > ?) ORDER BY nome, crm LIMIT ?";
+        List<Medico> medicos = new ArrayList<>();
         
-        medico.setHorarioInicio(rs.getTime("horario_inicio").toLocalTime());
-        medico.setHorarioFim(rs.getTime("horario_fim").toLocalTime());
-        medico.setSalaAtendimento(rs.getString("sala_atendimento"));
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            if (ultimo != null) {
+                stmt.setString(indice++, ultimo.getNome());
+                stmt.setString(indice++, ultimo.getNome());
+                stmt.setString(indice++, ultimo.getCrm());
+            }
+            stmt.setInt(indice, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Medico> mapeador = compilarMapeador(sql, rs);
+                while (rs.next()) {
+                    medicos.add(mapeador.mapear(rs));
+                }
+            }
+        }
         
-        return medico;
+        return medicos;
+    }
+
+    /**
+     * Compila o mapeador de médicos de um ResultSet da tabela 'medicos'.
+     * Interage com as classes: MapeamentoLinhas, BenchmarkMapeamento.
+     */
+    public static MapeamentoLinhas.Mapeador<Medico> compilarMapeador(String sql, ResultSet rs) throws SQLException {
+        return compilarMapeador(sql, rs, "");
+    }
+
+    /**
+     * Compila o mapeador que converte uma linha do ResultSet em um Medico, lendo as colunas por posição.
+     * Também é usado pelo ConsultaDAO para montar o médico a partir de uma junção.
+     * Interage com as classes: ResultSet, Medico, MapeamentoLinhas.
+     * @param prefixo Prefixo das colunas do médico no ResultSet ("" para a tabela 'medicos').
+     * @return O mapeador; ele devolve null se a linha não tiver médico (CRM nulo na junção).
+     */
+    // Lógica: Converte os dados de uma linha da tabela 'medicos' em um objeto Medico.
+    // O campo 'dias_atendimento', armazenado como texto, é dividido para formar a lista de dias.
+    static MapeamentoLinhas.Mapeador<Medico> compilarMapeador(String sql, ResultSet rs, String prefixo) throws SQLException {
+        int[] posicoes = MapeamentoLinhas.posicoes(sql, rs, prefixo, COLUNAS_MAPEADAS);
+        int colunaCrm = posicoes[0];
+        int colunaNome = posicoes[1];
+        int colunaEspecialidade = posicoes[2];
+        int colunaDias = posicoes[3];
+        int colunaInicio = posicoes[4];
+        int colunaFim = posicoes[5];
+        int colunaSala = posicoes[6];
+
+        return linha -> {
+            String crm = linha.getString(colunaCrm);
+            if (crm == null) {
+                return null;
+            }
+
+            Medico medico = new Medico();
+            medico.setCrm(crm);
+            medico.setNome(linha.getString(colunaNome));
+            medico.setEspecialidade(linha.getString(colunaEspecialidade));
+
+            String dias = linha.getString(colunaDias);
+            if (dias != null && !dias.isEmpty()) {
+                medico.setDiasAtendimento(Arrays.asList(dias.split(",")));
+            }
+
+            medico.setHorarioInicio(linha.getObject(colunaInicio, LocalTime.class));
+            medico.setHorarioFim(linha.getObject(colunaFim, LocalTime.class));
+            medico.setSalaAtendimento(linha.getString(colunaSala));
+
+            return medico;
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package br.com.clinica.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recebe os avisos de gravação do ConsultaDAO, para que caches fora da camada de dados
+ * (ex.: CacheRelatorios) descartem apenas o que foi afetado.
+ * Os avisos chegam depois que a gravação foi confirmada, na thread que gravou.
+ * Interage com as classes: ConsultaDAO.
+ */
+public interface OuvinteConsultas {
+
+    /**
+     * Uma consulta do médico 'crmMedico' no horário 'dataHorario' foi criada, alterada ou removida.
+     * Em uma alteração que muda médico ou horário, o aviso é dado para a posição antiga e para a nova.
+     */
+    void consultaAlterada(String crmMedico, LocalDateTime dataHorario);
+
+    /**
+     * Várias consultas foram alteradas sem que se saiba quais (ex.: atualização em lote).
+     */
+    void consultasAlteradas();
+}
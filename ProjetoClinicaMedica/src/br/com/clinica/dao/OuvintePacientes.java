@@ -0,0 +1,27 @@
+package br.com.clinica.dao;
+
+import br.com.clinica.model.Paciente;
+
+/**
+ * Recebe os avisos de gravação do PacienteDAO, para que índices em memória fora da camada de
+ * dados (ex.: IndicePacientesService) acompanhem os cadastros sem reler a tabela.
+ * Os avisos chegam depois que a gravação foi concluída, na thread que gravou.
+ * Interage com as classes: PacienteDAO.
+ */
+public interface OuvintePacientes {
+
+    /**
+     * Um paciente foi incluído ou alterado; 'paciente' traz os dados gravados.
+     */
+    void pacienteSalvo(Paciente paciente);
+
+    /**
+     * O paciente com o CPF informado foi removido.
+     */
+    void pacienteRemovido(String cpf);
+
+    /**
+     * Vários pacientes foram gravados de uma vez (ex.: lotes).
+     */
+    void pacientesAlterados();
+}
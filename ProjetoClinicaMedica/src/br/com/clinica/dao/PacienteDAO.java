@@ -2,20 +2,46 @@ package br.com.clinica.dao;
 
 import br.com.clinica.config.DatabaseConnection;
 import br.com.clinica.model.Paciente;
+import br.com.clinica.util.NormalizadorTexto;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class PacienteDAO {
-    private Connection connection;
+
+    // 'nome_normalizado' é mantido pelo DAO (NormalizadorTexto) e indexado para a busca por nome
+    private static final String SQL_INSERT = "INSERT INTO pacientes (cpf, nome, data_nascimento, endereco, telefone, historico_medico, nome_normalizado) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // O histórico só é gravado se foi carregado (primeiro parâmetro); senão o valor do banco é mantido
+    private static final String SQL_UPDATE = "UPDATE pacientes SET nome = ?, data_nascimento = ?, endereco = ?, " +
+        "telefone = ?, historico_medico = CASE WHEN ? THEN ? ELSE historico_medico END, nome_normalizado = ? WHERE cpf = ?";
+
+    // Resumo do paciente: o histórico médico (TEXT, sem limite de tamanho) só é lido sob demanda
+    // (carregarHistoricoMedico), nunca em listagens, buscas ou junções
+    private static final String COLUNAS_RESUMO = "cpf, nome, data_nascimento, endereco, telefone";
+    private static final String SELECT_RESUMO = "SELECT " + COLUNAS_RESUMO + " FROM pacientes ";
+
+    // Colunas lidas por compilarMapeador, na ordem das posições usadas nele
+    private static final String[] COLUNAS_MAPEADAS = {"cpf", "nome", "data_nascimento", "endereco", "telefone"};
+
+    // Desligada na primeira busca que encontrar o banco sem o índice FULLTEXT (ver README)
+    private static volatile boolean textoCompletoDisponivel = true;
+
+    // Avisados após cada gravação concluída (save, update, delete e lotes)
+    private static final List<OuvintePacientes> OUVINTES = new CopyOnWriteArrayList<>();
 
     /**
-     * Construtor. Inicializa a conexão com o banco de dados.
-     * Interage com as classes: DatabaseConnection.
+     * Registra quem deve ser avisado das gravações de pacientes feitas por qualquer PacienteDAO.
      */
-    public PacienteDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+    public static void adicionarOuvinte(OuvintePacientes ouvinte) {
+        OUVINTES.add(ouvinte);
     }
 
     /**
@@ -23,19 +49,38 @@ public class PacienteDAO {
      * Interage com as classes: Paciente, DatabaseConnection.
      */
     public void save(Paciente paciente) throws SQLException {
-        String sql = "INSERT INTO pacientes (cpf, nome, data_nascimento, endereco, telefone, historico_medico) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, paciente.getCpf());
-            stmt.setString(2, paciente.getNome());
-            stmt.setDate(3, Date.valueOf(paciente.getDataNascimento()));
-            stmt.setString(4, paciente.getEndereco());
-            stmt.setString(5, paciente.getTelefone());
-            stmt.setString(6, paciente.getHistoricoMedico());
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            preencherInsert(stmt, paciente);
             
             stmt.executeUpdate();
         }
+        for (OuvintePacientes ouvinte : OUVINTES) {
+            ouvinte.pacienteSalvo(paciente);
+        }
+    }
+
+    /**
+     * Salva vários pacientes com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Interage com as classes: Paciente, Lote.
+     */
+    public int saveAll(List<Paciente> pacientes) throws SQLException {
+        return saveAll(pacientes, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Salva vários pacientes com JDBC batch: cada bloco de 'tamanhoLote' itens é enviado
+     * de uma vez e confirmado em sua própria transação.
+     * Interage com as classes: Paciente, Lote.
+     * @return O total de pacientes gravados.
+     */
+    public int saveAll(List<Paciente> pacientes, int tamanhoLote) throws SQLException {
+        try {
+            return Lote.executar(SQL_INSERT, pacientes, tamanhoLote, PacienteDAO::preencherInsert, null);
+        } finally {
+            // Blocos anteriores a uma falha permanecem gravados
+            pacientesAlterados();
+        }
     }
 
     /**
@@ -43,19 +88,63 @@ public class PacienteDAO {
      * Interage com as classes: Paciente, DatabaseConnection.
      */
     public void update(Paciente paciente) throws SQLException {
-        String sql = "UPDATE pacientes SET nome = ?, data_nascimento = ?, endereco = ?, " +
-                    "telefone = ?, historico_medico = ? WHERE cpf = ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, paciente.getNome());
-            stmt.setDate(2, Date.valueOf(paciente.getDataNascimento()));
-            stmt.setString(3, paciente.getEndereco());
-            stmt.setString(4, paciente.getTelefone());
-            stmt.setString(5, paciente.getHistoricoMedico());
-            stmt.setString(6, paciente.getCpf());
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            preencherUpdate(stmt, paciente);
             
             stmt.executeUpdate();
         }
+        for (OuvintePacientes ouvinte : OUVINTES) {
+            ouvinte.pacienteSalvo(paciente);
+        }
+    }
+
+    /**
+     * Atualiza vários pacientes com JDBC batch, em blocos de Lote.TAMANHO_PADRAO por transação.
+     * Interage com as classes: Paciente, Lote.
+     */
+    public int updateAll(List<Paciente> pacientes) throws SQLException {
+        return updateAll(pacientes, Lote.TAMANHO_PADRAO);
+    }
+
+    /**
+     * Atualiza vários pacientes com JDBC batch, um bloco de 'tamanhoLote' itens por transação.
+     * Interage com as classes: Paciente, Lote.
+     * @return O total de pacientes processados.
+     */
+    public int updateAll(List<Paciente> pacientes, int tamanhoLote) throws SQLException {
+        try {
+            return Lote.executar(SQL_UPDATE, pacientes, tamanhoLote, PacienteDAO::preencherUpdate, null);
+        } finally {
+            pacientesAlterados();
+        }
+    }
+
+    private static void pacientesAlterados() {
+        for (OuvintePacientes ouvinte : OUVINTES) {
+            ouvinte.pacientesAlterados();
+        }
+    }
+
+    private static void preencherInsert(PreparedStatement stmt, Paciente paciente) throws SQLException {
+        stmt.setString(1, paciente.getCpf());
+        stmt.setString(2, paciente.getNome());
+        stmt.setDate(3, Date.valueOf(paciente.getDataNascimento()));
+        stmt.setString(4, paciente.getEndereco());
+        stmt.setString(5, paciente.getTelefone());
+        stmt.setString(6, paciente.getHistoricoMedico());
+        stmt.setString(7, NormalizadorTexto.normalizar(paciente.getNome()));
+    }
+
+    private static void preencherUpdate(PreparedStatement stmt, Paciente paciente) throws SQLException {
+        stmt.setString(1, paciente.getNome());
+        stmt.setDate(2, Date.valueOf(paciente.getDataNascimento()));
+        stmt.setString(3, paciente.getEndereco());
+        stmt.setString(4, paciente.getTelefone());
+        stmt.setBoolean(5, paciente.isHistoricoCarregado());
+        stmt.setString(6, paciente.getHistoricoMedico());
+        stmt.setString(7, NormalizadorTexto.normalizar(paciente.getNome()));
+        stmt.setString(8, paciente.getCpf());
     }
 
     /**
@@ -65,25 +154,31 @@ public class PacienteDAO {
     public void delete(String cpf) throws SQLException {
         String sql = "DELETE FROM pacientes WHERE cpf = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, cpf);
             stmt.executeUpdate();
         }
+        for (OuvintePacientes ouvinte : OUVINTES) {
+            ouvinte.pacienteRemovido(cpf);
+        }
     }
 
     /**
-     * Busca e retorna um paciente específico pelo seu CPF.
+     * Busca e retorna um paciente específico pelo seu CPF, sem o histórico médico.
      * Interage com as classes: Paciente, DatabaseConnection.
+     * @return O paciente (use carregarHistoricoMedico para ler o histórico), ou null se não existir.
      */
     public Paciente findById(String cpf) throws SQLException {
-        String sql = "SELECT * FROM pacientes WHERE cpf = ?";
+        String sql = SELECT_RESUMO + "WHERE cpf = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, cpf);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSet(rs);
+                    return compilarMapeador(sql, rs).mapear(rs);
                 }
                 return null;
             }
@@ -91,18 +186,140 @@ public class PacienteDAO {
     }
 
     /**
-     * Busca e retorna uma lista de todos os pacientes cadastrados, ordenados por nome.
+     * Lê o histórico médico de um paciente pela chave primária, sem os demais dados.
+     * Interage com as classes: DatabaseConnection.
+     * @return O histórico, ou null se o paciente não existir ou não tiver histórico.
+     */
+    public String findHistoricoMedico(String cpf) throws SQLException {
+        String sql = "SELECT historico_medico FROM pacientes WHERE cpf = ?";
+        
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, cpf);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("historico_medico") : null;
+            }
+        }
+    }
+
+    /**
+     * Completa o paciente com o histórico médico, se ele ainda não foi carregado
+     * (ex.: antes de exibir o cadastro para edição).
+     * Interage com as classes: Paciente.
+     * @return O próprio paciente.
+     */
+    public Paciente carregarHistoricoMedico(Paciente paciente) throws SQLException {
+        if (paciente != null && !paciente.isHistoricoCarregado()) {
+            paciente.setHistoricoMedico(findHistoricoMedico(paciente.getCpf()));
+        }
+        return paciente;
+    }
+
+    /**
+     * Busca os pacientes com o nome informado, ignorando acentos, maiúsculas e espaços extras.
+     * Usa o índice da coluna 'nome_normalizado' (uma ida ao banco, sem varrer a tabela).
+     * Interage com as classes: Paciente, DatabaseConnection, NormalizadorTexto.
+     * @return Os pacientes homônimos, ordenados por nome e CPF (vazia se nenhum).
+     */
+    public List<Paciente> findByNome(String nome) throws SQLException {
+        String sql = SELECT_RESUMO + "WHERE nome_normalizado = ? ORDER BY nome, cpf";
+        List<Paciente> pacientes = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, NormalizadorTexto.normalizar(nome));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Paciente> mapeador = compilarMapeador(sql, rs);
+                while (rs.next()) {
+                    pacientes.add(mapeador.mapear(rs));
+                }
+            }
+        }
+        
+        return pacientes;
+    }
+
+    /**
+     * Busca pacientes por CPF ou nome, inteiramente no banco e por índices, sem ler o histórico médico.
+     * Os resultados vêm em ordem de relevância: primeiro os CPFs que começam com os dígitos digitados,
+     * depois os nomes que começam com o texto (sem acentos e maiúsculas, via 'nome_normalizado') e,
+     * por fim, os nomes que contêm todas as palavras digitadas como prefixo em qualquer posição
+     * (índice FULLTEXT; etapa ignorada se o índice não existir).
+     * Interage com as classes: Paciente, DatabaseConnection, NormalizadorTexto, BuscaTexto.
+     * @param termo Parte do CPF (com ou sem pontuação) ou do nome.
+     * @param limite Quantidade máxima de pacientes retornados.
+     * @return Os pacientes encontrados, sem histórico médico (null), na ordem descrita.
+     */
+    public List<Paciente> buscar(String termo, int limite) throws SQLException {
+        String normalizado = NormalizadorTexto.normalizar(termo);
+        String digitos = termo.replaceAll("[^0-9]", "");
+        String textoCompleto = BuscaTexto.consultaTextoCompleto(normalizado);
+        Map<String, Paciente> encontrados = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!digitos.isEmpty()) {
+                BuscaTexto.executarEtapa(conn, SELECT_RESUMO + "WHERE cpf LIKE ? ORDER BY cpf LIMIT ?",
+                    limite, PacienteDAO::compilarMapeador, Paciente::getCpf, encontrados, BuscaTexto.prefixoLike(digitos));
+            }
+            if (!normalizado.isEmpty()) {
+                BuscaTexto.executarEtapa(conn, SELECT_RESUMO + "WHERE nome_normalizado LIKE ? ORDER BY nome_normalizado, cpf LIMIT ?",
+                    limite, PacienteDAO::compilarMapeador, Paciente::getCpf, encontrados, BuscaTexto.prefixoLike(normalizado));
+            }
+            if (textoCompleto != null && textoCompletoDisponivel) {
+                try {
+                    BuscaTexto.executarEtapa(conn, SELECT_RESUMO + "WHERE MATCH(nome_normalizado) AGAINST (? IN BOOLEAN MODE) " +
+                        "ORDER BY MATCH(nome_normalizado) AGAINST (? IN BOOLEAN MODE) DESC, nome_normalizado, cpf LIMIT ?",
+                        limite, PacienteDAO::compilarMapeador, Paciente::getCpf, encontrados, textoCompleto, textoCompleto);
+                } catch (SQLException e) {
+                    if (!BuscaTexto.isSemIndiceTextoCompleto(e)) throw e;
+                    textoCompletoDisponivel = false;
+                    System.err.println("Busca de pacientes sem índice FULLTEXT; usando apenas prefixos: " + e.getMessage());
+                }
+            }
+        }
+
+        return new ArrayList<>(encontrados.values());
+    }
+
+    /**
+     * Preenche 'nome_normalizado' dos pacientes gravados antes da coluna existir.
+     * Deve ser executado uma vez após a migração do README; registros já preenchidos são ignorados.
+     * Interage com as classes: DatabaseConnection, Lote, NormalizadorTexto.
+     * @return A quantidade de pacientes atualizados.
+     */
+    public int preencherNomesNormalizados() throws SQLException {
+        List<String[]> pendentes = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT cpf, nome FROM pacientes WHERE nome_normalizado IS NULL");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                pendentes.add(new String[]{ rs.getString("cpf"), NormalizadorTexto.normalizar(rs.getString("nome")) });
+            }
+        }
+        return Lote.executar("UPDATE pacientes SET nome_normalizado = ? WHERE cpf = ?", pendentes, Lote.TAMANHO_PADRAO,
+            (stmt, pendente) -> {
+                stmt.setString(1, pendente[1]);
+                stmt.setString(2, pendente[0]);
+            }, null);
+    }
+
+    /**
+     * Busca e retorna uma lista de todos os pacientes cadastrados, ordenados por nome, sem o histórico médico.
      * Interage com as classes: Paciente, DatabaseConnection.
      */
     public List<Paciente> findAll() throws SQLException {
-        String sql = "SELECT * FROM pacientes ORDER BY nome";
+        String sql = SELECT_RESUMO + "ORDER BY nome";
         List<Paciente> pacientes = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            MapeamentoLinhas.Mapeador<Paciente> mapeador = compilarMapeador(sql, rs);
             while (rs.next()) {
-                pacientes.add(mapResultSet(rs));
+                pacientes.add(mapeador.mapear(rs));
             }
         }
         
@@ -110,18 +327,128 @@ public class PacienteDAO {
     }
 
     /**
-     * Mapeia uma linha do ResultSet para um objeto do tipo Paciente.
-     * Interage com as classes: ResultSet, Paciente.
+     * Busca uma página de pacientes ordenados por nome, por paginação keyset: a página seguinte
+     * começa logo após o último registro da anterior pela chave (nome, cpf), usando o índice
+     * de nome, então o custo de cada página não depende de quantas já foram lidas.
+     * Interage com as classes: Paciente, DatabaseConnection.
+     * @param ultimo O último registro da página anterior, ou null para a primeira página.
+     * @param limite Tamanho máximo da página.
+     * @return Os registros da página; menos que 'limite' indica que não há mais páginas.
      */
-    private Paciente mapResultSet(ResultSet rs) throws SQLException {
-        Paciente paciente = new Paciente();
-        paciente.setCpf(rs.getString("cpf"));
-        paciente.setNome(rs.getString("nome"));
-        paciente.setDataNascimento(rs.getDate("data_nascimento").toLocalDate());
-        paciente.setEndereco(rs.getString("endereco"));
-        paciente.setTelefone(rs.getString("telefone"));
-        paciente.setHistoricoMedico(rs.getString("historico_medico"));
+    public List<Paciente> findPagina(Paciente ultimo, int limite) throws SQLException {
+        String sql = ultimo == null
+            ? SELECT_RESUMO + "ORDER BY nome, cpf LIMIT ?"
+            : SELECT_RESUMO + "WHERE nome > ? OR (nome = ? AND cpf > ?) ORDER BY nome, cpf LIMIT ?";
+        List<Paciente> pacientes = new ArrayList<>();
         
-        return paciente;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            if (ultimo != null) {
+                stmt.setString(indice++, ultimo.getNome());
+                stmt.setString(indice++, ultimo.getNome());
+                stmt.setString(indice++, ultimo.getCpf());
+            }
+            stmt.setInt(indice, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Paciente> mapeador = compilarMapeador(sql, rs);
+                while (rs.next()) {
+                    pacientes.add(mapeador.mapear(rs));
+                }
+            }
+        }
+        
+        return pacientes;
+    }
+
+    /**
+     * Percorre todos os pacientes, sem o histórico médico, em streaming: usado para montar
+     * índices em memória (IndicePacientesService) sem carregar a tabela inteira de uma vez.
+     * Interage com as classes: Paciente, DatabaseConnection.
+     * @param acao Chamada para cada paciente lido.
+     */
+    public void percorrerResumos(Consumer<Paciente> acao) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMO, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // streaming do driver MySQL, como em ConsultaDAO.percorrer
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Paciente> mapeador = compilarMapeador(SELECT_RESUMO, rs);
+                while (rs.next()) {
+                    acao.accept(mapeador.mapear(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * Percorre, em ordem de nome, os pacientes sem nenhuma consulta desde a data informada.
+     * É uma única consulta de anti-junção (NOT EXISTS) resolvida pelo índice
+     * (paciente_cpf, data_horario) de consultas, lida em streaming: nem as consultas nem a
+     * lista de pacientes são carregadas em memória.
+     * Interage com as classes: Paciente, DatabaseConnection, RelatorioService.
+     * @param desde Início da janela de atividade; quem não tem consulta a partir dela é inativo.
+     * @param acao Chamada para cada paciente inativo.
+     */
+    public void percorrerInativos(LocalDateTime desde, Consumer<Paciente> acao) throws SQLException {
+        String sql = "SELECT " + COLUNAS_RESUMO + " FROM pacientes p WHERE NOT EXISTS (" +
+                    "SELECT 1 FROM consultas c WHERE c.paciente_cpf = p.cpf AND c.data_horario >= ?) " +
+                    "ORDER BY p.nome, p.cpf";
+        
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // streaming do driver MySQL, como em ConsultaDAO.percorrer
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeamentoLinhas.Mapeador<Paciente> mapeador = compilarMapeador(sql, rs);
+                while (rs.next()) {
+                    acao.accept(mapeador.mapear(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compila o mapeador de pacientes de um ResultSet da tabela 'pacientes'.
+     * Interage com as classes: MapeamentoLinhas, BenchmarkMapeamento.
+     */
+    public static MapeamentoLinhas.Mapeador<Paciente> compilarMapeador(String sql, ResultSet rs) throws SQLException {
+        return compilarMapeador(sql, rs, "");
+    }
+
+    /**
+     * Compila o mapeador que converte uma linha do ResultSet em um Paciente, lendo as colunas por
+     * posição. Também é usado pelo ConsultaDAO para montar o paciente a partir de uma junção.
+     * Lê apenas as colunas do resumo (COLUNAS_RESUMO): o paciente sai com o histórico não carregado.
+     * Interage com as classes: ResultSet, Paciente, MapeamentoLinhas.
+     * @param prefixo Prefixo das colunas do paciente no ResultSet ("" para a tabela 'pacientes').
+     * @return O mapeador; ele devolve null se a linha não tiver paciente (CPF nulo na junção).
+     */
+    static MapeamentoLinhas.Mapeador<Paciente> compilarMapeador(String sql, ResultSet rs, String prefixo) throws SQLException {
+        int[] posicoes = MapeamentoLinhas.posicoes(sql, rs, prefixo, COLUNAS_MAPEADAS);
+        int colunaCpf = posicoes[0];
+        int colunaNome = posicoes[1];
+        int colunaDataNascimento = posicoes[2];
+        int colunaEndereco = posicoes[3];
+        int colunaTelefone = posicoes[4];
+
+        return linha -> {
+            String cpf = linha.getString(colunaCpf);
+            if (cpf == null) {
+                return null;
+            }
+
+            Paciente paciente = new Paciente();
+            paciente.setCpf(cpf);
+            paciente.setNome(linha.getString(colunaNome));
+            paciente.setDataNascimento(linha.getObject(colunaDataNascimento, LocalDate.class));
+            paciente.setEndereco(linha.getString(colunaEndereco));
+            paciente.setTelefone(linha.getString(colunaTelefone));
+            paciente.setHistoricoCarregado(false);
+
+            return paciente;
+        };
     }
 }
\ No newline at end of file
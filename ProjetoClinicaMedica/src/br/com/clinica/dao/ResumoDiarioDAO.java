@@ -0,0 +1,254 @@
+package br.com.clinica.dao;
+
+import br.com.clinica.config.DatabaseConnection;
+import br.com.clinica.model.Consulta;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso à tabela consultas_resumo_diario: total de consultas por dia, médico e status.
+ * A tabela é mantida pelo ConsultaService na mesma transação de cada agendamento, cancelamento
+ * e conclusão, e pode ser reconstruída a partir de 'consultas' em blocos de dias (reconstruir()).
+ * As contagens dos relatórios e do painel da TelaPrincipal leem daqui, percorrendo no máximo uma
+ * linha por dia/médico/status em vez de todas as consultas do período.
+ * Os períodos são tratados em dias inteiros: 'inicio' e 'fim' devem cair à meia-noite.
+ * Interage com as classes: DatabaseConnection, ConsultaService, ResumoDiarioService, RelatorioService.
+ */
+public class ResumoDiarioDAO {
+
+    private static final String SQL_REGISTRAR = "INSERT INTO consultas_resumo_diario (dia, medico_crm, status, total) " +
+        "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+
+    // Dias reconstruídos por transação
+    private static final int DIAS_POR_BLOCO = 7;
+    // Trava nomeada do MySQL, compartilhada por todas as estações conectadas ao banco
+    private static final String TRAVA_RECONSTRUCAO = "clinica_reconstrucao_resumo_diario";
+
+    /**
+     * Soma 'variacao' ao total de (dia, médico, status), usando a transação de quem chama.
+     * @param variacao +1 para uma consulta que entrou no status, -1 para uma que saiu dele.
+     */
+    public void registrar(Connection conn, LocalDate dia, String crmMedico, Consulta.StatusConsulta status, int variacao) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_REGISTRAR)) {
+            stmt.setDate(1, Date.valueOf(dia));
+            stmt.setString(2, crmMedico);
+            stmt.setString(3, status.name());
+            stmt.setInt(4, variacao);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Refaz a tabela a partir de 'consultas', bloco a bloco de DIAS_POR_BLOCO dias, cada bloco em
+     * sua própria transação; leitores continuam vendo os totais antigos de cada bloco até o commit dele.
+     * Apenas uma estação reconstrói por vez: se outra já estiver reconstruindo (trava GET_LOCK
+     * do MySQL), retorna -1 sem fazer nada.
+     * @return A quantidade de linhas (dia, médico, status) gravadas, ou -1 se outra estação está reconstruindo.
+     */
+    // Lógica: Cada bloco trava só as consultas e os totais do seu intervalo, então agendamentos de
+    // outros dias não esperam pela reconstrução. As consultas do bloco são travadas (FOR SHARE)
+    // antes dos totais, na mesma ordem do ConsultaService (consulta, depois total), o que evita
+    // deadlock entre a reconstrução e um agendamento do mesmo intervalo.
+    public int reconstruir() throws SQLException {
+        return reconstruir(null, null);
+    }
+
+    /**
+     * Refaz apenas os totais dos dias de [inicio, fim), com os mesmos blocos e a mesma trava de reconstruir().
+     * @return A quantidade de linhas gravadas, ou -1 se outra estação está reconstruindo.
+     */
+    public int reconstruirPeriodo(LocalDate inicio, LocalDate fim) throws SQLException {
+        return reconstruir(inicio, fim);
+    }
+
+    /**
+     * Refaz os totais de 'inicio' até o último dia com consultas ou totais gravados.
+     * @return A quantidade de linhas gravadas, ou -1 se outra estação está reconstruindo.
+     */
+    public int reconstruirDesde(LocalDate inicio) throws SQLException {
+        return reconstruir(inicio, null);
+    }
+
+    // Lógica: O limite não informado vem das próprias tabelas (ver limitesReconstrucao).
+    private int reconstruir(LocalDate inicioPeriodo, LocalDate fimPeriodo) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!obterTrava(conn)) {
+                return -1;
+            }
+            try {
+                LocalDate[] limites = inicioPeriodo != null && fimPeriodo != null
+                    ? new LocalDate[] {inicioPeriodo, fimPeriodo.minusDays(1)}
+                    : limitesReconstrucao(conn);
+                if (limites == null) {
+                    return 0;
+                }
+                LocalDate fim = fimPeriodo != null ? fimPeriodo : limites[1].plusDays(1);
+                int linhas = 0;
+                for (LocalDate inicio = inicioPeriodo != null ? inicioPeriodo : limites[0]; inicio.isBefore(fim); inicio = inicio.plusDays(DIAS_POR_BLOCO)) {
+                    LocalDate fimBloco = inicio.plusDays(DIAS_POR_BLOCO);
+                    linhas += reconstruirBloco(conn, inicio, fimBloco.isAfter(fim) ? fim : fimBloco);
+                }
+                return linhas;
+            } finally {
+                liberarTrava(conn);
+            }
+        }
+    }
+
+    private int reconstruirBloco(Connection conn, LocalDate inicio, LocalDate fim) throws SQLException {
+        Timestamp inicioConsultas = Timestamp.valueOf(inicio.atStartOfDay());
+        Timestamp fimConsultas = Timestamp.valueOf(fim.atStartOfDay());
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM consultas WHERE data_horario >= ? AND data_horario < ? FOR SHARE")) {
+                stmt.setTimestamp(1, inicioConsultas);
+                stmt.setTimestamp(2, fimConsultas);
+                stmt.executeQuery().close();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM consultas_resumo_diario WHERE dia >= ? AND dia < ?")) {
+                stmt.setDate(1, Date.valueOf(inicio));
+                stmt.setDate(2, Date.valueOf(fim));
+                stmt.executeUpdate();
+            }
+            int linhas;
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO consultas_resumo_diario (dia, medico_crm, status, total) " +
+                    "SELECT DATE(data_horario), medico_crm, status, COUNT(*) FROM consultas " +
+                    "WHERE medico_crm IS NOT NULL AND data_horario >= ? AND data_horario < ? " +
+                    "GROUP BY DATE(data_horario), medico_crm, status")) {
+                stmt.setTimestamp(1, inicioConsultas);
+                stmt.setTimestamp(2, fimConsultas);
+                linhas = stmt.executeUpdate();
+            }
+            conn.commit();
+            return linhas;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Lógica: O intervalo cobre tanto as consultas quanto os totais já gravados, para que totais de
+    // dias que não têm mais consultas também sejam apagados.
+    private static LocalDate[] limitesReconstrucao(Connection conn) throws SQLException {
+        String sql = "SELECT MIN(dia), MAX(dia) FROM (" +
+            "SELECT DATE(MIN(data_horario)) AS dia FROM consultas UNION ALL SELECT DATE(MAX(data_horario)) FROM consultas " +
+            "UNION ALL SELECT MIN(dia) FROM consultas_resumo_diario UNION ALL SELECT MAX(dia) FROM consultas_resumo_diario) limites";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next() || rs.getDate(1) == null) {
+                return null;
+            }
+            return new LocalDate[] {rs.getDate(1).toLocalDate(), rs.getDate(2).toLocalDate()};
+        }
+    }
+
+    private static boolean obterTrava(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT GET_LOCK('" + TRAVA_RECONSTRUCAO + "', 0)")) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private static void liberarTrava(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("SELECT RELEASE_LOCK('" + TRAVA_RECONSTRUCAO + "')").close();
+        }
+    }
+
+    /**
+     * Conta as consultas por dia da semana.
+     * @param inicio Início do período (inclusivo), ou null para não limitar.
+     * @param fim Fim do período (exclusivo), ou null para não limitar.
+     * @param mes Mês do ano (1-12) exigido em qualquer ano, ou 0 para todos; usado quando não há período.
+     * @return Os totais indexados por DayOfWeek.ordinal() (segunda = 0).
+     */
+    public long[] contarPorDiaDaSemana(LocalDateTime inicio, LocalDateTime fim, int mes) throws SQLException {
+        List<Object> parametros = new ArrayList<>();
+        String sql = "SELECT DAYOFWEEK(r.dia) AS dia_semana, SUM(r.total) AS total FROM consultas_resumo_diario r WHERE 1 = 1" +
+            filtroPeriodo(inicio, fim, mes, parametros) + " GROUP BY dia_semana";
+        long[] contagem = new long[7];
+
+        agregar(sql, parametros, rs -> {
+            // DAYOFWEEK do MySQL: 1 = domingo ... 7 = sábado
+            contagem[(rs.getInt("dia_semana") + 5) % 7] = rs.getLong("total");
+        });
+        return contagem;
+    }
+
+    /**
+     * Conta as consultas por status, opcionalmente de um médico.
+     * @param crmMedico O médico, ou null para todos.
+     * @return Os totais por status; status sem consultas ficam com 0.
+     */
+    public Map<Consulta.StatusConsulta, Long> contarPorStatus(String crmMedico, LocalDateTime inicio, LocalDateTime fim, int mes) throws SQLException {
+        List<Object> parametros = new ArrayList<>();
+        String filtroMedico = "";
+        if (crmMedico != null) {
+            filtroMedico = " AND r.medico_crm = ?";
+            parametros.add(crmMedico);
+        }
+        String sql = "SELECT r.status, SUM(r.total) AS total FROM consultas_resumo_diario r WHERE 1 = 1" + filtroMedico +
+            filtroPeriodo(inicio, fim, mes, parametros) + " GROUP BY r.status";
+        Map<Consulta.StatusConsulta, Long> contagem = new EnumMap<>(Consulta.StatusConsulta.class);
+        for (Consulta.StatusConsulta status : Consulta.StatusConsulta.values()) {
+            contagem.put(status, 0L);
+        }
+
+        agregar(sql, parametros, rs -> contagem.put(Consulta.StatusConsulta.valueOf(rs.getString("status")), rs.getLong("total")));
+        return contagem;
+    }
+
+    /** Recebe cada linha de uma consulta agregada. */
+    private interface LeitorLinha {
+        void ler(ResultSet rs) throws SQLException;
+    }
+
+    private void agregar(String sql, List<Object> parametros, LeitorLinha leitor) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    leitor.ler(rs);
+                }
+            }
+        }
+    }
+
+    // Lógica: O intervalo [inicio, fim) usa a chave primária (dia, ...); o filtro só por mês
+    // recorre a MONTH(), que percorre a tabela inteira, ainda assim com uma linha por dia/médico/status.
+    private String filtroPeriodo(LocalDateTime inicio, LocalDateTime fim, int mes, List<Object> parametros) {
+        StringBuilder filtro = new StringBuilder();
+        if (inicio != null) {
+            filtro.append(" AND r.dia >= ?");
+            parametros.add(Date.valueOf(inicio.toLocalDate()));
+        }
+        if (fim != null) {
+            filtro.append(" AND r.dia < ?");
+            parametros.add(Date.valueOf(fim.toLocalDate()));
+        }
+        if (mes > 0) {
+            filtro.append(" AND MONTH(r.dia) = ?");
+            parametros.add(mes);
+        }
+        return filtro.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.clinica.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Linha de consulta somente leitura, usada por listagens e relatórios (agenda semanal, lista de
+ * consultas, relatórios em streaming), que exibem apenas ID, data/hora, nomes, documentos, status
+ * e observações.
+ * Em vez do grafo Consulta + Medico (com a lista de dias de atendimento) + Paciente, guarda a
+ * data/hora como segundos (long), o status como ordinal (byte) e os nomes como Strings
+ * compartilhadas entre as linhas de uma mesma leitura (ConsultaDAO).
+ * Para alterar a consulta, as telas leem a Consulta completa pelo ID (ConsultaDAO.findById).
+ * Interage com as classes: Consulta, ConsultaDAO.
+ */
+public final class LinhaConsulta {
+
+    private static final Consulta.StatusConsulta[] STATUS = Consulta.StatusConsulta.values();
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final long id;
+    private final long dataHorarioSegundos;
+    private final byte status;
+    private final String crmMedico;
+    private final String nomeMedico;
+    private final String cpfPaciente;
+    private final String nomePaciente;
+    private final String observacoes;
+
+    /**
+     * @param dataHorario A data/hora local da consulta (sem fuso, como gravada no banco).
+     */
+    public LinhaConsulta(long id, LocalDateTime dataHorario, Consulta.StatusConsulta status, String crmMedico,
+                         String nomeMedico, String cpfPaciente, String nomePaciente, String observacoes) {
+        this.id = id;
+        this.dataHorarioSegundos = dataHorario.toEpochSecond(ZoneOffset.UTC);
+        this.status = (byte) status.ordinal();
+        this.crmMedico = crmMedico;
+        this.nomeMedico = nomeMedico;
+        this.cpfPaciente = cpfPaciente;
+        this.nomePaciente = nomePaciente;
+        this.observacoes = observacoes;
+    }
+
+    /**
+     * Monta a linha de uma consulta já carregada (ex.: após gravá-la, para atualizar uma listagem).
+     */
+    public static LinhaConsulta de(Consulta consulta) {
+        Medico medico = consulta.getMedico();
+        Paciente paciente = consulta.getPaciente();
+        return new LinhaConsulta(consulta.getId(), consulta.getDataHorario(), consulta.getStatus(),
+            medico != null ? medico.getCrm() : null, medico != null ? medico.getNome() : null,
+            paciente != null ? paciente.getCpf() : null, paciente != null ? paciente.getNome() : null,
+            consulta.getObservacoes());
+    }
+
+    public long getId() { return id; }
+
+    /** @return A data/hora local em segundos (LocalDateTime.toEpochSecond com deslocamento zero); serve para ordenar e comparar. */
+    public long getDataHorarioSegundos() { return dataHorarioSegundos; }
+
+    public LocalDateTime getDataHorario() { return LocalDateTime.ofEpochSecond(dataHorarioSegundos, 0, ZoneOffset.UTC); }
+
+    public String getDataHorarioFormatado() { return getDataHorario().format(FORMATO_DATA_HORA); }
+
+    public Consulta.StatusConsulta getStatus() { return STATUS[status]; }
+
+    /** @return O ordinal do status, para indexar vetores (ex.: cores da agenda) sem consultar o enum. */
+    public int getStatusOrdinal() { return status; }
+
+    public String getCrmMedico() { return crmMedico; }
+
+    public String getNomeMedico() { return nomeMedico; }
+
+    public String getCpfPaciente() { return cpfPaciente; }
+
+    public String getNomePaciente() { return nomePaciente; }
+
+    /** @return As observações; nas listagens da tela vêm apenas o início do texto (ver ConsultaDAO). */
+    public String getObservacoes() { return observacoes; }
+}
@@ -8,6 +8,8 @@ import java.time.Period;
  * Esta classe armazena os dados pessoais e de contato do paciente, como o identificador
  * único (cpf), nome, data de nascimento (dataNascimento), endereço, telefone,
  * e um campo para o histórico médico (historicoMedico).
+ * O histórico é um texto longo e não é lido nas listagens, buscas e junções do PacienteDAO; nesses
+ * casos historicoCarregado é falso e o texto é obtido sob demanda (PacienteDAO.carregarHistoricoMedico).
  */
 public class Paciente {
     private String cpf;
@@ -16,6 +18,7 @@ public class Paciente {
     private String endereco;
     private String telefone;
     private String historicoMedico;
+    private boolean historicoCarregado = true;
 
     /**
      * Construtor padrão.
@@ -67,7 +70,21 @@ public class Paciente {
     public void setTelefone(String telefone) { this.telefone = telefone; }
     
     public String getHistoricoMedico() { return historicoMedico; }
-    public void setHistoricoMedico(String historicoMedico) { this.historicoMedico = historicoMedico; }
+
+    /**
+     * Define o histórico médico e o marca como carregado.
+     */
+    public void setHistoricoMedico(String historicoMedico) {
+        this.historicoMedico = historicoMedico;
+        this.historicoCarregado = true;
+    }
+
+    /**
+     * @return false se o paciente foi lido sem o histórico médico (getHistoricoMedico() retorna null
+     *         e uma atualização pelo PacienteDAO preserva o histórico gravado).
+     */
+    public boolean isHistoricoCarregado() { return historicoCarregado; }
+    public void setHistoricoCarregado(boolean historicoCarregado) { this.historicoCarregado = historicoCarregado; }
     
     @Override
     public String toString() {
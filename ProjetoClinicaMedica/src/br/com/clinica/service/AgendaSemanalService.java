@@ -0,0 +1,246 @@
+package br.com.clinica.service;
+
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.dao.MedicoDAO;
+import br.com.clinica.dao.OuvinteConsultas;
+import br.com.clinica.model.LinhaConsulta;
+import br.com.clinica.model.Medico;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Carrega as semanas exibidas pela TelaAgendaCalendario e mantém as mais recentes em um LRU de
+ * MAX_SEMANAS entradas, indexado pelo filtro (médico, paciente ou nenhum) e pela segunda-feira.
+ * Cada semana é lida com uma única consulta por período, na projeção leve de listagem
+ * (ConsultaDAO.findLinhasPorPeriodo e variantes).
+ * Depois de exibir uma semana, a tela pede o pré-carregamento da anterior e da seguinte, que roda
+ * em uma thread de fundo; assim, avançar ou voltar uma semana normalmente não vai ao banco.
+ * Gravações avisadas pelo ConsultaDAO descartam as semanas que contêm o horário gravado; como
+ * outras estações podem gravar no mesmo banco, cada semana também expira após VALIDADE_MS.
+ * Interage com as classes: ConsultaDAO, MedicoDAO, GradeHorariosService, SemanaAgenda, TelaAgendaCalendario.
+ */
+public class AgendaSemanalService implements OuvinteConsultas {
+
+    private static final int MAX_SEMANAS = 12;
+    private static final long VALIDADE_MS = 60_000;
+
+    private static AgendaSemanalService instance;
+
+    private final ConsultaDAO consultaDAO;
+    private final MedicoDAO medicoDAO;
+    private final GradeHorariosService gradeService;
+    private final Map<ChaveSemana, Entrada> cache;
+    private final Set<ChaveSemana> emPreCarregamento = ConcurrentHashMap.newKeySet();
+    private final ExecutorService preCarregador;
+
+    // Incrementada a cada descarte; uma semana lida durante uma gravação não é guardada
+    private long versao;
+
+    private AgendaSemanalService() {
+        this.consultaDAO = new ConsultaDAO();
+        this.medicoDAO = new MedicoDAO();
+        this.gradeService = GradeHorariosService.getInstance();
+        this.cache = new LinkedHashMap<ChaveSemana, Entrada>(32, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChaveSemana, Entrada> eldest) {
+                return size() > MAX_SEMANAS;
+            }
+        };
+        this.preCarregador = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "pre-carregamento-agenda");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fornece a instância única, já registrada como ouvinte do ConsultaDAO.
+     */
+    public static synchronized AgendaSemanalService getInstance() {
+        if (instance == null) {
+            instance = new AgendaSemanalService();
+            ConsultaDAO.adicionarOuvinte(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @param crmMedico Filtro por médico, ou null.
+     * @param cpfPaciente Filtro por paciente, ou null (ignorado se houver médico).
+     * @param segunda A segunda-feira da semana.
+     * @return A semana guardada, ou null se não houver uma válida; nunca vai ao banco.
+     */
+    public synchronized SemanaAgenda obterEmCache(String crmMedico, String cpfPaciente, LocalDate segunda) {
+        ChaveSemana chave = new ChaveSemana(crmMedico, cpfPaciente, segunda);
+        Entrada entrada = cache.get(chave);
+        if (entrada != null && System.currentTimeMillis() - entrada.carregadaEm >= VALIDADE_MS) {
+            cache.remove(chave);
+            return null;
+        }
+        return entrada != null ? entrada.semana : null;
+    }
+
+    /**
+     * Retorna a semana do cache ou a lê do banco, guardando-a.
+     * Deve ser chamado fora da thread do Swing quando a semana não estiver em cache.
+     */
+    public SemanaAgenda carregar(String crmMedico, String cpfPaciente, LocalDate segunda) throws SQLException {
+        SemanaAgenda semana = obterEmCache(crmMedico, cpfPaciente, segunda);
+        if (semana != null) return semana;
+
+        long versaoInicial;
+        synchronized (this) {
+            versaoInicial = versao;
+        }
+        semana = lerDoBanco(crmMedico, cpfPaciente, segunda);
+        synchronized (this) {
+            if (versaoInicial == versao) {
+                cache.put(new ChaveSemana(crmMedico, cpfPaciente, segunda), new Entrada(semana, System.currentTimeMillis()));
+            }
+        }
+        return semana;
+    }
+
+    /**
+     * Carrega em segundo plano a semana anterior e a seguinte, se ainda não estiverem em cache.
+     * Erros são apenas registrados: a tela lerá a semana normalmente quando ela for exibida.
+     */
+    public void preCarregarVizinhas(String crmMedico, String cpfPaciente, LocalDate segunda) {
+        preCarregar(crmMedico, cpfPaciente, segunda.plusWeeks(1));
+        preCarregar(crmMedico, cpfPaciente, segunda.minusWeeks(1));
+    }
+
+    // Lógica: Descarta as semanas que contêm o horário gravado. Semanas filtradas por paciente
+    // também são descartadas, pois o aviso não informa o paciente da consulta.
+    @Override
+    public synchronized void consultaAlterada(String crmMedico, LocalDateTime dataHorario) {
+        versao++;
+        LocalDate dia = dataHorario.toLocalDate();
+        Iterator<ChaveSemana> it = cache.keySet().iterator();
+        while (it.hasNext()) {
+            ChaveSemana chave = it.next();
+            boolean mesmoMedico = chave.crmMedico == null || chave.crmMedico.equals(crmMedico);
+            if (mesmoMedico && !dia.isBefore(chave.segunda) && dia.isBefore(chave.segunda.plusWeeks(1))) {
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void consultasAlteradas() {
+        invalidarTudo();
+    }
+
+    /**
+     * Descarta todas as semanas guardadas (ex.: após alterar cadastros de médicos ou pacientes,
+     * que mudam nomes exibidos e a grade de horários).
+     */
+    public synchronized void invalidarTudo() {
+        versao++;
+        cache.clear();
+    }
+
+    private void preCarregar(String crmMedico, String cpfPaciente, LocalDate segunda) {
+        ChaveSemana chave = new ChaveSemana(crmMedico, cpfPaciente, segunda);
+        if (obterEmCache(crmMedico, cpfPaciente, segunda) != null || !emPreCarregamento.add(chave)) return;
+        preCarregador.execute(() -> {
+            try {
+                carregar(crmMedico, cpfPaciente, segunda);
+            } catch (SQLException e) {
+                System.err.println("Erro ao pré-carregar a semana de " + segunda + ": " + e.getMessage());
+            } finally {
+                emPreCarregamento.remove(chave);
+            }
+        });
+    }
+
+    private SemanaAgenda lerDoBanco(String crmMedico, String cpfPaciente, LocalDate segunda) throws SQLException {
+        LocalDateTime inicio = segunda.atStartOfDay();
+        LocalDateTime fim = inicio.plusDays(7);
+        List<LinhaConsulta> consultas;
+        Medico medico = null;
+        if (crmMedico != null) {
+            consultas = consultaDAO.findLinhasPorMedicoEPeriodo(crmMedico, inicio, fim);
+            medico = medicoDAO.findById(crmMedico);
+        } else if (cpfPaciente != null) {
+            consultas = consultaDAO.findLinhasPorPacienteEPeriodo(cpfPaciente, inicio, fim);
+        } else {
+            consultas = consultaDAO.findLinhasPorPeriodo(inicio, fim);
+        }
+        return new SemanaAgenda(segunda, consultas, montarHorariosGrade(medico, consultas));
+    }
+
+    /**
+     * Monta as linhas da grade semanal a partir das grades de horários compiladas.
+     * Com filtro por médico, usa a grade dele; caso contrário, a união das grades de todos os médicos.
+     * Horários de consultas fora da grade (ex.: agendadas antes de uma mudança de jornada)
+     * também ganham linha, para que nenhuma consulta da semana fique oculta.
+     */
+    private LocalTime[] montarHorariosGrade(Medico medico, List<LinhaConsulta> consultasSemana) throws SQLException {
+        List<GradeHorarios> grades = new ArrayList<>();
+        if (medico != null) {
+            grades.add(gradeService.getGrade(medico));
+        } else {
+            for (Medico m : medicoDAO.findAll()) {
+                grades.add(gradeService.getGrade(m));
+            }
+        }
+
+        TreeSet<LocalTime> horarios = new TreeSet<>(Arrays.asList(gradeService.unirHorarios(grades)));
+        for (LinhaConsulta c : consultasSemana) {
+            horarios.add(c.getDataHorario().toLocalTime().withSecond(0).withNano(0));
+        }
+        return horarios.toArray(new LocalTime[0]);
+    }
+
+    private static final class ChaveSemana {
+        final String crmMedico;
+        final String cpfPaciente;
+        final LocalDate segunda;
+
+        ChaveSemana(String crmMedico, String cpfPaciente, LocalDate segunda) {
+            this.crmMedico = crmMedico;
+            this.cpfPaciente = crmMedico == null ? cpfPaciente : null;
+            this.segunda = segunda;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ChaveSemana)) return false;
+            ChaveSemana outra = (ChaveSemana) o;
+            return Objects.equals(crmMedico, outra.crmMedico) && Objects.equals(cpfPaciente, outra.cpfPaciente)
+                && segunda.equals(outra.segunda);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(crmMedico, cpfPaciente, segunda);
+        }
+    }
+
+    private static final class Entrada {
+        final SemanaAgenda semana;
+        final long carregadaEm;
+
+        Entrada(SemanaAgenda semana, long carregadaEm) {
+            this.semana = semana;
+            this.carregadaEm = carregadaEm;
+        }
+    }
+}
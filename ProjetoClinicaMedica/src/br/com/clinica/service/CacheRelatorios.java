@@ -0,0 +1,186 @@
+package br.com.clinica.service;
+
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.dao.OuvinteConsultas;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache dos relatórios gerados pelo RelatorioService, indexado pelo tipo do relatório e seus filtros.
+ * Cada resultado guarda o escopo que leu (médico e período); quando o ConsultaDAO grava uma
+ * consulta, só os resultados cujo escopo contém aquele médico e horário são descartados.
+ * Relatórios de meses já encerrados não expiram, já que só mudam por gravações que o próprio cache
+ * recebe, e ficam em um LRU limitado a MAX_LINHAS_FECHADOS linhas somadas; os demais ficam em um LRU
+ * limitado a MAX_ABERTOS entradas e expiram após VALIDADE_MS, pois outras estações podem gravar no
+ * mesmo banco.
+ * Interage com as classes: RelatorioService, ResultadoRelatorio, ConsultaDAO, OuvinteConsultas.
+ */
+public class CacheRelatorios implements OuvinteConsultas {
+
+    private static final int MAX_ABERTOS = 200;
+    // Limite de memória dos relatórios encerrados, em linhas somadas de todos os resultados guardados
+    private static final int MAX_LINHAS_FECHADOS = 200_000;
+    private static final long VALIDADE_MS = 5 * 60_000;
+
+    private static CacheRelatorios instance;
+
+    private final Map<String, Entrada> fechados = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Entrada> abertos;
+    private long linhasFechados;
+
+    // Incrementada a cada descarte; um resultado gerado durante uma gravação não é guardado
+    private long versao;
+    private long acertos;
+    private long falhas;
+
+    private CacheRelatorios() {
+        this.abertos = new LinkedHashMap<String, Entrada>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > MAX_ABERTOS;
+            }
+        };
+    }
+
+    /**
+     * Fornece a instância única, já registrada como ouvinte do ConsultaDAO.
+     */
+    public static synchronized CacheRelatorios getInstance() {
+        if (instance == null) {
+            instance = new CacheRelatorios();
+            ConsultaDAO.adicionarOuvinte(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @return O resultado guardado para a chave, ou null (falha) se não houver um válido.
+     */
+    public synchronized ResultadoRelatorio obter(String chave) {
+        Entrada entrada = fechados.get(chave);
+        if (entrada == null) {
+            entrada = abertos.get(chave);
+            if (entrada != null && System.currentTimeMillis() - entrada.geradoEm >= VALIDADE_MS) {
+                abertos.remove(chave);
+                entrada = null;
+            }
+        }
+        if (entrada == null) {
+            falhas++;
+            return null;
+        }
+        acertos++;
+        return entrada.resultado;
+    }
+
+    /**
+     * @return A versão atual, a ser informada em guardar() depois de gerar o relatório.
+     */
+    public synchronized long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Guarda um resultado, a menos que alguma gravação tenha ocorrido desde 'versaoInicial'.
+     * @param crmMedico Médico lido pelo relatório, ou null se leu todos.
+     * @param inicio Início do período lido, ou null se não tem limite contínuo.
+     * @param fim Fim (exclusivo) do período lido, ou null.
+     * @param mes Mês de qualquer ano lido (1-12) quando não há período contínuo, ou 0 para todos.
+     */
+    public synchronized void guardar(String chave, String crmMedico, LocalDateTime inicio, LocalDateTime fim, int mes,
+                                     ResultadoRelatorio resultado, long versaoInicial) {
+        if (versaoInicial != versao) return;
+        Entrada entrada = new Entrada(resultado, crmMedico, inicio, fim, mes, System.currentTimeMillis());
+        boolean encerrado = fim != null && !fim.isAfter(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+        if (encerrado) {
+            guardarFechado(chave, entrada);
+        } else {
+            abertos.put(chave, entrada);
+        }
+    }
+
+    // Lógica: Descarta as entradas cujo escopo contém o médico e o horário gravados, nos dois mapas.
+    @Override
+    public synchronized void consultaAlterada(String crmMedico, LocalDateTime dataHorario) {
+        versao++;
+        linhasFechados -= descartar(fechados, crmMedico, dataHorario);
+        descartar(abertos, crmMedico, dataHorario);
+    }
+
+    @Override
+    public synchronized void consultasAlteradas() {
+        invalidarTudo();
+    }
+
+    /**
+     * Descarta todos os relatórios guardados (ex.: após alterar cadastros de médicos ou pacientes).
+     */
+    public synchronized void invalidarTudo() {
+        versao++;
+        fechados.clear();
+        linhasFechados = 0;
+        abertos.clear();
+    }
+
+    public synchronized long getAcertos() { return acertos; }
+    public synchronized long getFalhas() { return falhas; }
+    public synchronized int getTamanho() { return fechados.size() + abertos.size(); }
+
+    // Lógica: Remove os resultados menos usados até a soma de linhas caber no limite; um resultado
+    // maior que o limite sozinho não é guardado.
+    private void guardarFechado(String chave, Entrada entrada) {
+        int linhas = entrada.resultado.getQuantidadeLinhas();
+        if (linhas > MAX_LINHAS_FECHADOS) return;
+        Entrada anterior = fechados.put(chave, entrada);
+        if (anterior != null) linhasFechados -= anterior.resultado.getQuantidadeLinhas();
+        linhasFechados += linhas;
+
+        Iterator<Entrada> it = fechados.values().iterator();
+        while (linhasFechados > MAX_LINHAS_FECHADOS && it.hasNext()) {
+            linhasFechados -= it.next().resultado.getQuantidadeLinhas();
+            it.remove();
+        }
+    }
+
+    /** @return A soma de linhas dos resultados descartados. */
+    private static long descartar(Map<String, Entrada> entradas, String crmMedico, LocalDateTime dataHorario) {
+        long linhas = 0;
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next();
+            if (entrada.contem(crmMedico, dataHorario)) {
+                linhas += entrada.resultado.getQuantidadeLinhas();
+                it.remove();
+            }
+        }
+        return linhas;
+    }
+
+    private static final class Entrada {
+        final ResultadoRelatorio resultado;
+        final String crmMedico;
+        final LocalDateTime inicio;
+        final LocalDateTime fim;
+        final int mes;
+        final long geradoEm;
+
+        Entrada(ResultadoRelatorio resultado, String crmMedico, LocalDateTime inicio, LocalDateTime fim, int mes, long geradoEm) {
+            this.resultado = resultado;
+            this.crmMedico = crmMedico;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.mes = mes;
+            this.geradoEm = geradoEm;
+        }
+
+        boolean contem(String crm, LocalDateTime dataHorario) {
+            if (crmMedico != null && !crmMedico.equals(crm)) return false;
+            if (inicio != null) return !dataHorario.isBefore(inicio) && dataHorario.isBefore(fim);
+            return mes == 0 || dataHorario.getMonthValue() == mes;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.clinica.service;
+
+/**
+ * Descreve uma coluna de relatório: nome exibido e tipo Java dos valores.
+ * Interage com as classes: ReceptorRelatorio, RelatorioService.
+ */
+public final class ColunaRelatorio {
+
+    private final String nome;
+    private final Class<?> tipo;
+
+    public ColunaRelatorio(String nome, Class<?> tipo) {
+        this.nome = nome;
+        this.tipo = tipo;
+    }
+
+    public String getNome() { return nome; }
+    public Class<?> getTipo() { return tipo; }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
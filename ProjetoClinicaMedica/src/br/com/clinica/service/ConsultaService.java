@@ -1,12 +1,16 @@
 package br.com.clinica.service;
 
+import br.com.clinica.config.DatabaseConnection;
 import br.com.clinica.dao.ConsultaDAO;
 import br.com.clinica.dao.MedicoDAO;
+import br.com.clinica.dao.ResumoDiarioDAO;
+import br.com.clinica.exception.HorarioIndisponivelException;
 import br.com.clinica.model.Consulta;
 import br.com.clinica.model.Consulta.StatusConsulta;
 import br.com.clinica.model.Medico;
 import br.com.clinica.model.Paciente;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,18 +18,35 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Camada de serviço para gerenciar as regras de negócio relacionadas a consultas.
  * Esta classe centraliza a lógica de manipulação de consultas, separando-a
  * da camada de visualização (telas).
- * Interage com as classes: ConsultaDAO, MedicoDAO, Consulta, Medico, Paciente.
+ * O agendamento é seguro entre várias recepções: no mesmo processo, agendamentos do mesmo
+ * médico são serializados por uma trava listrada pelo CRM (médicos diferentes não disputam
+ * a mesma trava); entre processos, o índice único uk_consultas_medico_horario_ativo do banco
+ * impede duas consultas ativas no mesmo horário do mesmo médico.
+ * Cada gravação atualiza, na mesma transação, os totais diários por médico e status (ResumoDiarioDAO).
+ * Interage com as classes: ConsultaDAO, MedicoDAO, ResumoDiarioDAO, DisponibilidadeService, Consulta, Medico, Paciente.
  */
 public class ConsultaService {
 
+    // Quantidade de travas (potência de 2); compartilhadas por todas as instâncias do serviço
+    private static final int TOTAL_TRAVAS = 64;
+    private static final ReentrantLock[] TRAVAS = new ReentrantLock[TOTAL_TRAVAS];
+
+    static {
+        for (int i = 0; i < TOTAL_TRAVAS; i++) {
+            TRAVAS[i] = new ReentrantLock();
+        }
+    }
+
     private final ConsultaDAO consultaDAO;
     private final MedicoDAO medicoDAO;
+    private final ResumoDiarioDAO resumoDAO;
+    private final DisponibilidadeService disponibilidade;
 
     /**
      * Construtor do serviço. Inicializa as dependências dos DAOs.
@@ -33,6 +54,8 @@ public class ConsultaService {
     public ConsultaService() {
         this.consultaDAO = new ConsultaDAO();
         this.medicoDAO = new MedicoDAO();
+        this.resumoDAO = new ResumoDiarioDAO();
+        this.disponibilidade = DisponibilidadeService.getInstance();
     }
     
     /**
@@ -44,8 +67,15 @@ public class ConsultaService {
      * @return O objeto Consulta criado e salvo no banco.
      * @throws SQLException Se ocorrer um erro de banco de dados.
      * @throws IllegalStateException Se a data do agendamento for no passado.
+     * @throws HorarioIndisponivelException Se o horário não estiver livre na grade do médico
+     *         ou tiver sido ocupado por outra recepção.
      */
-    public Consulta agendarNovaConsulta(Medico medico, Paciente paciente, LocalDateTime dataHorario, String observacoes) throws SQLException, IllegalStateException {
+    // Lógica: Verificação e gravação acontecem sob a trava do CRM, então duas recepções no mesmo
+    // processo nunca gravam o mesmo horário. Se o cache de disponibilidade estiver desatualizado
+    // (agendamento feito em outra estação), o índice único do banco rejeita a gravação e a
+    // violação é convertida em HorarioIndisponivelException.
+    public Consulta agendarNovaConsulta(Medico medico, Paciente paciente, LocalDateTime dataHorario, String observacoes)
+            throws SQLException, IllegalStateException, HorarioIndisponivelException {
         if (dataHorario.isBefore(LocalDateTime.now())) {
             throw new IllegalStateException("Não é possível agendar consultas em datas ou horários passados.");
         }
@@ -53,10 +83,89 @@ public class ConsultaService {
         Consulta consulta = new Consulta(medico, paciente, dataHorario);
         consulta.setObservacoes(observacoes);
 
-        consultaDAO.save(consulta);
+        ReentrantLock trava = travaDo(medico.getCrm());
+        trava.lock();
+        try {
+            if (!disponibilidade.isLivre(medico, dataHorario)) {
+                throw new HorarioIndisponivelException(mensagemIndisponivel(medico, dataHorario));
+            }
+            try {
+                emTransacao(conn -> {
+                    consultaDAO.save(conn, consulta);
+                    resumoDAO.registrar(conn, dataHorario.toLocalDate(), medico.getCrm(), StatusConsulta.AGENDADA, 1);
+                });
+            } catch (SQLException e) {
+                if (!ConsultaDAO.isHorarioDuplicado(e)) throw e;
+                disponibilidade.ocupar(medico, dataHorario);
+                throw new HorarioIndisponivelException(mensagemIndisponivel(medico, dataHorario));
+            }
+            disponibilidade.ocupar(medico, dataHorario);
+        } finally {
+            trava.unlock();
+        }
+        ConsultaDAO.avisarAlteracao(medico.getCrm(), dataHorario);
         return consulta;
     }
 
+    private interface Gravacao {
+        void gravar(Connection conn) throws SQLException;
+    }
+
+    // Lógica: Consulta e totais diários são gravados na mesma conexão, com um único commit;
+    // qualquer falha (inclusive uma IllegalStateException da gravação) desfaz os dois.
+    private static void emTransacao(Gravacao gravacao) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                gravacao.gravar(conn);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Troca o status de uma consulta AGENDADA, movendo-a entre os totais diários na mesma transação.
+     * @throws IllegalStateException Se no banco a consulta já não estiver AGENDADA (ex.: cancelada
+     *         ou concluída em outra recepção); nada é gravado e o status em memória é mantido.
+     */
+    // Lógica: Os totais só são movidos quando o UPDATE condicionado a AGENDADA alterou a linha;
+    // confiar no status em memória, que pode estar desatualizado, faria os totais divergirem.
+    private void mudarStatus(Consulta consulta, StatusConsulta novoStatus) throws SQLException {
+        LocalDate dia = consulta.getDataHorario().toLocalDate();
+        String crm = consulta.getMedico().getCrm();
+        StatusConsulta statusAnterior = consulta.getStatus();
+        consulta.setStatus(novoStatus);
+        try {
+            emTransacao(conn -> {
+                if (!consultaDAO.updateSeStatus(conn, consulta, StatusConsulta.AGENDADA)) {
+                    throw new IllegalStateException("A consulta não está mais agendada; ela pode ter sido alterada em outra recepção.");
+                }
+                resumoDAO.registrar(conn, dia, crm, StatusConsulta.AGENDADA, -1);
+                resumoDAO.registrar(conn, dia, crm, novoStatus, 1);
+            });
+        } catch (SQLException | RuntimeException e) {
+            consulta.setStatus(statusAnterior);
+            throw e;
+        }
+        ConsultaDAO.avisarAlteracao(crm, consulta.getDataHorario());
+    }
+
+    private static ReentrantLock travaDo(String crm) {
+        // Espalha os bits altos do hash para que CRMs parecidos não caiam na mesma trava
+        int hash = crm.hashCode();
+        return TRAVAS[(hash ^ (hash >>> 16)) & (TOTAL_TRAVAS - 1)];
+    }
+
+    private static String mensagemIndisponivel(Medico medico, LocalDateTime dataHorario) {
+        return String.format("O horário %s não está disponível para %s.",
+            dataHorario.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), medico.getNome());
+    }
+
     /**
      * Retorna uma lista de horários disponíveis para um médico em uma data específica.
      * @param medico O médico selecionado.
@@ -65,26 +174,11 @@ public class ConsultaService {
      * @throws SQLException Se ocorrer um erro de banco de dados.
      */
     public List<String> getHorariosDisponiveis(Medico medico, LocalDate data) throws SQLException {
-        // Horários padrão de funcionamento da clínica
-        String[] todosHorarios = {
-                "08:00", "08:30", "09:00", "09:30", "10:00", "10:30",
-                "11:00", "11:30", "14:00", "14:30", "15:00", "15:30",
-                "16:00", "16:30", "17:00"
-        };
-        
-        List<String> horariosDisponiveis = new ArrayList<>(List.of(todosHorarios));
-
-        List<Consulta> consultasDoDia = consultaDAO.findAll().stream()
-            .filter(c -> c.getMedico().getCrm().equals(medico.getCrm()) &&
-                         c.getDataHorario().toLocalDate().equals(data) &&
-                         (c.getStatus() == StatusConsulta.AGENDADA || c.getStatus() == StatusConsulta.REALIZADA))
-            .collect(Collectors.toList());
-
-        for (Consulta consulta : consultasDoDia) {
-            String horarioOcupado = consulta.getDataHorario().toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm"));
-            horariosDisponiveis.remove(horarioOcupado);
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("HH:mm");
+        List<String> horariosDisponiveis = new ArrayList<>();
+        for (LocalTime horario : disponibilidade.getHorariosLivres(medico, data)) {
+            horariosDisponiveis.add(horario.format(formato));
         }
-
         return horariosDisponiveis;
     }
 
@@ -102,8 +196,8 @@ public class ConsultaService {
             throw new IllegalStateException("Apenas consultas com status 'Agendada' podem ser canceladas.");
         }
         
-        consulta.setStatus(StatusConsulta.CANCELADA);
-        consultaDAO.update(consulta);
+        mudarStatus(consulta, StatusConsulta.CANCELADA);
+        disponibilidade.liberar(consulta.getMedico(), consulta.getDataHorario());
     }
 
     /**
@@ -121,8 +215,8 @@ public class ConsultaService {
             throw new IllegalStateException("Apenas consultas com status 'Agendada' podem ser marcadas como realizadas.");
         }
 
-        consulta.setStatus(StatusConsulta.REALIZADA);
         consulta.setObservacoes(observacoes);
-        consultaDAO.update(consulta);
+        mudarStatus(consulta, StatusConsulta.REALIZADA);
+        disponibilidade.ocupar(consulta.getMedico(), consulta.getDataHorario());
     }
 }
\ No newline at end of file
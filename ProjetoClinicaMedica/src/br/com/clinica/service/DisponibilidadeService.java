@@ -0,0 +1,189 @@
+package br.com.clinica.service;
+
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.model.Medico;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Motor de disponibilidade de horários.
+ * Mantém, para cada par (médico, dia) consultado recentemente, um mapa de bits de ocupação
+ * onde o bit i indica que o horário i da grade do médico (GradeHorarios) está ocupado.
+ * O mapa é montado com uma única consulta indexada (ConsultaDAO.findHorariosOcupados) e
+ * atualizado pelo ConsultaService a cada agendamento, cancelamento e conclusão, então responder
+ * "horários livres do médico X no dia D" não exige ida ao banco enquanto a entrada estiver em cache.
+ * Como outras estações podem agendar no mesmo banco, cada entrada expira após VALIDADE_MS.
+ * Interage com as classes: ConsultaDAO, ConsultaService, GradeHorariosService, GradeHorarios.
+ */
+public class DisponibilidadeService {
+
+    private static final int MAX_ENTRADAS = 4096;
+    private static final long VALIDADE_MS = 30_000;
+
+    private static DisponibilidadeService instance;
+
+    private final ConsultaDAO consultaDAO;
+    private final GradeHorariosService gradeService;
+    private final Map<ChaveDia, Ocupacao> cache;
+
+    private DisponibilidadeService() {
+        this.consultaDAO = new ConsultaDAO();
+        this.gradeService = GradeHorariosService.getInstance();
+        this.cache = new LinkedHashMap<ChaveDia, Ocupacao>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChaveDia, Ocupacao> eldest) {
+                return size() > MAX_ENTRADAS;
+            }
+        };
+    }
+
+    /**
+     * Fornece a instância única, compartilhada por todas as telas que criam um ConsultaService.
+     */
+    public static synchronized DisponibilidadeService getInstance() {
+        if (instance == null) {
+            instance = new DisponibilidadeService();
+        }
+        return instance;
+    }
+
+    /**
+     * Retorna os horários livres de um médico em um dia, segundo a grade do médico.
+     * @param medico O médico.
+     * @param data O dia desejado.
+     * @return Os horários livres, em ordem crescente (vazio se o médico não atende no dia).
+     * @throws SQLException Se for preciso carregar a ocupação do dia e o banco falhar.
+     */
+    // Lógica: Inverte o mapa de bits de ocupação e percorre apenas os bits livres
+    // (numberOfTrailingZeros), sem alocar nada além da lista de retorno.
+    public List<LocalTime> getHorariosLivres(Medico medico, LocalDate data) throws SQLException {
+        GradeHorarios grade = gradeService.getGrade(medico);
+        if (!grade.atendeNo(data.getDayOfWeek())) {
+            return new ArrayList<>();
+        }
+        long livres = ~getOcupacao(medico.getCrm(), data, grade) & mascaraCompleta(grade);
+        List<LocalTime> horarios = new ArrayList<>(Long.bitCount(livres));
+        while (livres != 0) {
+            horarios.add(grade.getHorario(Long.numberOfTrailingZeros(livres)));
+            livres &= livres - 1;
+        }
+        return horarios;
+    }
+
+    /**
+     * Indica se um horário pode ser agendado: pertence à grade do médico naquele dia e está livre.
+     */
+    public boolean isLivre(Medico medico, LocalDateTime dataHorario) throws SQLException {
+        GradeHorarios grade = gradeService.getGrade(medico);
+        int indice = grade.indiceDe(dataHorario.toLocalTime());
+        if (indice < 0 || !grade.atendeNo(dataHorario.getDayOfWeek())) {
+            return false;
+        }
+        return (getOcupacao(medico.getCrm(), dataHorario.toLocalDate(), grade) & (1L << indice)) == 0;
+    }
+
+    /**
+     * Marca um horário como ocupado após um agendamento ou conclusão.
+     */
+    public void ocupar(Medico medico, LocalDateTime dataHorario) {
+        alterarBit(medico, dataHorario, true);
+    }
+
+    /**
+     * Marca um horário como livre após um cancelamento.
+     */
+    public void liberar(Medico medico, LocalDateTime dataHorario) {
+        alterarBit(medico, dataHorario, false);
+    }
+
+    /**
+     * Descarta toda a ocupação em cache (ex.: após importações em massa).
+     */
+    public synchronized void invalidarTudo() {
+        cache.clear();
+    }
+
+    // Lógica: Só altera entradas já em cache e montadas com a grade atual; um dia que não está
+    // em cache será lido do banco, que já reflete a alteração, na próxima consulta.
+    private void alterarBit(Medico medico, LocalDateTime dataHorario, boolean ocupado) {
+        GradeHorarios grade = gradeService.getGrade(medico);
+        int indice = grade.indiceDe(dataHorario.toLocalTime());
+        if (indice < 0) return;
+        synchronized (this) {
+            Ocupacao ocupacao = cache.get(new ChaveDia(medico.getCrm(), dataHorario.toLocalDate()));
+            if (ocupacao != null && ocupacao.grade == grade) {
+                ocupacao.bits = ocupado ? ocupacao.bits | (1L << indice) : ocupacao.bits & ~(1L << indice);
+            }
+        }
+    }
+
+    private long getOcupacao(String crm, LocalDate data, GradeHorarios grade) throws SQLException {
+        ChaveDia chave = new ChaveDia(crm, data);
+        synchronized (this) {
+            Ocupacao ocupacao = cache.get(chave);
+            if (ocupacao != null && ocupacao.grade == grade && System.currentTimeMillis() - ocupacao.carregadoEm < VALIDADE_MS) {
+                return ocupacao.bits;
+            }
+        }
+
+        // Consulta ao banco fora do lock para não bloquear as demais telas
+        long bits = 0;
+        for (LocalDateTime ocupado : consultaDAO.findHorariosOcupados(crm, data.atStartOfDay(), data.plusDays(1).atStartOfDay())) {
+            int indice = grade.indiceDe(ocupado.toLocalTime());
+            if (indice >= 0) {
+                bits |= 1L << indice;
+            }
+        }
+
+        synchronized (this) {
+            cache.put(chave, new Ocupacao(bits, grade, System.currentTimeMillis()));
+        }
+        return bits;
+    }
+
+    private static long mascaraCompleta(GradeHorarios grade) {
+        return grade.getTamanho() == 64 ? -1L : (1L << grade.getTamanho()) - 1;
+    }
+
+    private static final class ChaveDia {
+        private final String crm;
+        private final LocalDate data;
+
+        ChaveDia(String crm, LocalDate data) {
+            this.crm = crm;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ChaveDia)) return false;
+            ChaveDia outra = (ChaveDia) o;
+            return crm.equals(outra.crm) && data.equals(outra.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(crm, data);
+        }
+    }
+
+    private static final class Ocupacao {
+        long bits;
+        final GradeHorarios grade;
+        final long carregadoEm;
+
+        Ocupacao(long bits, GradeHorarios grade, long carregadoEm) {
+            this.bits = bits;
+            this.grade = grade;
+            this.carregadoEm = carregadoEm;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.clinica.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Grade de horários compilada de um médico: os horários de início de consulta de um dia
+ * de trabalho e os dias da semana em que ele atende.
+ * É imutável e reaproveitada por disponibilidade, agenda e relatórios; o índice de cada
+ * horário na grade é a posição do bit correspondente no mapa de ocupação do DisponibilidadeService.
+ * Criada pelo GradeHorariosService.
+ */
+public final class GradeHorarios {
+
+    /** Limite imposto pelo mapa de bits (long) do DisponibilidadeService. */
+    public static final int MAX_HORARIOS = 64;
+
+    private static final LocalTime[] NENHUM = new LocalTime[0];
+
+    private final LocalTime[] horarios;
+    private final int diasMascara;
+    private final String assinatura;
+
+    GradeHorarios(LocalTime[] horarios, int diasMascara, String assinatura) {
+        this.horarios = horarios;
+        this.diasMascara = diasMascara;
+        this.assinatura = assinatura;
+    }
+
+    /**
+     * @return Os horários de início de um dia de atendimento, em ordem crescente (cópia).
+     */
+    public LocalTime[] getHorarios() {
+        return horarios.clone();
+    }
+
+    /**
+     * @return Os horários do dia informado, ou nenhum se o médico não atende nesse dia da semana.
+     */
+    public LocalTime[] getHorarios(LocalDate data) {
+        return atendeNo(data.getDayOfWeek()) ? getHorarios() : NENHUM;
+    }
+
+    /** @return true se o médico atende no dia da semana informado. */
+    public boolean atendeNo(DayOfWeek dia) {
+        return (diasMascara & (1 << (dia.getValue() - 1))) != 0;
+    }
+
+    /** @return A quantidade de horários em um dia de atendimento. */
+    public int getTamanho() {
+        return horarios.length;
+    }
+
+    /** @return O horário na posição informada. */
+    public LocalTime getHorario(int indice) {
+        return horarios[indice];
+    }
+
+    /**
+     * @return A posição do horário na grade, ou -1 se ele não for um início de consulta.
+     */
+    public int indiceDe(LocalTime horario) {
+        int indice = Arrays.binarySearch(horarios, horario);
+        return indice >= 0 ? indice : -1;
+    }
+
+    /**
+     * @return Quantos horários de atendimento existem no período [inicio, fim).
+     */
+    public int contarHorarios(LocalDate inicio, LocalDate fim) {
+        int total = 0;
+        for (LocalDate d = inicio; d.isBefore(fim); d = d.plusDays(1)) {
+            if (atendeNo(d.getDayOfWeek())) total += horarios.length;
+        }
+        return total;
+    }
+
+    String getAssinatura() {
+        return assinatura;
+    }
+}
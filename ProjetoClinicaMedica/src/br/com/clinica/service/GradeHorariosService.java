@@ -0,0 +1,143 @@
+package br.com.clinica.service;
+
+import br.com.clinica.model.Medico;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compila e mantém em cache a grade de horários (GradeHorarios) de cada médico, a partir de
+ * horarioInicio, horarioFim e diasAtendimento, da duração de consulta e das pausas configuradas.
+ * A grade é recompilada automaticamente quando o cadastro do médico muda (a assinatura
+ * dos campos usados difere da grade em cache) ou quando a configuração é alterada.
+ * Interage com as classes: Medico, GradeHorarios, DisponibilidadeService.
+ */
+public class GradeHorariosService {
+
+    // Jornada usada quando o médico não tem horário cadastrado
+    private static final LocalTime INICIO_PADRAO = LocalTime.of(8, 0);
+    private static final LocalTime FIM_PADRAO = LocalTime.of(17, 30);
+
+    // Códigos gravados pela TelaMedicos em 'dias_atendimento', na ordem de DayOfWeek (segunda = 1)
+    private static final String[] CODIGOS_DIAS = {"seg", "ter", "qua", "qui", "sex", "sab", "dom"};
+
+    private static GradeHorariosService instance;
+
+    private final Map<String, GradeHorarios> cache = new ConcurrentHashMap<>();
+    private volatile int duracaoMinutos = 30;
+    private volatile List<LocalTime[]> pausas = List.<LocalTime[]>of(new LocalTime[]{LocalTime.of(12, 0), LocalTime.of(14, 0)});
+
+    private GradeHorariosService() {}
+
+    /**
+     * Fornece a instância única, compartilhada por todas as telas e serviços.
+     */
+    public static synchronized GradeHorariosService getInstance() {
+        if (instance == null) {
+            instance = new GradeHorariosService();
+        }
+        return instance;
+    }
+
+    /**
+     * Retorna a grade compilada do médico, compilando-a apenas se ainda não estiver em cache
+     * ou se o cadastro do médico mudou.
+     */
+    public GradeHorarios getGrade(Medico medico) {
+        String assinatura = assinaturaDe(medico);
+        GradeHorarios grade = cache.get(medico.getCrm());
+        if (grade == null || !grade.getAssinatura().equals(assinatura)) {
+            grade = compilar(medico, assinatura);
+            cache.put(medico.getCrm(), grade);
+        }
+        return grade;
+    }
+
+    /**
+     * Une os horários de várias grades, para telas que exibem mais de um médico ao mesmo tempo.
+     * @return Os horários distintos, em ordem crescente.
+     */
+    public LocalTime[] unirHorarios(Collection<GradeHorarios> grades) {
+        TreeSet<LocalTime> todos = new TreeSet<>();
+        for (GradeHorarios grade : grades) {
+            for (int i = 0; i < grade.getTamanho(); i++) {
+                todos.add(grade.getHorario(i));
+            }
+        }
+        return todos.toArray(new LocalTime[0]);
+    }
+
+    /**
+     * Altera a duração das consultas e descarta as grades compiladas.
+     * @param minutos Duração de cada consulta, em minutos (mínimo 5).
+     */
+    public void setDuracaoMinutos(int minutos) {
+        if (minutos < 5) {
+            throw new IllegalArgumentException("Duração mínima da consulta é de 5 minutos.");
+        }
+        this.duracaoMinutos = minutos;
+        cache.clear();
+    }
+
+    /**
+     * Define as pausas (ex.: almoço) em que não há consultas e descarta as grades compiladas.
+     * @param novasPausas Pares {inicio, fim} de cada pausa.
+     */
+    public void setPausas(List<LocalTime[]> novasPausas) {
+        this.pausas = List.copyOf(novasPausas);
+        cache.clear();
+    }
+
+    /** Descarta todas as grades compiladas. */
+    public void invalidarTudo() {
+        cache.clear();
+    }
+
+    // Lógica: Percorre a jornada em passos de 'duracaoMinutos', mantendo apenas os horários
+    // cuja consulta inteira cabe na jornada e não cruza nenhuma pausa.
+    private GradeHorarios compilar(Medico medico, String assinatura) {
+        LocalTime inicio = medico.getHorarioInicio() != null ? medico.getHorarioInicio() : INICIO_PADRAO;
+        LocalTime fim = medico.getHorarioFim() != null ? medico.getHorarioFim() : FIM_PADRAO;
+        int duracao = duracaoMinutos;
+
+        List<LocalTime> horarios = new ArrayList<>();
+        int minutoFim = fim.toSecondOfDay() / 60;
+        for (int minuto = inicio.toSecondOfDay() / 60; minuto + duracao <= minutoFim; minuto += duracao) {
+            LocalTime horario = LocalTime.of(minuto / 60, minuto % 60);
+            if (!cruzaPausa(horario, horario.plusMinutes(duracao))) {
+                horarios.add(horario);
+            }
+            if (horarios.size() == GradeHorarios.MAX_HORARIOS) {
+                System.err.println("Grade do medico " + medico.getCrm() + " truncada em " + GradeHorarios.MAX_HORARIOS + " horarios.");
+                break;
+            }
+        }
+
+        int diasMascara = 0;
+        for (String dia : medico.getDiasAtendimento()) {
+            String codigo = dia.trim().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < CODIGOS_DIAS.length; i++) {
+                if (CODIGOS_DIAS[i].equals(codigo)) diasMascara |= 1 << i;
+            }
+        }
+
+        return new GradeHorarios(horarios.toArray(new LocalTime[0]), diasMascara, assinatura);
+    }
+
+    private boolean cruzaPausa(LocalTime inicio, LocalTime fim) {
+        for (LocalTime[] pausa : pausas) {
+            if (inicio.isBefore(pausa[1]) && fim.isAfter(pausa[0])) return true;
+        }
+        return false;
+    }
+
+    private static String assinaturaDe(Medico medico) {
+        return medico.getHorarioInicio() + "|" + medico.getHorarioFim() + "|" + medico.getDiasAtendimento();
+    }
+}
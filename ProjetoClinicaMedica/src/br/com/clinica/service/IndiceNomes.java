@@ -0,0 +1,368 @@
+package br.com.clinica.service;
+
+import br.com.clinica.util.NormalizadorTexto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para busca incremental (type-ahead) de cadastros por nome ou documento (CPF/CRM).
+ * A base é montada uma vez e fica em vetores:
+ *  - nomes normalizados (NormalizadorTexto) em ordem alfabética, para busca de prefixo por busca binária;
+ *  - posições ordenadas pelo documento, para busca de prefixo de CPF/CRM;
+ *  - listas de posições por trigrama (três caracteres seguidos do nome), para achar o texto digitado
+ *    em qualquer ponto do nome intersectando as listas, sem percorrer todos os registros.
+ * Inclusões, alterações e remoções posteriores ficam em uma camada pequena (alterados/removidos)
+ * consultada junto com a base; ao passar de MAX_ALTERACOES, a base é remontada em memória.
+ * Cada alteração recebe um número de sequência, para que montar() saiba quais são mais novas
+ * que a leitura da lista.
+ * Os resultados vêm em ordem de relevância: documento por prefixo, nome por prefixo, nome contendo o texto.
+ * Os métodos são sincronizados: a base pode ser montada e alterada fora da thread do Swing.
+ * Interage com as classes: NormalizadorTexto, IndicePacientesService, TelaNovoAgendamento.
+ */
+public class IndiceNomes<T> {
+
+    private static final int MAX_ALTERACOES = 500;
+    private static final int[] VAZIO = new int[0];
+    private static final Pattern SEM_PONTUACAO = Pattern.compile("[^\\p{L}\\p{N}]");
+
+    private final Function<T, String> documentoDe;
+    private final Function<T, String> nomeDe;
+
+    // Base: registro, nome normalizado e documento na posição i (ordem alfabética do nome)
+    private Object[] registros = new Object[0];
+    private String[] nomes = new String[0];
+    private String[] documentos = new String[0];
+    private String[] documentosBusca = new String[0];
+    private int[] porDocumento = VAZIO;
+    private Map<Long, int[]> trigramas = new HashMap<>();
+    private Map<String, Integer> posicaoDoDocumento = new HashMap<>();
+
+    // Camada de alterações sobre a base: documentos removidos/substituídos e registros novos ou alterados
+    private final Set<String> removidos = new HashSet<>();
+    private final Map<String, T> alterados = new LinkedHashMap<>();
+    private final Map<String, String> nomesAlterados = new HashMap<>();
+    // Sequência da última alteração (salvar/remover) de cada documento da camada
+    private final Map<String, Long> sequenciaDoDocumento = new HashMap<>();
+    private long sequencia;
+
+    /**
+     * @param documentoDe Extrai a chave do registro (CPF ou CRM).
+     * @param nomeDe Extrai o nome exibido e pesquisado.
+     */
+    public IndiceNomes(Function<T, String> documentoDe, Function<T, String> nomeDe) {
+        this.documentoDe = documentoDe;
+        this.nomeDe = nomeDe;
+    }
+
+    /**
+     * Substitui todo o conteúdo do índice pela lista; alterações registradas antes são descartadas.
+     */
+    public synchronized void montar(List<T> lista) {
+        montar(lista, sequencia);
+    }
+
+    /**
+     * Substitui todo o conteúdo do índice por uma lista lida do banco.
+     * @param sequenciaLeitura O valor de getSequencia() obtido antes de começar a ler a lista.
+     */
+    // Lógica: Alterações registradas depois do início da leitura podem não estar na lista e são
+    // mantidas por cima dela; para as anteriores, a lista (mais nova) prevalece. Assim um paciente
+    // alterado por um lote volta com os dados do lote, e um CPF removido e depois reincluído
+    // continua no índice.
+    public synchronized void montar(List<T> lista, long sequenciaLeitura) {
+        Set<String> alteradosDepois = new HashSet<>();
+        for (Map.Entry<String, Long> entrada : sequenciaDoDocumento.entrySet()) {
+            if (entrada.getValue() > sequenciaLeitura) alteradosDepois.add(entrada.getKey());
+        }
+
+        List<T> base = new ArrayList<>(lista.size() + alteradosDepois.size());
+        for (T registro : lista) {
+            if (!alteradosDepois.contains(documentoDe.apply(registro))) base.add(registro);
+        }
+        for (String documento : alteradosDepois) {
+            T registro = alterados.get(documento);
+            if (registro != null) base.add(registro);
+        }
+        limparAlteracoes();
+        construirBase(base);
+    }
+
+    /**
+     * @return O número de sequência da última alteração; informe-o em montar(lista, sequencia).
+     */
+    public synchronized long getSequencia() {
+        return sequencia;
+    }
+
+    /**
+     * Inclui ou substitui um registro.
+     */
+    public synchronized void salvar(T registro) {
+        String documento = documentoDe.apply(registro);
+        if (posicaoDoDocumento.containsKey(documento)) removidos.add(documento);
+        alterados.put(documento, registro);
+        nomesAlterados.put(documento, nomeNormalizado(registro));
+        sequenciaDoDocumento.put(documento, ++sequencia);
+        compactarSeNecessario();
+    }
+
+    /**
+     * Remove o registro com o documento informado.
+     */
+    public synchronized void remover(String documento) {
+        alterados.remove(documento);
+        nomesAlterados.remove(documento);
+        // Registrado mesmo fora da base: a remoção pode ter ocorrido durante a leitura para montar()
+        removidos.add(documento);
+        sequenciaDoDocumento.put(documento, ++sequencia);
+        compactarSeNecessario();
+    }
+
+    /**
+     * @return A quantidade de registros no índice.
+     */
+    public synchronized int getTamanho() {
+        int removidosDaBase = 0;
+        for (String documento : removidos) {
+            if (posicaoDoDocumento.containsKey(documento)) removidosDaBase++;
+        }
+        return registros.length - removidosDaBase + alterados.size();
+    }
+
+    /**
+     * Retorna os registros mais relevantes para o texto digitado.
+     * @param termo Parte do nome (acentos e maiúsculas são ignorados) ou do CPF/CRM.
+     * @param limite Quantidade máxima de resultados.
+     */
+    public synchronized List<T> buscar(String termo, int limite) {
+        Map<String, T> encontrados = new LinkedHashMap<>();
+        String normalizado = NormalizadorTexto.normalizar(termo);
+        if (normalizado == null || normalizado.isEmpty()) return new ArrayList<>();
+
+        if (pareceDocumento(normalizado)) {
+            buscarDocumento(documentoParaBusca(normalizado), limite, encontrados);
+        }
+        buscarPrefixoDoNome(normalizado, limite, encontrados);
+        if (normalizado.length() >= 3) {
+            buscarTrechoDoNome(normalizado, limite, encontrados);
+        }
+        return new ArrayList<>(encontrados.values());
+    }
+
+    private void buscarDocumento(String prefixo, int limite, Map<String, T> encontrados) {
+        if (prefixo.isEmpty()) return;
+        int inicio = limiteInferior(porDocumento.length, i -> documentosBusca[porDocumento[i]], prefixo);
+        for (int i = inicio; i < porDocumento.length && encontrados.size() < limite; i++) {
+            int posicao = porDocumento[i];
+            if (!documentosBusca[posicao].startsWith(prefixo)) break;
+            adicionarDaBase(posicao, encontrados);
+        }
+        for (T registro : alterados.values()) {
+            if (encontrados.size() >= limite) return;
+            if (documentoParaBusca(documentoDe.apply(registro)).startsWith(prefixo)) encontrados.putIfAbsent(documentoDe.apply(registro), registro);
+        }
+    }
+
+    private void buscarPrefixoDoNome(String prefixo, int limite, Map<String, T> encontrados) {
+        int inicio = limiteInferior(nomes.length, i -> nomes[i], prefixo);
+        for (int i = inicio; i < nomes.length && encontrados.size() < limite && nomes[i].startsWith(prefixo); i++) {
+            adicionarDaBase(i, encontrados);
+        }
+        for (T registro : alterados.values()) {
+            if (encontrados.size() >= limite) return;
+            if (nomesAlterados.get(documentoDe.apply(registro)).startsWith(prefixo)) {
+                encontrados.putIfAbsent(documentoDe.apply(registro), registro);
+            }
+        }
+    }
+
+    // Lógica: Intersecta as listas de posições de todos os trigramas do texto, começando pela menor;
+    // como a interseção pode trazer falsos positivos (trigramas fora de ordem), cada candidato é
+    // confirmado com contains() antes de entrar no resultado.
+    private void buscarTrechoDoNome(String trecho, int limite, Map<String, T> encontrados) {
+        if (encontrados.size() < limite) {
+            List<int[]> listas = new ArrayList<>();
+            for (int i = 0; i + 3 <= trecho.length(); i++) {
+                int[] lista = trigramas.get(trigrama(trecho, i));
+                if (lista == null) {
+                    listas.clear();
+                    break;
+                }
+                listas.add(lista);
+            }
+            if (!listas.isEmpty()) {
+                listas.sort(Comparator.comparingInt(lista -> lista.length));
+                int[] candidatos = listas.get(0);
+                for (int c = 0; c < candidatos.length && encontrados.size() < limite; c++) {
+                    int posicao = candidatos[c];
+                    if (contidoEmTodas(posicao, listas) && nomes[posicao].contains(trecho)) {
+                        adicionarDaBase(posicao, encontrados);
+                    }
+                }
+            }
+        }
+        for (T registro : alterados.values()) {
+            if (encontrados.size() >= limite) return;
+            if (nomesAlterados.get(documentoDe.apply(registro)).contains(trecho)) {
+                encontrados.putIfAbsent(documentoDe.apply(registro), registro);
+            }
+        }
+    }
+
+    private static boolean contidoEmTodas(int posicao, List<int[]> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (Arrays.binarySearch(listas.get(i), posicao) < 0) return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void adicionarDaBase(int posicao, Map<String, T> encontrados) {
+        if (removidos.contains(documentos[posicao])) return;
+        encontrados.putIfAbsent(documentos[posicao], (T) registros[posicao]);
+    }
+
+    private void compactarSeNecessario() {
+        if (removidos.size() + alterados.size() <= MAX_ALTERACOES) return;
+        List<T> vivos = new ArrayList<>(getTamanho());
+        for (int i = 0; i < registros.length; i++) {
+            if (!removidos.contains(documentos[i])) {
+                @SuppressWarnings("unchecked")
+                T registro = (T) registros[i];
+                vivos.add(registro);
+            }
+        }
+        vivos.addAll(alterados.values());
+        limparAlteracoes();
+        construirBase(vivos);
+    }
+
+    private void limparAlteracoes() {
+        removidos.clear();
+        alterados.clear();
+        nomesAlterados.clear();
+        sequenciaDoDocumento.clear();
+    }
+
+    private void construirBase(List<T> lista) {
+        int n = lista.size();
+        String[] nomesNormalizados = new String[n];
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            nomesNormalizados[i] = nomeNormalizado(lista.get(i));
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, Comparator.comparing(i -> nomesNormalizados[i]));
+
+        Object[] novosRegistros = new Object[n];
+        String[] novosNomes = new String[n];
+        String[] novosDocumentos = new String[n];
+        String[] novosDocumentosBusca = new String[n];
+        Map<String, Integer> novaPosicao = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            T registro = lista.get(ordem[i]);
+            novosRegistros[i] = registro;
+            novosNomes[i] = nomesNormalizados[ordem[i]];
+            novosDocumentos[i] = documentoDe.apply(registro);
+            novosDocumentosBusca[i] = documentoParaBusca(novosDocumentos[i]);
+            novaPosicao.put(novosDocumentos[i], i);
+        }
+
+        Integer[] ordemDocumento = new Integer[n];
+        for (int i = 0; i < n; i++) ordemDocumento[i] = i;
+        Arrays.sort(ordemDocumento, Comparator.comparing(i -> novosDocumentosBusca[i]));
+        int[] novoPorDocumento = new int[n];
+        for (int i = 0; i < n; i++) novoPorDocumento[i] = ordemDocumento[i];
+
+        registros = novosRegistros;
+        nomes = novosNomes;
+        documentos = novosDocumentos;
+        documentosBusca = novosDocumentosBusca;
+        porDocumento = novoPorDocumento;
+        posicaoDoDocumento = novaPosicao;
+        trigramas = montarTrigramas(novosNomes);
+    }
+
+    // Lógica: As posições são visitadas em ordem crescente, então cada lista já sai ordenada
+    // (requisito da busca binária em contidoEmTodas) e um trigrama repetido no mesmo nome é
+    // registrado uma única vez.
+    private static Map<Long, int[]> montarTrigramas(String[] nomes) {
+        Map<Long, ListaPosicoes> listas = new HashMap<>();
+        for (int posicao = 0; posicao < nomes.length; posicao++) {
+            String nome = nomes[posicao];
+            for (int i = 0; i + 3 <= nome.length(); i++) {
+                listas.computeIfAbsent(trigrama(nome, i), chave -> new ListaPosicoes()).adicionar(posicao);
+            }
+        }
+        Map<Long, int[]> compactas = new HashMap<>(listas.size() * 2);
+        for (Map.Entry<Long, ListaPosicoes> entrada : listas.entrySet()) {
+            ListaPosicoes lista = entrada.getValue();
+            compactas.put(entrada.getKey(), Arrays.copyOf(lista.posicoes, lista.tamanho));
+        }
+        return compactas;
+    }
+
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    private String nomeNormalizado(T registro) {
+        String nome = NormalizadorTexto.normalizar(nomeDe.apply(registro));
+        return nome != null ? nome : "";
+    }
+
+    // CPF/CRM sem pontuação e em minúsculas ("123.456.789-00" -> "12345678900")
+    private static String documentoParaBusca(String documento) {
+        return SEM_PONTUACAO.matcher(documento.toLowerCase()).replaceAll("");
+    }
+
+    // Texto com algum dígito é tratado como CPF/CRM (ex.: "123.4", "sp 1234")
+    private static boolean pareceDocumento(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (Character.isDigit(texto.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /** Lista crescente de posições de um trigrama, usada apenas durante a montagem. */
+    private static final class ListaPosicoes {
+        int[] posicoes = new int[4];
+        int tamanho;
+
+        void adicionar(int posicao) {
+            if (tamanho > 0 && posicoes[tamanho - 1] == posicao) return;
+            if (tamanho == posicoes.length) posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            posicoes[tamanho++] = posicao;
+        }
+    }
+
+    /** Valor de uma posição de um vetor ordenado, para a busca binária. */
+    private interface Leitor {
+        String ler(int i);
+    }
+
+    // Primeira posição cujo valor é >= 'alvo'
+    private static int limiteInferior(int tamanho, Leitor leitor, String alvo) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (leitor.ler(meio).compareTo(alvo) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
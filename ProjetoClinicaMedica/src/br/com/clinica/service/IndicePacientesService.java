@@ -0,0 +1,152 @@
+package br.com.clinica.service;
+
+import br.com.clinica.dao.OuvintePacientes;
+import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.model.Paciente;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantém o índice de busca incremental de pacientes (IndiceNomes) usado pela TelaNovoAgendamento.
+ * O índice é montado uma única vez, em segundo plano, a partir de PacienteDAO.percorrerResumos
+ * (sem o histórico médico), e acompanha os avisos do PacienteDAO: inclusões, alterações e remoções
+ * entram no índice sem reler a tabela; gravações em lote agendam uma nova montagem.
+ * Como outras estações também cadastram pacientes, o índice expira após VALIDADE_MS: o próximo
+ * getIndice() devolve o índice atual e agenda a remontagem em segundo plano. Até lá, o seletor
+ * da tela completa buscas com poucos resultados pelo PacienteDAO.buscar (ver SeletorBusca).
+ * Interage com as classes: PacienteDAO, OuvintePacientes, IndiceNomes, Main, TelaNovoAgendamento.
+ */
+public class IndicePacientesService implements OuvintePacientes {
+
+    private static final long VALIDADE_MS = 5 * 60_000;
+
+    private static IndicePacientesService instance;
+
+    private final PacienteDAO pacienteDAO;
+    private final IndiceNomes<Paciente> indice;
+    private final ExecutorService montador;
+    private final Object montagem = new Object();
+
+    // Falso até a primeira montagem e depois de cada lote gravado
+    private volatile boolean montado;
+    private volatile long montadoEm;
+    // Verdadeiro enquanto uma remontagem por expiração está agendada ou em andamento
+    private final AtomicBoolean atualizando = new AtomicBoolean();
+
+    private IndicePacientesService() {
+        this.pacienteDAO = new PacienteDAO();
+        this.indice = new IndiceNomes<>(Paciente::getCpf, Paciente::getNome);
+        this.montador = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "indice-pacientes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fornece a instância única, já registrada como ouvinte do PacienteDAO.
+     */
+    public static synchronized IndicePacientesService getInstance() {
+        if (instance == null) {
+            instance = new IndicePacientesService();
+            PacienteDAO.adicionarOuvinte(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Monta o índice em segundo plano (ex.: ao iniciar o sistema), para que a primeira busca não espere.
+     * Erros são apenas registrados: getIndice() tentará de novo.
+     */
+    public void iniciarCargaEmSegundoPlano() {
+        montador.execute(() -> {
+            try {
+                getIndice();
+            } catch (SQLException e) {
+                System.err.println("Erro ao montar o índice de pacientes: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Retorna o índice, montando-o antes se necessário; nesse caso espera a leitura de todos os
+     * pacientes, então deve ser chamado fora da thread do Swing.
+     * Um índice expirado é devolvido como está, e a remontagem é agendada em segundo plano.
+     */
+    public IndiceNomes<Paciente> getIndice() throws SQLException {
+        if (montado) {
+            if (expirado()) atualizarEmSegundoPlano();
+            return indice;
+        }
+        synchronized (montagem) {
+            if (!montado) {
+                montar();
+            }
+        }
+        return indice;
+    }
+
+    private boolean expirado() {
+        return System.currentTimeMillis() - montadoEm >= VALIDADE_MS;
+    }
+
+    // Lógica: Uma única remontagem por expiração de cada vez; o índice continua respondendo
+    // durante a leitura e é trocado de uma vez em IndiceNomes.montar.
+    private void atualizarEmSegundoPlano() {
+        if (!atualizando.compareAndSet(false, true)) return;
+        montador.execute(() -> {
+            try {
+                synchronized (montagem) {
+                    if (montado && expirado()) montar();
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao atualizar o índice de pacientes: " + e.getMessage());
+            } finally {
+                atualizando.set(false);
+            }
+        });
+    }
+
+    private void montar() throws SQLException {
+        long sequencia = indice.getSequencia();
+        List<Paciente> pacientes = new ArrayList<>();
+        pacienteDAO.percorrerResumos(pacientes::add);
+        indice.montar(pacientes, sequencia);
+        montadoEm = System.currentTimeMillis();
+        montado = true;
+    }
+
+    /**
+     * Busca pacientes direto no banco (PacienteDAO.buscar), para completar as buscas em que o
+     * índice traz poucos resultados, como um cadastro feito em outra estação desde a última montagem.
+     */
+    public List<Paciente> buscarNoBanco(String termo, int limite) throws SQLException {
+        return pacienteDAO.buscar(termo, limite);
+    }
+
+    // Lógica: O índice guarda só o resumo (sem histórico médico), como na montagem, para que
+    // pacientes com histórico longo não fiquem retidos em memória.
+    @Override
+    public void pacienteSalvo(Paciente paciente) {
+        Paciente resumo = new Paciente(paciente.getCpf(), paciente.getNome(), paciente.getDataNascimento(),
+            paciente.getEndereco(), paciente.getTelefone(), null);
+        resumo.setHistoricoCarregado(false);
+        indice.salvar(resumo);
+    }
+
+    @Override
+    public void pacienteRemovido(String cpf) {
+        indice.remover(cpf);
+    }
+
+    @Override
+    public void pacientesAlterados() {
+        montado = false;
+        iniciarCargaEmSegundoPlano();
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.clinica.service;
+
+import java.util.List;
+
+/**
+ * Destino das linhas de um relatório gerado pelo RelatorioService.
+ * O serviço chama iniciar() uma vez, adicionarLinha() para cada linha assim que ela é lida
+ * do banco e concluir() ao final, então quem recebe pode exibir ou gravar as linhas antes
+ * de a consulta terminar. As chamadas acontecem na thread que gerou o relatório.
+ * Implementações: ResultadoRelatorio (em memória, para rotinas sem interface) e
+ * ModeloTabelaRelatorio (adaptador Swing da TelaRelatorios).
+ */
+public interface ReceptorRelatorio {
+
+    /**
+     * Recebe as colunas do relatório, antes de qualquer linha.
+     */
+    void iniciar(List<ColunaRelatorio> colunas);
+
+    /**
+     * Recebe uma linha, com um valor por coluna na ordem de iniciar().
+     */
+    void adicionarLinha(Object[] valores);
+
+    /**
+     * Recebe o texto de resumo; nenhuma linha chega depois dele.
+     */
+    void concluir(String resumo);
+}
@@ -3,137 +3,345 @@ package br.com.clinica.service;
 import br.com.clinica.dao.ConsultaDAO;
 import br.com.clinica.dao.MedicoDAO;
 import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.dao.ResumoDiarioDAO;
 import br.com.clinica.model.Consulta;
+import br.com.clinica.model.LinhaConsulta;
 import br.com.clinica.model.Medico;
 import br.com.clinica.model.Paciente;
 
-import javax.swing.table.DefaultTableModel;
 import java.sql.SQLException;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Gera os relatórios gerenciais da clínica sem depender de Swing.
+ * Cada relatório entrega colunas, linhas e resumo a um ReceptorRelatorio à medida que as
+ * linhas são lidas do banco; as versões sem receptor devolvem um ResultadoRelatorio completo,
+ * para uso em rotinas sem interface. Relatórios por período passam pelo CacheRelatorios.
+ * Os totais dos resumos são contados nas próprias consultas lidas, para que batam com as linhas;
+ * só a distribuição por dia da semana vem dos totais diários (ResumoDiarioDAO).
+ * Interage com as classes: ConsultaDAO, PacienteDAO, ResumoDiarioDAO, GradeHorariosService, ReceptorRelatorio, ResultadoRelatorio, CacheRelatorios.
+ */
 public class RelatorioService {
 
+    // Janela padrão do relatório de pacientes inativos
+    public static final int MESES_INATIVIDADE_PADRAO = 12;
+
     private final ConsultaDAO consultaDAO;
     private final MedicoDAO medicoDAO;
     private final PacienteDAO pacienteDAO;
+    private final ResumoDiarioDAO resumoDAO;
+    private final CacheRelatorios cache;
 
     public RelatorioService() {
         this.consultaDAO = new ConsultaDAO();
         this.medicoDAO = new MedicoDAO();
         this.pacienteDAO = new PacienteDAO();
+        this.resumoDAO = new ResumoDiarioDAO();
+        this.cache = CacheRelatorios.getInstance();
+    }
+
+    // Colunas de cada relatório (nome exibido e tipo dos valores)
+    private static final List<ColunaRelatorio> COLUNAS_POR_MEDICO = List.of(
+        new ColunaRelatorio("ID Consulta", Long.class), new ColunaRelatorio("Data", String.class),
+        new ColunaRelatorio("Médico", String.class), new ColunaRelatorio("Paciente", String.class),
+        new ColunaRelatorio("Status", String.class), new ColunaRelatorio("Obs.", String.class),
+        new ColunaRelatorio("CRM Médico", String.class), new ColunaRelatorio("CPF Paciente", String.class));
+    private static final List<ColunaRelatorio> COLUNAS_CANCELADAS = List.of(
+        new ColunaRelatorio("ID Consulta", Long.class), new ColunaRelatorio("Data", String.class),
+        new ColunaRelatorio("Médico", String.class), new ColunaRelatorio("Paciente", String.class),
+        new ColunaRelatorio("Observações", String.class), new ColunaRelatorio("CRM Médico", String.class),
+        new ColunaRelatorio("CPF Paciente", String.class));
+    private static final List<ColunaRelatorio> COLUNAS_HISTORICO = List.of(
+        new ColunaRelatorio("ID Consulta", Long.class), new ColunaRelatorio("Data", String.class),
+        new ColunaRelatorio("Médico", String.class), new ColunaRelatorio("Status", String.class),
+        new ColunaRelatorio("Observações", String.class), new ColunaRelatorio("CRM Médico", String.class));
+    private static final List<ColunaRelatorio> COLUNAS_INATIVOS = List.of(
+        new ColunaRelatorio("Nome", String.class), new ColunaRelatorio("CPF", String.class),
+        new ColunaRelatorio("Telefone", String.class));
+    private static final List<ColunaRelatorio> COLUNAS_DISTRIBUICAO = List.of(
+        new ColunaRelatorio("Dia da Semana", String.class), new ColunaRelatorio("Nº de Consultas", Long.class));
+
+    private boolean estaNoPeriodo(LinhaConsulta c, int mes, int ano) {
+        LocalDateTime dataHorario = c.getDataHorario();
+        boolean match = true;
+        if (ano > 0) match = dataHorario.getYear() == ano;
+        if (mes > 0) match = match && dataHorario.getMonthValue() == mes;
+        return match;
+    }
+
+    /**
+     * Converte o filtro mês/ano (0 = todos) em um intervalo [inicio, fim) para as consultas por período.
+     * Retorna null quando o filtro não é um intervalo contínuo (sem filtro, ou mês sem ano).
+     */
+    private LocalDateTime[] calcularPeriodo(int mes, int ano) {
+        if (ano <= 0) return null;
+        LocalDateTime inicio = LocalDateTime.of(ano, mes > 0 ? mes : 1, 1, 0, 0);
+        return new LocalDateTime[]{ inicio, mes > 0 ? inicio.plusMonths(1) : inicio.plusYears(1) };
+    }
+
+    /**
+     * Retorna {inicio, fim} para as consultas agregadas: o intervalo do período, ou nulos (sem limite)
+     * quando o filtro não é um intervalo contínuo; nesse caso o mês vai à parte em mesSemAno().
+     */
+    private LocalDateTime[] periodoParaAgregacao(int mes, int ano) {
+        LocalDateTime[] periodo = calcularPeriodo(mes, ano);
+        return periodo != null ? periodo : new LocalDateTime[2];
+    }
+
+    private int mesSemAno(int mes, int ano) {
+        return ano <= 0 && mes > 0 ? mes : 0;
+    }
+
+    /**
+     * Percorre em streaming as consultas do período (e opcionalmente de um médico), usando o
+     * índice de datas quando o filtro é um intervalo contínuo. Nenhuma lista é materializada,
+     * então o custo de memória não depende do tamanho do histórico.
+     */
+    private void percorrerConsultasDoPeriodo(Medico medico, int mes, int ano, Consumer<LinhaConsulta> acao) throws SQLException {
+        LocalDateTime[] periodo = calcularPeriodo(mes, ano);
+        if (periodo != null) {
+            if (medico != null) {
+                consultaDAO.percorrerPorMedicoEPeriodo(medico.getCrm(), periodo[0], periodo[1], acao);
+            } else {
+                consultaDAO.percorrerPorPeriodo(periodo[0], periodo[1], acao);
+            }
+            return;
+        }
+        Consumer<LinhaConsulta> filtrada = c -> {
+            if (estaNoPeriodo(c, mes, ano)) acao.accept(c);
+        };
+        if (medico != null) {
+            consultaDAO.percorrerPorMedico(medico.getCrm(), filtrada);
+        } else {
+            consultaDAO.percorrerTodas(filtrada);
+        }
     }
 
-    private Map<String, Object> criarResultado(DefaultTableModel tableModel, String summaryText) {
-        Map<String, Object> resultado = new HashMap<>();
-        resultado.put("tableModel", tableModel);
-        resultado.put("summaryText", summaryText);
+    private interface Montagem {
+        void montar(ReceptorRelatorio receptor) throws SQLException;
+    }
+
+    /**
+     * Entrega o relatório guardado no CacheRelatorios ou, se não houver, monta-o repassando as
+     * linhas ao receptor enquanto uma cópia é guardada com o escopo (médico e período) lido.
+     * Histórico do paciente e pacientes inativos não passam pelo cache: o primeiro é filtrado por
+     * paciente, e o segundo depende da data atual.
+     */
+    private void gerarComCache(String chave, String crmMedico, int mes, int ano, ReceptorRelatorio receptor, Montagem montagem) throws SQLException {
+        ResultadoRelatorio guardado = cache.obter(chave);
+        if (guardado != null) {
+            guardado.repassarPara(receptor);
+            return;
+        }
+        long versao = cache.getVersao();
+        ResultadoRelatorio resultado = new ResultadoRelatorio(receptor);
+        montagem.montar(resultado);
+        LocalDateTime[] agregacao = periodoParaAgregacao(mes, ano);
+        cache.guardar(chave, crmMedico, agregacao[0], agregacao[1], mesSemAno(mes, ano), resultado, versao);
+    }
+
+    public ResultadoRelatorio gerarRelatorioConsultasPorMedico(Medico medicoFiltro, int mes, int ano) throws SQLException {
+        ResultadoRelatorio resultado = new ResultadoRelatorio();
+        gerarRelatorioConsultasPorMedico(medicoFiltro, mes, ano, resultado);
         return resultado;
     }
 
-    private List<Consulta> filtrarConsultasPorPeriodo(List<Consulta> consultas, int mes, int ano) {
-        return consultas.stream().filter(c -> {
-            boolean match = true;
-            if (ano > 0) match = c.getDataHorario().getYear() == ano;
-            if (mes > 0) match = match && c.getDataHorario().getMonthValue() == mes;
-            return match;
-        }).collect(Collectors.toList());
+    public void gerarRelatorioConsultasPorMedico(Medico medicoFiltro, int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        // A assinatura da grade entra na chave: mudar a jornada do médico altera a capacidade no resumo
+        String chave = "porMedico|" + (medicoFiltro != null
+            ? medicoFiltro.getCrm() + "|" + GradeHorariosService.getInstance().getGrade(medicoFiltro).getAssinatura() : "*")
+            + "|" + mes + "|" + ano;
+        gerarComCache(chave, medicoFiltro != null ? medicoFiltro.getCrm() : null, mes, ano, receptor,
+            r -> montarRelatorioConsultasPorMedico(medicoFiltro, mes, ano, r));
     }
 
-    public Map<String, Object> gerarRelatorioConsultasPorMedico(Medico medicoFiltro, int mes, int ano) throws SQLException {
-        List<Consulta> consultas = filtrarConsultasPorPeriodo(consultaDAO.findAll(), mes, ano).stream()
-            .filter(c -> medicoFiltro == null || c.getMedico().getCrm().equals(medicoFiltro.getCrm()))
-            .collect(Collectors.toList());
+    private void montarRelatorioConsultasPorMedico(Medico medicoFiltro, int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        receptor.iniciar(COLUNAS_POR_MEDICO);
+        long[] linhas = {0};
+        // Totais por status contados nas mesmas linhas entregues, para que sempre somem o total
+        long[] totaisPorStatus = new long[Consulta.StatusConsulta.values().length];
+        percorrerConsultasDoPeriodo(medicoFiltro, mes, ano, c -> {
+            receptor.adicionarLinha(new Object[]{
+                c.getId(), c.getDataHorarioFormatado(), c.getNomeMedico(), c.getNomePaciente(), 
+                c.getStatus().getDescricao(), c.getObservacoes(), c.getCrmMedico(), c.getCpfPaciente()
+            });
+            linhas[0]++;
+            totaisPorStatus[c.getStatusOrdinal()]++;
+        });
 
-        String[] colunas = {"ID Consulta", "Data", "Médico", "Paciente", "Status", "Obs.", "CRM Médico", "CPF Paciente"};
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-        consultas.forEach(c -> model.addRow(new Object[]{
-            c.getId(), c.getDataHorarioFormatado(), c.getMedico().getNome(), c.getPaciente().getNome(), 
-            c.getStatus().getDescricao(), c.getObservacoes(), c.getMedico().getCrm(), c.getPaciente().getCpf()
-        }));
+        Map<Consulta.StatusConsulta, Long> porStatus = new EnumMap<>(Consulta.StatusConsulta.class);
+        for (Consulta.StatusConsulta status : Consulta.StatusConsulta.values()) {
+            porStatus.put(status, totaisPorStatus[status.ordinal()]);
+        }
+        StringBuilder resumo = new StringBuilder(String.format("Total de consultas encontradas no filtro: %d", linhas[0]));
+        resumo.append("\nPor status:");
+        porStatus.forEach((status, total) -> resumo.append(String.format(" %s: %d |", status.getDescricao(), total)));
+        resumo.setLength(resumo.length() - 2);
 
-        String resumo = String.format("Total de consultas encontradas no filtro: %d", consultas.size());
-        return criarResultado(model, resumo);
+        // Com médico e período definidos, a grade compilada informa a capacidade de atendimento
+        LocalDateTime[] periodo = calcularPeriodo(mes, ano);
+        if (medicoFiltro != null && periodo != null) {
+            int capacidade = GradeHorariosService.getInstance().getGrade(medicoFiltro)
+                .contarHorarios(periodo[0].toLocalDate(), periodo[1].toLocalDate());
+            long ocupados = porStatus.get(Consulta.StatusConsulta.AGENDADA) + porStatus.get(Consulta.StatusConsulta.REALIZADA);
+            resumo.append(String.format("\nCapacidade da grade no período: %d horários | Ocupação: %.1f%%",
+                capacidade, capacidade > 0 ? (ocupados * 100.0) / capacidade : 0.0));
+        }
+        receptor.concluir(resumo.toString());
     }
     
-    public Map<String, Object> gerarRelatorioConsultasCanceladas(int mes, int ano) throws SQLException {
-        List<Consulta> canceladas = filtrarConsultasPorPeriodo(consultaDAO.findAll(), mes, ano).stream()
-            .filter(c -> c.getStatus() == Consulta.StatusConsulta.CANCELADA)
-            .collect(Collectors.toList());
-
-        String[] colunas = {"ID Consulta", "Data", "Médico", "Paciente", "Observações", "CRM Médico", "CPF Paciente"};
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-        canceladas.forEach(c -> model.addRow(new Object[]{
-            c.getId(), c.getDataHorarioFormatado(), c.getMedico().getNome(), c.getPaciente().getNome(), c.getObservacoes(),
-            c.getMedico().getCrm(), c.getPaciente().getCpf()
-        }));
-        
-        String resumo = String.format("Total de consultas canceladas no período: %d", canceladas.size());
-        return criarResultado(model, resumo);
+    public ResultadoRelatorio gerarRelatorioConsultasCanceladas(int mes, int ano) throws SQLException {
+        ResultadoRelatorio resultado = new ResultadoRelatorio();
+        gerarRelatorioConsultasCanceladas(mes, ano, resultado);
+        return resultado;
+    }
+
+    public void gerarRelatorioConsultasCanceladas(int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        gerarComCache("canceladas|" + mes + "|" + ano, null, mes, ano, receptor,
+            r -> montarRelatorioConsultasCanceladas(mes, ano, r));
+    }
+
+    private void montarRelatorioConsultasCanceladas(int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        receptor.iniciar(COLUNAS_CANCELADAS);
+        long[] linhas = {0};
+        Map<String, Long> canceladasPorMedico = new HashMap<>();
+        Consumer<LinhaConsulta> adicionarLinha = c -> {
+            receptor.adicionarLinha(new Object[]{
+                c.getId(), c.getDataHorarioFormatado(), c.getNomeMedico(), c.getNomePaciente(), c.getObservacoes(),
+                c.getCrmMedico(), c.getCpfPaciente()
+            });
+            linhas[0]++;
+            if (c.getCrmMedico() != null) {
+                canceladasPorMedico.merge(c.getNomeMedico() != null ? c.getNomeMedico() : c.getCrmMedico(), 1L, Long::sum);
+            }
+        };
+
+        // Lógica: Canceladas, ranking e total do período vêm todos da tabela 'consultas', para que
+        // a taxa nunca misture fontes (os totais diários podem estar atrasados até a reconstrução).
+        LocalDateTime[] periodo = calcularPeriodo(mes, ano);
+        long totalPeriodo;
+        if (periodo != null) {
+            consultaDAO.percorrerPorStatusEPeriodo(Consulta.StatusConsulta.CANCELADA, periodo[0], periodo[1], adicionarLinha);
+            totalPeriodo = consultaDAO.contarPorPeriodo(periodo[0], periodo[1]);
+        } else {
+            long[] total = {0};
+            percorrerConsultasDoPeriodo(null, mes, ano, c -> {
+                total[0]++;
+                if (c.getStatus() == Consulta.StatusConsulta.CANCELADA) adicionarLinha.accept(c);
+            });
+            totalPeriodo = total[0];
+        }
+        Map<String, Long> porMedico = new LinkedHashMap<>();
+        canceladasPorMedico.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .forEach(e -> porMedico.put(e.getKey(), e.getValue()));
+
+        String resumo = String.format("Total de consultas canceladas no período: %d (%.1f%% de %d consultas)",
+            linhas[0], totalPeriodo > 0 ? (linhas[0] * 100.0) / totalPeriodo : 0.0, totalPeriodo);
+        if (!porMedico.isEmpty()) {
+            resumo += "\nPor médico: " + porMedico.entrySet().stream()
+                .map(e -> e.getKey() + " (" + e.getValue() + ")")
+                .collect(Collectors.joining(", "));
+        }
+        receptor.concluir(resumo);
     }
     
-    public Map<String, Object> gerarRelatorioHistoricoPaciente(String pacienteInput) throws SQLException {
+    public ResultadoRelatorio gerarRelatorioHistoricoPaciente(String pacienteInput) throws SQLException {
+        ResultadoRelatorio resultado = new ResultadoRelatorio();
+        gerarRelatorioHistoricoPaciente(pacienteInput, resultado);
+        return resultado;
+    }
+
+    public void gerarRelatorioHistoricoPaciente(String pacienteInput, ReceptorRelatorio receptor) throws SQLException {
         if (pacienteInput == null || pacienteInput.trim().isEmpty()) {
             throw new IllegalArgumentException("Nome ou CPF do paciente é obrigatório.");
         }
         
-        Paciente pacienteEncontrado = pacienteDAO.findAll().stream()
-            .filter(p -> p.getNome().equalsIgnoreCase(pacienteInput.trim()) || p.getCpf().equals(pacienteInput.replaceAll("[^0-9]", "")))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Paciente não encontrado."));
+        // CPF (11 dígitos) vai direto pela chave primária; nome usa o índice de nome normalizado
+        String digitos = pacienteInput.replaceAll("[^0-9]", "");
+        Paciente pacienteEncontrado = digitos.length() == 11 ? pacienteDAO.findById(digitos) : null;
+        if (pacienteEncontrado == null) {
+            List<Paciente> homonimos = pacienteDAO.findByNome(pacienteInput);
+            if (homonimos.isEmpty()) {
+                throw new IllegalArgumentException("Paciente não encontrado.");
+            }
+            pacienteEncontrado = homonimos.get(0);
+        }
 
-        List<Consulta> historico = consultaDAO.findByPaciente(pacienteEncontrado.getCpf());
-        
-        String[] colunas = {"ID Consulta", "Data", "Médico", "Status", "Observações", "CRM Médico"};
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-        historico.forEach(c -> model.addRow(new Object[]{
-            c.getId(), c.getDataHorarioFormatado(), c.getMedico().getNome(), c.getStatus().getDescricao(), c.getObservacoes(),
-            c.getMedico().getCrm()
-        }));
+        receptor.iniciar(COLUNAS_HISTORICO);
+        long[] linhas = {0};
+        consultaDAO.percorrerPorPaciente(pacienteEncontrado.getCpf(), c -> {
+            receptor.adicionarLinha(new Object[]{
+                c.getId(), c.getDataHorarioFormatado(), c.getNomeMedico(), c.getStatus().getDescricao(), c.getObservacoes(),
+                c.getCrmMedico()
+            });
+            linhas[0]++;
+        });
 
-        String resumo = String.format("Histórico do Paciente: %s\nTotal de consultas: %d", pacienteEncontrado.getNome(), historico.size());
-        return criarResultado(model, resumo);
+        receptor.concluir(String.format("Histórico do Paciente: %s\nTotal de consultas: %d", pacienteEncontrado.getNome(), linhas[0]));
     }
     
-    public Map<String, Object> gerarRelatorioPacientesInativos() throws SQLException {
-        LocalDateTime umAnoAtras = LocalDateTime.now().minusYears(1);
-        Set<String> cpfsAtivos = consultaDAO.findAll().stream()
-            .filter(c -> c.getDataHorario().isAfter(umAnoAtras))
-            .map(c -> c.getPaciente().getCpf())
-            .collect(Collectors.toSet());
-            
-        List<Paciente> pacientesInativos = pacienteDAO.findAll().stream()
-            .filter(p -> !cpfsAtivos.contains(p.getCpf()))
-            .collect(Collectors.toList());
-
-        String[] colunas = {"Nome", "CPF", "Telefone"};
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-        pacientesInativos.forEach(p -> model.addRow(new Object[]{ p.getNome(), p.getCpf(), p.getTelefone() }));
-
-        String resumo = String.format("Total de pacientes sem consulta no último ano: %d", pacientesInativos.size());
-        return criarResultado(model, resumo);
-    }
-
-    public Map<String, Object> gerarRelatorioDistribuicaoConsultas(int mes, int ano) throws SQLException {
-        List<Consulta> consultas = filtrarConsultasPorPeriodo(consultaDAO.findAll(), mes, ano);
-
-        Map<String, Long> contagemPorDia = consultas.stream()
-            .map(c -> c.getDataHorario().getDayOfWeek())
-            .collect(Collectors.groupingBy(
-                dayOfWeek -> dayOfWeek.getDisplayName(TextStyle.FULL, new Locale("pt", "BR")),
-                TreeMap::new, // Garante a ordem
-                Collectors.counting()
-            ));
-
-        String[] colunas = {"Dia da Semana", "Nº de Consultas"};
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-        contagemPorDia.forEach((dia, total) -> model.addRow(new Object[]{dia, total}));
-
-        String resumo = "Distribuição de consultas por dia da semana no período selecionado.";
-        return criarResultado(model, resumo);
-    }
-}
\ No newline at end of file
+    public ResultadoRelatorio gerarRelatorioPacientesInativos() throws SQLException {
+        return gerarRelatorioPacientesInativos(MESES_INATIVIDADE_PADRAO);
+    }
+
+    public ResultadoRelatorio gerarRelatorioPacientesInativos(int mesesInatividade) throws SQLException {
+        ResultadoRelatorio resultado = new ResultadoRelatorio();
+        gerarRelatorioPacientesInativos(mesesInatividade, resultado);
+        return resultado;
+    }
+
+    /**
+     * Lista os pacientes sem consulta nos últimos 'mesesInatividade' meses.
+     * A diferença entre pacientes e consultas é feita no banco (PacienteDAO.percorrerInativos).
+     */
+    public void gerarRelatorioPacientesInativos(int mesesInatividade, ReceptorRelatorio receptor) throws SQLException {
+        if (mesesInatividade < 1) {
+            throw new IllegalArgumentException("A janela de inatividade deve ser de pelo menos 1 mês.");
+        }
+        LocalDateTime desde = LocalDateTime.now().minusMonths(mesesInatividade);
+
+        receptor.iniciar(COLUNAS_INATIVOS);
+        long[] linhas = {0};
+        pacienteDAO.percorrerInativos(desde, p -> {
+            receptor.adicionarLinha(new Object[]{ p.getNome(), p.getCpf(), p.getTelefone() });
+            linhas[0]++;
+        });
+
+        receptor.concluir(String.format("Total de pacientes sem consulta nos últimos %d meses: %d", mesesInatividade, linhas[0]));
+    }
+
+    public ResultadoRelatorio gerarRelatorioDistribuicaoConsultas(int mes, int ano) throws SQLException {
+        ResultadoRelatorio resultado = new ResultadoRelatorio();
+        gerarRelatorioDistribuicaoConsultas(mes, ano, resultado);
+        return resultado;
+    }
+
+    public void gerarRelatorioDistribuicaoConsultas(int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        gerarComCache("distribuicao|" + mes + "|" + ano, null, mes, ano, receptor,
+            r -> montarRelatorioDistribuicaoConsultas(mes, ano, r));
+    }
+
+    private void montarRelatorioDistribuicaoConsultas(int mes, int ano, ReceptorRelatorio receptor) throws SQLException {
+        // Contagem por dia da semana somada dos totais diários; só 7 linhas trafegam
+        LocalDateTime[] agregacao = periodoParaAgregacao(mes, ano);
+        long[] contagem = resumoDAO.contarPorDiaDaSemana(agregacao[0], agregacao[1], mesSemAno(mes, ano));
+
+        Map<String, Long> contagemPorDia = new TreeMap<>(); // Garante a ordem
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (contagem[dia.ordinal()] > 0) {
+                contagemPorDia.put(dia.getDisplayName(TextStyle.FULL, new Locale("pt", "BR")), contagem[dia.ordinal()]);
+            }
+        }
+
+        receptor.iniciar(COLUNAS_DISTRIBUICAO);
+        contagemPorDia.forEach((dia, total) -> receptor.adicionarLinha(new Object[]{dia, total}));
+        receptor.concluir("Distribuição de consultas por dia da semana no período selecionado.");
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.clinica.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Receptor que guarda o relatório inteiro em memória: colunas, linhas e resumo.
+ * Usado por rotinas sem interface gráfica (exportações, processamentos em lote) e
+ * pelas versões de RelatorioService que devolvem o resultado pronto.
+ * Com um destino, repassa cada chamada a ele enquanto guarda; é assim que o RelatorioService
+ * preenche o CacheRelatorios sem atrasar a exibição das linhas.
+ * Interage com as classes: ReceptorRelatorio, ColunaRelatorio, RelatorioService.
+ */
+public class ResultadoRelatorio implements ReceptorRelatorio {
+
+    private List<ColunaRelatorio> colunas = Collections.emptyList();
+    private final List<Object[]> linhas = new ArrayList<>();
+    private String resumo = "";
+    private final ReceptorRelatorio destino;
+
+    public ResultadoRelatorio() {
+        this(null);
+    }
+
+    /**
+     * @param destino Receptor que recebe cada chamada além deste, ou null.
+     */
+    public ResultadoRelatorio(ReceptorRelatorio destino) {
+        this.destino = destino;
+    }
+
+    @Override
+    public void iniciar(List<ColunaRelatorio> colunas) {
+        this.colunas = colunas;
+        if (destino != null) destino.iniciar(colunas);
+    }
+
+    @Override
+    public void adicionarLinha(Object[] valores) {
+        linhas.add(valores);
+        if (destino != null) destino.adicionarLinha(valores);
+    }
+
+    @Override
+    public void concluir(String resumo) {
+        this.resumo = resumo;
+        if (destino != null) destino.concluir(resumo);
+    }
+
+    /**
+     * Reenvia o relatório guardado a outro receptor (ex.: a tabela de uma tela).
+     */
+    public void repassarPara(ReceptorRelatorio receptor) {
+        receptor.iniciar(colunas);
+        for (Object[] linha : linhas) {
+            receptor.adicionarLinha(linha);
+        }
+        receptor.concluir(resumo);
+    }
+
+    public List<ColunaRelatorio> getColunas() { return colunas; }
+    public List<Object[]> getLinhas() { return Collections.unmodifiableList(linhas); }
+    public int getQuantidadeLinhas() { return linhas.size(); }
+    public String getResumo() { return resumo; }
+}
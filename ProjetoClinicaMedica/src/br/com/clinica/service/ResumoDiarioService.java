@@ -0,0 +1,130 @@
+package br.com.clinica.service;
+
+import br.com.clinica.dao.ResumoDiarioDAO;
+import br.com.clinica.model.Consulta.StatusConsulta;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém a tabela de totais diários (consultas_resumo_diario) coerente com 'consultas' e fornece
+ * os indicadores do painel da TelaPrincipal.
+ * O ConsultaService atualiza os totais a cada agendamento, cancelamento e conclusão; gravações
+ * feitas por outros caminhos (lotes, ajustes direto no banco) são corrigidas pela reconstrução
+ * periódica, que roda ao iniciar o sistema e a cada INTERVALO_RECONSTRUCAO_HORAS e refaz só os
+ * dias recentes e futuros (a partir de DIAS_RECONSTRUCAO_PERIODICA atrás). Correções em dias mais antigos pedem a reconstrução completa
+ * (reconstruir()) ou a do período afetado (reconstruirPeriodo()). A reconstrução é feita por
+ * blocos de dias e por uma estação de cada vez (ver ResumoDiarioDAO.reconstruir).
+ * Interage com as classes: ResumoDiarioDAO, ConsultaService, CacheRelatorios, TelaPrincipal.
+ */
+public class ResumoDiarioService {
+
+    private static final long INTERVALO_RECONSTRUCAO_HORAS = 24;
+    // Dias passados refeitos pela reconstrução periódica; 31 cobre sempre o mês corrente (contarMesAtual)
+    private static final int DIAS_RECONSTRUCAO_PERIODICA = 31;
+
+    private static ResumoDiarioService instance;
+
+    private final ResumoDiarioDAO resumoDAO;
+    private ScheduledExecutorService agendador;
+
+    private ResumoDiarioService() {
+        this.resumoDAO = new ResumoDiarioDAO();
+    }
+
+    /**
+     * Fornece a instância única, dona da rotina de reconstrução.
+     */
+    public static synchronized ResumoDiarioService getInstance() {
+        if (instance == null) {
+            instance = new ResumoDiarioService();
+        }
+        return instance;
+    }
+
+    /**
+     * Refaz os totais a partir de 'consultas' e descarta os relatórios em cache, que podem ter
+     * sido gerados com totais divergentes.
+     * @return A quantidade de linhas (dia, médico, status) gravadas, ou -1 se outra estação já
+     *         estava reconstruindo (nesse caso nada é feito).
+     */
+    public int reconstruir() throws SQLException {
+        int linhas = resumoDAO.reconstruir();
+        if (linhas >= 0) {
+            CacheRelatorios.getInstance().invalidarTudo();
+        }
+        return linhas;
+    }
+
+    /**
+     * Refaz os totais apenas dos dias de [inicio, fim), por exemplo depois de gravações feitas
+     * direto pelo ConsultaDAO, e descarta os relatórios em cache.
+     * @return A quantidade de linhas gravadas, ou -1 se outra estação já estava reconstruindo.
+     */
+    public int reconstruirPeriodo(LocalDate inicio, LocalDate fim) throws SQLException {
+        int linhas = resumoDAO.reconstruirPeriodo(inicio, fim);
+        if (linhas >= 0) {
+            CacheRelatorios.getInstance().invalidarTudo();
+        }
+        return linhas;
+    }
+
+    /**
+     * Refaz os totais dos dias recentes e futuros, os que o painel e a agenda mais consultam,
+     * e descarta os relatórios em cache.
+     * @return A quantidade de linhas gravadas, ou -1 se outra estação já estava reconstruindo.
+     */
+    // Lógica: Cada estação refaz só essa janela ao iniciar, em vez de todo o histórico.
+    public int reconstruirRecentes() throws SQLException {
+        int linhas = resumoDAO.reconstruirDesde(LocalDate.now().minusDays(DIAS_RECONSTRUCAO_PERIODICA));
+        if (linhas >= 0) {
+            CacheRelatorios.getInstance().invalidarTudo();
+        }
+        return linhas;
+    }
+
+    /**
+     * Inicia a reconstrução dos dias recentes (reconstruirRecentes) em segundo plano: uma vez
+     * agora e depois a cada INTERVALO_RECONSTRUCAO_HORAS. Chamadas repetidas não criam outra rotina.
+     */
+    public synchronized void iniciarReconstrucaoPeriodica() {
+        if (agendador != null) return;
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "reconstrucao-resumo-diario");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                int linhas = reconstruirRecentes();
+                if (linhas < 0) {
+                    System.out.println("Resumo diario: reconstrucao ja em andamento em outra estacao.");
+                } else {
+                    System.out.println("Resumo diario reconstruido: " + linhas + " linhas.");
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao reconstruir o resumo diario: " + e.getMessage());
+            }
+        }, 0, INTERVALO_RECONSTRUCAO_HORAS, TimeUnit.HOURS);
+    }
+
+    /**
+     * @return Totais por status das consultas de hoje.
+     */
+    public Map<StatusConsulta, Long> contarHoje() throws SQLException {
+        LocalDate hoje = LocalDate.now();
+        return resumoDAO.contarPorStatus(null, hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay(), 0);
+    }
+
+    /**
+     * @return Totais por status das consultas do mês corrente.
+     */
+    public Map<StatusConsulta, Long> contarMesAtual() throws SQLException {
+        LocalDate inicioMes = LocalDate.now().withDayOfMonth(1);
+        return resumoDAO.contarPorStatus(null, inicioMes.atStartOfDay(), inicioMes.plusMonths(1).atStartOfDay(), 0);
+    }
+}
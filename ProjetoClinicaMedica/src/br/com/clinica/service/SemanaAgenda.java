@@ -0,0 +1,37 @@
+package br.com.clinica.service;
+
+import br.com.clinica.model.LinhaConsulta;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conteúdo de uma semana da agenda: as consultas da semana (já filtradas por médico ou paciente),
+ * como LinhaConsulta, e as linhas de horário da grade semanal.
+ * Instâncias ficam guardadas no AgendaSemanalService e são compartilhadas: nem a lista nem o
+ * vetor de horários devem ser alterados por quem os recebe.
+ * Interage com as classes: AgendaSemanalService, LinhaConsulta, TelaAgendaCalendario.
+ */
+public final class SemanaAgenda {
+
+    private final LocalDate segunda;
+    private final List<LinhaConsulta> consultas;
+    private final LocalTime[] horarios;
+
+    public SemanaAgenda(LocalDate segunda, List<LinhaConsulta> consultas, LocalTime[] horarios) {
+        this.segunda = segunda;
+        this.consultas = Collections.unmodifiableList(consultas);
+        this.horarios = horarios;
+    }
+
+    /** @return A segunda-feira que inicia a semana. */
+    public LocalDate getSegunda() { return segunda; }
+
+    /** @return As consultas da semana, ordenadas por data. */
+    public List<LinhaConsulta> getConsultas() { return consultas; }
+
+    /** @return Os horários das linhas da grade, em ordem crescente. */
+    public LocalTime[] getHorarios() { return horarios; }
+}
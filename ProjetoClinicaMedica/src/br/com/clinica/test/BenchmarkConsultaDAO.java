@@ -0,0 +1,87 @@
+package br.com.clinica.test;
+
+import br.com.clinica.config.DatabaseConnection;
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.dao.MedicoDAO;
+import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.model.Consulta;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compara a leitura de consultas com junção (ConsultaDAO.findAll, 1 ida ao banco)
+ * com o caminho antigo N+1 (uma consulta por médico e uma por paciente em cada linha).
+ * Também reporta quantas instâncias de médico/paciente o resultado retém e o heap ocupado.
+ * Usa os dados já existentes no banco configurado em DatabaseConnection.
+ * Execute em bancos de tamanhos diferentes para ver como idas ao banco e latência crescem.
+ */
+public class BenchmarkConsultaDAO {
+
+    private static final int[] LIMITES = {100, 1_000, 10_000, 100_000};
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== BENCHMARK LEITURA DE CONSULTAS ===");
+
+        ConsultaDAO consultaDAO = new ConsultaDAO();
+        MedicoDAO medicoDAO = new MedicoDAO();
+        PacienteDAO pacienteDAO = new PacienteDAO();
+
+        consultaDAO.findAll(); // aquecimento
+
+        for (int limite : LIMITES) {
+            long inicio = System.nanoTime();
+            int linhas = 0;
+            int idas = 1;
+            try (Connection conn = DatabaseConnection.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT medico_crm, paciente_cpf FROM consultas ORDER BY data_horario DESC LIMIT ?")) {
+                stmt.setInt(1, limite);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        medicoDAO.findById(rs.getString("medico_crm"));
+                        pacienteDAO.findById(rs.getString("paciente_cpf"));
+                        idas += 2;
+                        linhas++;
+                    }
+                }
+            }
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.printf("N+1     limite=%-7d linhas=%-7d idas ao banco=%-7d tempo=%d ms%n", limite, linhas, idas, ms);
+            if (linhas < limite) break;
+        }
+
+        long heapAntes = heapUsado();
+        long inicio = System.nanoTime();
+        List<Consulta> consultas = consultaDAO.findAll();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        long heapDepois = heapUsado();
+        System.out.printf("JOIN    findAll     linhas=%-7d idas ao banco=%-7d tempo=%d ms%n", consultas.size(), 1, ms);
+
+        // Mapa de identidade: quantas instâncias distintas de médico/paciente o resultado retém
+        Set<Object> medicos = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Object> pacientes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Consulta c : consultas) {
+            medicos.add(c.getMedico());
+            pacientes.add(c.getPaciente());
+        }
+        System.out.printf("Instancias: medicos=%d pacientes=%d (sem mapa de identidade seriam %d de cada)%n",
+            medicos.size(), pacientes.size(), consultas.size());
+        System.out.printf("Heap retido pelo resultado: ~%d KB%n", (heapDepois - heapAntes) / 1024);
+
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.clinica.test;
+
+import br.com.clinica.config.DatabaseConnection;
+import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.model.Paciente;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compara a vazão de gravação de pacientes linha a linha (PacienteDAO.save/update)
+ * com a gravação em lote (PacienteDAO.saveAll/updateAll) em diferentes tamanhos de bloco.
+ * Cria pacientes sintéticos com CPF iniciado por PREFIXO_CPF e, ao final, remove apenas os CPFs
+ * gerados; se algum deles já existir no banco, o benchmark não começa, para não apagar dados reais.
+ * Usa o banco configurado em DatabaseConnection.
+ */
+public class BenchmarkLote {
+
+    private static final int QUANTIDADE = 10_000;
+    private static final int[] TAMANHOS_LOTE = {100, 1_000, 5_000};
+    private static final String PREFIXO_CPF = "990";
+    // CPFs por comando nas verificações e remoções (cpf IN (...))
+    private static final int CPFS_POR_COMANDO = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== BENCHMARK GRAVACAO EM LOTE ===");
+        PacienteDAO pacienteDAO = new PacienteDAO();
+        List<String> cpfs = new ArrayList<>(QUANTIDADE);
+        for (Paciente paciente : gerarPacientes(QUANTIDADE)) {
+            cpfs.add(paciente.getCpf());
+        }
+
+        int existentes = executarPorCpfs("SELECT COUNT(*) FROM pacientes WHERE cpf IN (%s)", cpfs);
+        if (existentes > 0) {
+            System.err.println("Benchmark cancelado: " + existentes + " CPF(s) gerados já existem no banco.");
+            DatabaseConnection.getInstance().closeConnection();
+            return;
+        }
+
+        try {
+            List<Paciente> pacientes = gerarPacientes(QUANTIDADE);
+            long inicio = System.nanoTime();
+            for (Paciente paciente : pacientes) {
+                pacienteDAO.save(paciente);
+            }
+            imprimir("save linha a linha", QUANTIDADE, inicio);
+
+            inicio = System.nanoTime();
+            for (Paciente paciente : pacientes) {
+                paciente.setTelefone("(11) 90000-0001");
+                pacienteDAO.update(paciente);
+            }
+            imprimir("update linha a linha", QUANTIDADE, inicio);
+            remover(cpfs);
+
+            for (int tamanhoLote : TAMANHOS_LOTE) {
+                pacientes = gerarPacientes(QUANTIDADE);
+                inicio = System.nanoTime();
+                pacienteDAO.saveAll(pacientes, tamanhoLote);
+                imprimir("saveAll lote=" + tamanhoLote, QUANTIDADE, inicio);
+
+                pacientes.forEach(p -> p.setTelefone("(11) 90000-0002"));
+                inicio = System.nanoTime();
+                pacienteDAO.updateAll(pacientes, tamanhoLote);
+                imprimir("updateAll lote=" + tamanhoLote, QUANTIDADE, inicio);
+                remover(cpfs);
+            }
+        } finally {
+            remover(cpfs);
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private static List<Paciente> gerarPacientes(int quantidade) {
+        List<Paciente> pacientes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Paciente paciente = new Paciente();
+            paciente.setCpf(PREFIXO_CPF + String.format("%08d", i));
+            paciente.setNome("Paciente Benchmark " + i);
+            paciente.setDataNascimento(LocalDate.of(1980, 1, 1).plusDays(i % 10_000));
+            paciente.setEndereco("Rua do Teste, " + i);
+            paciente.setTelefone("(11) 90000-0000");
+            paciente.setHistoricoMedico("");
+            pacientes.add(paciente);
+        }
+        return pacientes;
+    }
+
+    private static void remover(List<String> cpfs) throws Exception {
+        executarPorCpfs("DELETE FROM pacientes WHERE cpf IN (%s)", cpfs);
+    }
+
+    /**
+     * Executa o comando em blocos de até CPFS_POR_COMANDO CPFs, preenchendo o '%s' com os '?'.
+     * @return A soma das contagens (SELECT COUNT) ou das linhas afetadas (DELETE).
+     */
+    private static int executarPorCpfs(String sql, List<String> cpfs) throws Exception {
+        int total = 0;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int inicio = 0; inicio < cpfs.size(); inicio += CPFS_POR_COMANDO) {
+                List<String> bloco = cpfs.subList(inicio, Math.min(inicio + CPFS_POR_COMANDO, cpfs.size()));
+                String marcadores = String.join(", ", Collections.nCopies(bloco.size(), "?"));
+                try (PreparedStatement stmt = conn.prepareStatement(String.format(sql, marcadores))) {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        stmt.setString(i + 1, bloco.get(i));
+                    }
+                    if (stmt.execute()) {
+                        try (ResultSet rs = stmt.getResultSet()) {
+                            total += rs.next() ? rs.getInt(1) : 0;
+                        }
+                    } else {
+                        total += stmt.getUpdateCount();
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static void imprimir(String caminho, int linhas, long inicioNanos) {
+        long ms = Math.max(1, (System.nanoTime() - inicioNanos) / 1_000_000);
+        System.out.printf("%-22s linhas=%-7d tempo=%-7d ms vazao=%d linhas/s%n", caminho, linhas, ms, linhas * 1000L / ms);
+    }
+}
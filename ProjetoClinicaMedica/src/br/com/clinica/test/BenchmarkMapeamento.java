@@ -0,0 +1,149 @@
+package br.com.clinica.test;
+
+import br.com.clinica.config.DatabaseConnection;
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.dao.MapeamentoLinhas;
+import br.com.clinica.dao.MedicoDAO;
+import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.model.Consulta;
+import br.com.clinica.model.LinhaConsulta;
+import br.com.clinica.model.Medico;
+import br.com.clinica.model.Paciente;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara o mapeamento de linhas por nome de coluna (rs.getString("nome") em cada linha, como os
+ * DAOs faziam) com os mapeadores compilados dos DAOs (posições resolvidas uma vez por SQL).
+ * Os dois caminhos leem o mesmo SQL, com o mesmo statement (resultado inteiro em memória, padrão do
+ * driver), e só o laço de mapeamento é cronometrado, então a diferença medida é apenas a do
+ * mapeamento. Para pacientes, médicos e linhas de consulta, reporta o melhor de RODADAS execuções
+ * em linhas por segundo.
+ * Usa os dados já existentes no banco configurado em DatabaseConnection.
+ */
+public class BenchmarkMapeamento {
+
+    private static final int RODADAS = 5;
+
+    private static final String SQL_PACIENTES = "SELECT cpf, nome, data_nascimento, endereco, telefone FROM pacientes";
+    private static final String SQL_MEDICOS = "SELECT * FROM medicos";
+    private static final String SQL_LINHAS =
+        "SELECT c.id, c.data_horario, c.status, c.observacoes, c.medico_crm, m.nome AS medico_nome, " +
+        "c.paciente_cpf, p.nome AS paciente_nome " +
+        "FROM consultas c " +
+        "LEFT JOIN medicos m ON m.crm = c.medico_crm " +
+        "LEFT JOIN pacientes p ON p.cpf = c.paciente_cpf";
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== BENCHMARK MAPEAMENTO DE LINHAS ===");
+
+        comparar("pacientes", SQL_PACIENTES, (sql, rs) -> BenchmarkMapeamento::pacientePorNome,
+            PacienteDAO::compilarMapeador);
+        comparar("medicos", SQL_MEDICOS, (sql, rs) -> BenchmarkMapeamento::medicoPorNome,
+            MedicoDAO::compilarMapeador);
+        comparar("consultas", SQL_LINHAS, (sql, rs) -> {
+                Map<String, String> textos = new HashMap<>();
+                return linha -> linhaPorNome(linha, textos);
+            }, ConsultaDAO::compilarMapeadorLinha);
+
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    // Lógica: A primeira execução de cada caminho é aquecimento (JIT e resolução das posições) e
+    // não entra no resultado.
+    private static <T> void comparar(String tabela, String sql, MapeamentoLinhas.Compilador<T> porNome,
+                                     MapeamentoLinhas.Compilador<T> compilado) throws SQLException {
+        medir(sql, porNome);
+        medir(sql, compilado);
+
+        double[] porNomeMelhor = melhor(sql, porNome);
+        double[] compiladoMelhor = melhor(sql, compilado);
+        System.out.printf("%-10s linhas=%-8d por nome=%,12.0f linhas/s  compilado=%,12.0f linhas/s  ganho=%.2fx%n",
+            tabela, (long) compiladoMelhor[0], porNomeMelhor[1], compiladoMelhor[1],
+            porNomeMelhor[1] > 0 ? compiladoMelhor[1] / porNomeMelhor[1] : 0);
+    }
+
+    /** @return {linhas, melhor taxa em linhas/s} entre as RODADAS execuções. */
+    private static <T> double[] melhor(String sql, MapeamentoLinhas.Compilador<T> compilador) throws SQLException {
+        double[] melhor = {0, 0};
+        for (int i = 0; i < RODADAS; i++) {
+            double[] medida = medir(sql, compilador);
+            melhor[0] = medida[0];
+            melhor[1] = Math.max(melhor[1], medida[1]);
+        }
+        return melhor;
+    }
+
+    /**
+     * Executa o SQL e cronometra só a compilação do mapeador e o laço de mapeamento.
+     * @return {linhas, taxa em linhas/s}.
+     */
+    private static <T> double[] medir(String sql, MapeamentoLinhas.Compilador<T> compilador) throws SQLException {
+        List<T> registros = new ArrayList<>();
+        long nanos;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            long inicio = System.nanoTime();
+            MapeamentoLinhas.Mapeador<T> mapeador = compilador.compilar(sql, rs);
+            while (rs.next()) {
+                registros.add(mapeador.mapear(rs));
+            }
+            nanos = Math.max(1, System.nanoTime() - inicio);
+        }
+        return new double[] {registros.size(), registros.size() * 1_000_000_000.0 / nanos};
+    }
+
+    private static Paciente pacientePorNome(ResultSet rs) throws SQLException {
+        Paciente paciente = new Paciente();
+        paciente.setCpf(rs.getString("cpf"));
+        paciente.setNome(rs.getString("nome"));
+        paciente.setDataNascimento(rs.getDate("data_nascimento").toLocalDate());
+        paciente.setEndereco(rs.getString("endereco"));
+        paciente.setTelefone(rs.getString("telefone"));
+        paciente.setHistoricoCarregado(false);
+        return paciente;
+    }
+
+    private static Medico medicoPorNome(ResultSet rs) throws SQLException {
+        Medico medico = new Medico();
+        medico.setCrm(rs.getString("crm"));
+        medico.setNome(rs.getString("nome"));
+        medico.setEspecialidade(rs.getString("especialidade"));
+        String dias = rs.getString("dias_atendimento");
+        if (dias != null && !dias.isEmpty()) {
+            medico.setDiasAtendimento(Arrays.asList(dias.split(",")));
+        }
+        medico.setHorarioInicio(rs.getTime("horario_inicio").toLocalTime());
+        medico.setHorarioFim(rs.getTime("horario_fim").toLocalTime());
+        medico.setSalaAtendimento(rs.getString("sala_atendimento"));
+        return medico;
+    }
+
+    // Mesmo compartilhamento de Strings do mapeador compilado, para medir só a leitura das colunas
+    private static LinhaConsulta linhaPorNome(ResultSet rs, Map<String, String> textos) throws SQLException {
+        return new LinhaConsulta(
+            rs.getLong("id"),
+            rs.getTimestamp("data_horario").toLocalDateTime(),
+            Consulta.StatusConsulta.valueOf(rs.getString("status")),
+            compartilhar(textos, rs.getString("medico_crm")),
+            compartilhar(textos, rs.getString("medico_nome")),
+            compartilhar(textos, rs.getString("paciente_cpf")),
+            compartilhar(textos, rs.getString("paciente_nome")),
+            rs.getString("observacoes"));
+    }
+
+    private static String compartilhar(Map<String, String> textos, String texto) {
+        if (texto == null) return null;
+        String existente = textos.putIfAbsent(texto, texto);
+        return existente != null ? existente : texto;
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.clinica.test;
+
+import br.com.clinica.config.DatabaseConnection;
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.dao.MedicoDAO;
+import br.com.clinica.dao.PacienteDAO;
+import br.com.clinica.exception.HorarioIndisponivelException;
+import br.com.clinica.model.Consulta;
+import br.com.clinica.model.Medico;
+import br.com.clinica.model.Paciente;
+import br.com.clinica.service.ConsultaService;
+import br.com.clinica.service.GradeHorarios;
+import br.com.clinica.service.GradeHorariosService;
+import br.com.clinica.service.ResumoDiarioService;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de estresse do agendamento concorrente.
+ * Fase 1: THREADS recepções disputam, ao mesmo tempo, todos os horários de um dia do primeiro
+ * médico via ConsultaService (trava por CRM + índice único).
+ * Fase 2: as mesmas threads gravam direto pelo ConsultaDAO em outro dia, simulando estações
+ * diferentes; só o índice único uk_consultas_medico_horario_ativo protege.
+ * Ao final confere no banco que nenhum horário ficou com mais de uma consulta ativa,
+ * remove as consultas criadas pelo teste e reconstrói os totais diários dos dois dias, já que
+ * nem a gravação direta nem a remoção passam pelo ConsultaService.
+ * Usa o banco configurado em DatabaseConnection (com o script do README aplicado).
+ */
+public class TesteConcorrenciaAgendamento {
+
+    private static final int THREADS = 64;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== TESTE DE CONCORRENCIA NO AGENDAMENTO ===");
+
+        List<Medico> medicos = new MedicoDAO().findAll();
+        List<Paciente> pacientes = new PacienteDAO().findAll();
+        if (medicos.isEmpty() || pacientes.isEmpty()) {
+            System.out.println("✗ Cadastre ao menos um médico e um paciente antes de executar o teste.");
+            return;
+        }
+        Medico medico = medicos.get(0);
+        GradeHorarios grade = GradeHorariosService.getInstance().getGrade(medico);
+        if (grade.getTamanho() == 0) {
+            System.out.println("✗ O médico " + medico.getCrm() + " não tem horários na grade.");
+            return;
+        }
+
+        LocalDate diaServico = proximoDiaDeAtendimento(grade, LocalDate.now().plusYears(1));
+        LocalDate diaDireto = proximoDiaDeAtendimento(grade, diaServico.plusDays(1));
+        List<Consulta> criadas = Collections.synchronizedList(new ArrayList<>());
+        ConsultaDAO consultaDAO = new ConsultaDAO();
+
+        try {
+            // Fase 1: caminho normal das telas
+            AtomicInteger conflitos = new AtomicInteger();
+            long inicio = System.nanoTime();
+            executarEmParalelo(grade, diaServico, (dataHorario, paciente) -> {
+                try {
+                    criadas.add(new ConsultaService().agendarNovaConsulta(medico, paciente, dataHorario, "teste de concorrencia"));
+                } catch (HorarioIndisponivelException e) {
+                    conflitos.incrementAndGet();
+                }
+            }, pacientes);
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.printf("Servico: tentativas=%d agendadas=%d conflitos=%d tempo=%d ms%n",
+                THREADS * grade.getTamanho(), criadas.size(), conflitos.get(), ms);
+
+            // Fase 2: gravação direta, sem a trava em memória
+            int antes = criadas.size();
+            AtomicInteger rejeitadas = new AtomicInteger();
+            executarEmParalelo(grade, diaDireto, (dataHorario, paciente) -> {
+                Consulta consulta = new Consulta(medico, paciente, dataHorario);
+                try {
+                    consultaDAO.save(consulta);
+                    criadas.add(consulta);
+                } catch (SQLException e) {
+                    if (!ConsultaDAO.isHorarioDuplicado(e)) throw e;
+                    rejeitadas.incrementAndGet();
+                }
+            }, pacientes);
+            System.out.printf("Direto:  tentativas=%d gravadas=%d rejeitadas pelo indice=%d%n",
+                THREADS * grade.getTamanho(), criadas.size() - antes, rejeitadas.get());
+
+            int duplicados = contarDuplicados(consultaDAO, medico, diaServico) + contarDuplicados(consultaDAO, medico, diaDireto);
+            if (duplicados == 0 && criadas.size() <= 2 * grade.getTamanho()) {
+                System.out.println("✓ Nenhum agendamento duplicado.");
+            } else {
+                System.out.println("✗ Horários com mais de uma consulta ativa: " + duplicados);
+            }
+        } finally {
+            for (Consulta consulta : criadas) {
+                consultaDAO.delete(consulta.getId());
+            }
+            if (ResumoDiarioService.getInstance().reconstruirPeriodo(diaServico, diaDireto.plusDays(1)) < 0) {
+                System.out.println("✗ Totais diários não reconstruídos: outra estação está reconstruindo.");
+            }
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private interface Tentativa {
+        void executar(LocalDateTime dataHorario, Paciente paciente) throws Exception;
+    }
+
+    // Lógica: Todas as threads esperam a mesma largada e percorrem os horários do dia na mesma
+    // ordem, maximizando a disputa por cada horário.
+    private static void executarEmParalelo(GradeHorarios grade, LocalDate dia, Tentativa tentativa, List<Paciente> pacientes) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            Paciente paciente = pacientes.get(t % pacientes.size());
+            executor.submit(() -> {
+                largada.await();
+                for (LocalTime horario : grade.getHorarios()) {
+                    try {
+                        tentativa.executar(LocalDateTime.of(dia, horario), paciente);
+                    } catch (Exception e) {
+                        System.err.println("Erro inesperado: " + e.getMessage());
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+    }
+
+    private static int contarDuplicados(ConsultaDAO consultaDAO, Medico medico, LocalDate dia) throws SQLException {
+        Map<LocalDateTime, Integer> porHorario = new HashMap<>();
+        for (LocalDateTime ocupado : consultaDAO.findHorariosOcupados(medico.getCrm(), dia.atStartOfDay(), dia.plusDays(1).atStartOfDay())) {
+            porHorario.merge(ocupado, 1, Integer::sum);
+        }
+        int duplicados = 0;
+        for (int quantidade : porHorario.values()) {
+            if (quantidade > 1) duplicados++;
+        }
+        return duplicados;
+    }
+
+    private static LocalDate proximoDiaDeAtendimento(GradeHorarios grade, LocalDate apartirDe) {
+        LocalDate dia = apartirDe;
+        for (int i = 0; i < 7 && !grade.atendeNo(dia.getDayOfWeek()); i++) {
+            dia = dia.plusDays(1);
+        }
+        return dia;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.clinica.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza nomes para busca: sem acentos, em minúsculas e com espaços simples.
+ * É a forma gravada em 'pacientes.nome_normalizado' e 'medicos.nome_normalizado', então
+ * "JOSÉ  da Silva" e "jose da silva" encontram o mesmo registro pelo índice.
+ */
+public class NormalizadorTexto {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    public static String normalizar(String texto) {
+        if (texto == null) return null;
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.clinica.view;
+
+import javax.swing.JComponent;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Executa as chamadas a DAOs e serviços de uma tela fora da thread do Swing (EDT) e entrega o
+ * resultado de volta a ela.
+ * Cada carregamento pertence a um canal (ex.: "semana", "pagina"). Em um canal roda no máximo um
+ * carregamento por vez; pedidos que chegam enquanto ele roda substituem uns aos outros e só o
+ * último é executado em seguida. O resultado de um carregamento que já foi superado por um pedido
+ * mais novo é descartado, então navegar rápido (ex.: semanas da agenda) não dispara uma consulta
+ * por clique nem exibe dados fora de ordem.
+ * Gravações usam executar(), que nunca descarta nem substitui pedidos.
+ * Enquanto houver trabalho pendente a janela mostra o cursor de espera e o indicador (se houver)
+ * fica visível. Ao fechar a janela, os resultados pendentes são ignorados.
+ * Todos os métodos devem ser chamados na thread do Swing.
+ * Interage com as classes: SwingWorker e as telas do pacote view.
+ */
+public final class CarregadorAssincrono {
+
+    /** Trabalho executado em segundo plano. */
+    public interface Tarefa<T> {
+        T executar() throws Exception;
+    }
+
+    private final Component tela;
+    private final Map<String, Canal> canais = new HashMap<>();
+    private JComponent indicador;
+    private int emAndamento;
+    private boolean encerrado;
+
+    /**
+     * @param tela A janela (ou componente dentro dela) dona dos carregamentos.
+     */
+    public CarregadorAssincrono(Component tela) {
+        this.tela = tela;
+        Window janela = tela instanceof Window ? (Window) tela : SwingUtilities.getWindowAncestor(tela);
+        if (janela != null) {
+            janela.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    encerrar();
+                }
+            });
+        }
+    }
+
+    /**
+     * Define um componente (ex.: JProgressBar indeterminada) exibido apenas durante os carregamentos.
+     */
+    public void setIndicador(JComponent indicador) {
+        this.indicador = indicador;
+        indicador.setVisible(emAndamento > 0);
+    }
+
+    /**
+     * Carrega dados no canal informado; erros são exibidos em uma mensagem padrão.
+     */
+    public <T> void carregar(String canal, Tarefa<T> tarefa, Consumer<T> aoConcluir) {
+        carregar(canal, tarefa, aoConcluir, this::mostrarErro);
+    }
+
+    /**
+     * Carrega dados no canal informado. Se já houver um carregamento no canal, este pedido fica
+     * aguardando e substitui qualquer outro que estivesse aguardando.
+     * @param aoConcluir Recebe o resultado na thread do Swing, se este ainda for o pedido mais recente do canal.
+     * @param aoFalhar Recebe a exceção na thread do Swing, nas mesmas condições.
+     */
+    public <T> void carregar(String canal, Tarefa<T> tarefa, Consumer<T> aoConcluir, Consumer<Exception> aoFalhar) {
+        Canal c = canais.computeIfAbsent(canal, nome -> new Canal());
+        Pedido<T> pedido = new Pedido<>(c, tarefa, aoConcluir, aoFalhar);
+        if (c.emExecucao == null) {
+            iniciar(pedido);
+        } else {
+            c.aguardando = pedido;
+        }
+    }
+
+    /**
+     * Executa uma gravação em segundo plano, sem coalescer com outros pedidos.
+     */
+    public <T> void executar(Tarefa<T> tarefa, Consumer<T> aoConcluir, Consumer<Exception> aoFalhar) {
+        iniciar(new Pedido<>(null, tarefa, aoConcluir, aoFalhar));
+    }
+
+    /**
+     * @return true se o canal tem um carregamento em execução ou aguardando.
+     */
+    public boolean estaCarregando(String canal) {
+        Canal c = canais.get(canal);
+        return c != null && (c.emExecucao != null || c.aguardando != null);
+    }
+
+    /**
+     * Descarta o pedido que aguarda no canal e faz com que o resultado do que está em execução seja ignorado.
+     */
+    public void cancelar(String canal) {
+        Canal c = canais.get(canal);
+        if (c == null) return;
+        c.aguardando = null;
+        if (c.emExecucao != null) {
+            c.emExecucao.descartado = true;
+        }
+    }
+
+    private void encerrar() {
+        encerrado = true;
+        for (Canal c : canais.values()) {
+            c.aguardando = null;
+        }
+    }
+
+    private <T> void iniciar(Pedido<T> pedido) {
+        if (pedido.canal != null) {
+            pedido.canal.emExecucao = pedido;
+        }
+        alterarAndamento(1);
+        pedido.worker.execute();
+    }
+
+    // Lógica: Roda na EDT quando um carregamento termina. O resultado só é entregue se nenhum pedido
+    // mais novo chegou ao canal; em seguida o pedido que aguardava (se houver) é iniciado.
+    private <T> void concluir(Pedido<T> pedido) {
+        alterarAndamento(-1);
+        Canal c = pedido.canal;
+        boolean superado = pedido.descartado || encerrado || (c != null && c.aguardando != null);
+        if (c != null) {
+            c.emExecucao = null;
+            if (c.aguardando != null && !encerrado) {
+                Pedido<?> proximo = c.aguardando;
+                c.aguardando = null;
+                iniciar(proximo);
+            }
+        }
+        if (superado) return;
+
+        try {
+            pedido.aoConcluir.accept(pedido.worker.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            pedido.aoFalhar.accept(causa instanceof Exception ? (Exception) causa : new RuntimeException(causa));
+        }
+    }
+
+    private void alterarAndamento(int variacao) {
+        emAndamento += variacao;
+        boolean ocupado = emAndamento > 0;
+        tela.setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        if (indicador != null) {
+            indicador.setVisible(ocupado);
+        }
+    }
+
+    private void mostrarErro(Exception e) {
+        System.err.println("Erro ao carregar dados: " + e.getMessage());
+        JOptionPane.showMessageDialog(tela, "Erro ao carregar dados: " + e.getMessage(), "Erro de Carregamento", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static final class Canal {
+        Pedido<?> emExecucao;
+        Pedido<?> aguardando;
+    }
+
+    private final class Pedido<T> {
+        final Canal canal;
+        final Consumer<T> aoConcluir;
+        final Consumer<Exception> aoFalhar;
+        final SwingWorker<T, Void> worker;
+        boolean descartado;
+
+        Pedido(Canal canal, Tarefa<T> tarefa, Consumer<T> aoConcluir, Consumer<Exception> aoFalhar) {
+            this.canal = canal;
+            this.aoConcluir = aoConcluir;
+            this.aoFalhar = aoFalhar;
+            this.worker = new SwingWorker<T, Void>() {
+                @Override
+                protected T doInBackground() throws Exception {
+                    return tarefa.executar();
+                }
+
+                @Override
+                protected void done() {
+                    concluir(Pedido.this);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.clinica.view;
+
+import br.com.clinica.model.LinhaConsulta;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Modelo da grade semanal da TelaAgendaCalendario: uma linha por horário da grade e uma coluna
+ * por dia (coluna 0 = horário, 1 = segunda ... 7 = domingo).
+ * Cada célula de dia é um slot de um vetor (linha * 7 + coluna - 1) que guarda a consulta, o texto
+ * exibido e a dica; tudo é montado ao trocar de semana, de modo que pintar ou rolar a grade só lê
+ * vetores, sem montar chaves nem Strings.
+ * As colunas nunca mudam: trocar de semana não recria o modelo de colunas nem os renderizadores.
+ * Com os mesmos horários, apenas as células que mudaram são avisadas à tabela.
+ * Interage com as classes: LinhaConsulta, TelaAgendaCalendario.
+ */
+public class ModeloGradeAgenda extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUNAS = {"Horário", "Seg", "Ter", "Qua", "Qui", "Sex", "Sáb", "Dom"};
+    private static final int DIAS = 7;
+
+    private LocalTime[] horarios = new LocalTime[0];
+    private String[] rotulosHorario = new String[0];
+    private LinhaConsulta[] consultas = new LinhaConsulta[0];
+    private String[] textos = new String[0];
+    private String[] dicas = new String[0];
+
+    /**
+     * Exibe uma semana. Consultas fora de [inicioSemana, inicioSemana + 7 dias) ou em horários
+     * que não estão em 'novosHorarios' são ignoradas.
+     * @param novosHorarios Os horários das linhas, em ordem crescente; não é copiado nem alterado.
+     */
+    public void exibirSemana(LocalTime[] novosHorarios, List<LinhaConsulta> consultasSemana, LocalDateTime inicioSemana) {
+        int slots = novosHorarios.length * DIAS;
+        LinhaConsulta[] novasConsultas = new LinhaConsulta[slots];
+        String[] novosTextos = new String[slots];
+        String[] novasDicas = new String[slots];
+        LocalDateTime fimSemana = inicioSemana.plusDays(DIAS);
+
+        // Lógica: A linha vem da busca binária no horário e a coluna do dia da semana (segunda = 1).
+        for (LinhaConsulta c : consultasSemana) {
+            LocalDateTime dataHorario = c.getDataHorario();
+            if (dataHorario.isBefore(inicioSemana) || !dataHorario.isBefore(fimSemana)) continue;
+
+            int linha = Arrays.binarySearch(novosHorarios, dataHorario.toLocalTime().withSecond(0).withNano(0));
+            if (linha < 0) continue;
+
+            int slot = linha * DIAS + dataHorario.getDayOfWeek().getValue() - 1;
+            novasConsultas[slot] = c;
+            novosTextos[slot] = String.format("[%s] %s", c.getStatus().getSigla(), c.getNomePaciente());
+            novasDicas[slot] = String.format("<html><b>Paciente:</b> %s<br><b>Médico:</b> %s<br><b>Status:</b> %s<br><i>Clique direito para opções</i></html>",
+                c.getNomePaciente(),
+                c.getNomeMedico(),
+                c.getStatus().getDescricao());
+        }
+
+        boolean mesmasLinhas = Arrays.equals(horarios, novosHorarios);
+        String[] textosAnteriores = textos;
+        LinhaConsulta[] consultasAnteriores = consultas;
+
+        if (!mesmasLinhas) {
+            rotulosHorario = new String[novosHorarios.length];
+            for (int i = 0; i < novosHorarios.length; i++) {
+                rotulosHorario[i] = String.format("%02d:%02d", novosHorarios[i].getHour(), novosHorarios[i].getMinute());
+            }
+        }
+        horarios = novosHorarios;
+        consultas = novasConsultas;
+        textos = novosTextos;
+        dicas = novasDicas;
+
+        if (!mesmasLinhas) {
+            fireTableDataChanged();
+            return;
+        }
+        // Mesmas linhas: avisa só as células cujo conteúdo mudou (o texto inclui o status, que define a cor)
+        for (int slot = 0; slot < slots; slot++) {
+            LinhaConsulta anterior = consultasAnteriores[slot];
+            LinhaConsulta nova = novasConsultas[slot];
+            boolean outraConsulta = anterior == null ? nova != null : nova == null || anterior.getId() != nova.getId();
+            if (outraConsulta || !Objects.equals(textosAnteriores[slot], novosTextos[slot])) {
+                fireTableCellUpdated(slot / DIAS, slot % DIAS + 1);
+            }
+        }
+    }
+
+    /**
+     * @return A consulta exibida na célula, ou null se a célula estiver vazia ou for da coluna de horário.
+     */
+    public LinhaConsulta getConsulta(int linha, int coluna) {
+        if (coluna < 1 || linha < 0 || linha >= horarios.length) return null;
+        return consultas[linha * DIAS + coluna - 1];
+    }
+
+    /**
+     * @return A dica da célula, ou null se ela estiver vazia.
+     */
+    public String getDica(int linha, int coluna) {
+        if (coluna < 1 || linha < 0 || linha >= horarios.length) return null;
+        return dicas[linha * DIAS + coluna - 1];
+    }
+
+    /**
+     * @return O horário da linha.
+     */
+    public LocalTime getHorario(int linha) {
+        return horarios[linha];
+    }
+
+    @Override
+    public int getRowCount() {
+        return horarios.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        return coluna == 0 ? rotulosHorario[linha] : textos[linha * DIAS + coluna - 1];
+    }
+
+    @Override
+    public boolean isCellEditable(int linha, int coluna) {
+        return false;
+    }
+}
@@ -0,0 +1,243 @@
+package br.com.clinica.view;
+
+import br.com.clinica.dao.ConsultaDAO;
+import br.com.clinica.model.Consulta;
+import br.com.clinica.model.LinhaConsulta;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Modelo virtual da tabela da TelaGerenciarConsultas: informa à JTable o total de consultas, mas só
+ * mantém em memória os blocos de TAMANHO_BLOCO linhas que foram exibidos recentemente (no máximo
+ * MAX_BLOCOS, descartando os menos usados). Cada linha é uma LinhaConsulta (projeção leve, sem os
+ * objetos Medico e Paciente); a consulta completa só é lida ao selecionar a linha.
+ * Quando a tabela pinta uma linha de um bloco ausente, o bloco é pedido ao ConsultaDAO em segundo
+ * plano (a linha mostra "Carregando..." até ele chegar), junto com os blocos vizinhos (MARGEM_BLOCOS),
+ * para que a rolagem normal encontre as linhas já carregadas. Um bloco logo após outro já carregado
+ * é lido por paginação keyset (findPagina). Um salto direto parte do marco do bloco
+ * (findPaginaNoMarco): no primeiro salto de cada recarga são lidas as chaves do início de cada
+ * bloco (findMarcos), e a partir daí nem saltos nem a localização de uma consulta percorrem as
+ * linhas anteriores.
+ * Todos os métodos devem ser chamados na thread do Swing.
+ * Interage com as classes: ConsultaDAO, LinhaConsulta, CarregadorAssincrono, TelaGerenciarConsultas.
+ */
+public class ModeloTabelaConsultas extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUNAS = {"ID", "Data/Hora", "Médico", "Paciente", "Status", "Observações"};
+    private static final int TAMANHO_BLOCO = 100;
+    private static final int MAX_BLOCOS = 20;
+    private static final int MARGEM_BLOCOS = 1;
+    private static final String CARREGANDO = "Carregando...";
+
+    private final ConsultaDAO consultaDAO;
+    private final CarregadorAssincrono carregador;
+    private final Map<Integer, Bloco> blocos;
+    private final Set<Integer> pedidos = new HashSet<>();
+    private int total;
+
+    // Incrementada a cada recarga; blocos lidos antes dela são descartados ao chegar
+    private int geracao;
+
+    // Marcos de início de bloco (ConsultaDAO.findMarcos) e a geração em que foram lidos; acessados
+    // pelas tarefas em segundo plano, sempre sob travaMarcos
+    private final Object travaMarcos = new Object();
+    private List<ConsultaDAO.Marco> marcos;
+    private int geracaoMarcos = -1;
+
+    public ModeloTabelaConsultas(ConsultaDAO consultaDAO, CarregadorAssincrono carregador) {
+        this.consultaDAO = consultaDAO;
+        this.carregador = carregador;
+        this.blocos = new LinkedHashMap<Integer, Bloco>(32, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Bloco> eldest) {
+                return size() > MAX_BLOCOS;
+            }
+        };
+    }
+
+    /**
+     * Descarta os blocos em memória e relê o total de consultas; o primeiro bloco é pedido em paralelo.
+     * @param aoConcluir Executado quando o novo total já estiver na tabela (pode ser null).
+     */
+    public void recarregar(Runnable aoConcluir) {
+        geracao++;
+        blocos.clear();
+        pedidos.clear();
+        pedirBloco(0);
+        carregador.carregar("total", consultaDAO::contarTodas, novoTotal -> {
+            total = novoTotal;
+            fireTableDataChanged();
+            if (aoConcluir != null) aoConcluir.run();
+        });
+    }
+
+    /**
+     * Procura a posição de uma consulta na lista em segundo plano, a partir dos marcos de bloco.
+     * @param aoEncontrar Recebe a posição (a partir de 0), ou -1 se a consulta não está na lista.
+     */
+    public void localizar(Long id, Consumer<Integer> aoEncontrar) {
+        int geracaoPedido = geracao;
+        carregador.carregar("localizar",
+            () -> consultaDAO.findPosicao(id, marcos(geracaoPedido), TAMANHO_BLOCO), aoEncontrar);
+    }
+
+    /**
+     * Substitui a linha de uma consulta já carregada (ex.: após mudar o status), sem recarregar a lista.
+     * A posição não muda, pois a ordenação depende apenas de data/hora e ID.
+     */
+    public void atualizarConsulta(Consulta consulta) {
+        for (Map.Entry<Integer, Bloco> entrada : blocos.entrySet()) {
+            Bloco bloco = entrada.getValue();
+            for (int i = 0; i < bloco.consultas.length; i++) {
+                if (bloco.consultas[i].getId() == consulta.getId()) {
+                    bloco.consultas[i] = LinhaConsulta.de(consulta);
+                    bloco.linhas[i] = linhaDe(bloco.consultas[i]);
+                    int linha = entrada.getKey() * TAMANHO_BLOCO + i;
+                    fireTableRowsUpdated(linha, linha);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return O ID da consulta na linha, ou null se o bloco dela ainda não foi carregado.
+     */
+    public Long getId(int linha) {
+        return (Long) getValueAt(linha, 0);
+    }
+
+    @Override
+    public int getRowCount() {
+        return total;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return coluna == 0 ? Long.class : String.class;
+    }
+
+    // Lógica: Chamado pela JTable ao pintar; um bloco ausente é pedido e a célula mostra um
+    // marcador. A primeira coluna de cada linha também garante a leitura antecipada dos vizinhos.
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        int indice = linha / TAMANHO_BLOCO;
+        Bloco bloco = blocos.get(indice);
+        if (coluna == 0) {
+            for (int vizinho = indice - MARGEM_BLOCOS; vizinho <= indice + MARGEM_BLOCOS; vizinho++) {
+                if (vizinho != indice) pedirSeAusente(vizinho);
+            }
+        }
+        if (bloco == null) {
+            pedirSeAusente(indice);
+            return coluna == 1 ? CARREGANDO : null;
+        }
+        int posicao = linha % TAMANHO_BLOCO;
+        // Consultas removidas por outra estação podem encurtar o bloco até a próxima recarga
+        return posicao < bloco.linhas.length ? bloco.linhas[posicao][coluna] : null;
+    }
+
+    @Override
+    public boolean isCellEditable(int linha, int coluna) {
+        return false;
+    }
+
+    private void pedirSeAusente(int indice) {
+        if (indice < 0 || (indice > 0 && indice * TAMANHO_BLOCO >= total)) return;
+        if (!blocos.containsKey(indice) && !pedidos.contains(indice)) {
+            pedirBloco(indice);
+        }
+    }
+
+    private void pedirBloco(int indice) {
+        pedidos.add(indice);
+        Bloco anterior = indice > 0 ? blocos.get(indice - 1) : null;
+        LinhaConsulta ultimaAnterior = anterior != null && anterior.consultas.length == TAMANHO_BLOCO
+            ? anterior.consultas[TAMANHO_BLOCO - 1] : null;
+        int geracaoPedido = geracao;
+
+        carregador.carregar("bloco-" + indice, () -> {
+            if (indice == 0 || ultimaAnterior != null) {
+                return new Bloco(consultaDAO.findPagina(ultimaAnterior, TAMANHO_BLOCO));
+            }
+            List<ConsultaDAO.Marco> marcosBloco = marcos(geracaoPedido);
+            return new Bloco(indice < marcosBloco.size()
+                ? consultaDAO.findPaginaNoMarco(marcosBloco.get(indice), TAMANHO_BLOCO)
+                : Collections.emptyList());
+        }, bloco -> {
+            if (geracaoPedido != geracao) return;
+            pedidos.remove(indice);
+            blocos.put(indice, bloco);
+            int primeira = indice * TAMANHO_BLOCO;
+            int ultima = Math.min(total, primeira + TAMANHO_BLOCO) - 1;
+            if (ultima >= primeira) {
+                fireTableRowsUpdated(primeira, ultima);
+            }
+        }, e -> {
+            if (geracaoPedido != geracao) return;
+            pedidos.remove(indice);
+            System.err.println("Erro ao carregar consultas a partir da linha " + indice * TAMANHO_BLOCO + ": " + e.getMessage());
+        });
+    }
+
+    // Lógica: Chamado em segundo plano. Os marcos são lidos uma vez por geração, no primeiro salto;
+    // pedidos de uma geração já superada reaproveitam os atuais, pois o resultado deles é descartado.
+    private List<ConsultaDAO.Marco> marcos(int geracaoPedido) throws SQLException {
+        synchronized (travaMarcos) {
+            if (marcos == null || geracaoPedido > geracaoMarcos) {
+                marcos = consultaDAO.findMarcos(TAMANHO_BLOCO);
+                geracaoMarcos = geracaoPedido;
+            }
+            return marcos;
+        }
+    }
+
+    private static Object[] linhaDe(LinhaConsulta consulta) {
+        String observacoes = consulta.getObservacoes();
+        if (observacoes != null && observacoes.length() > 50) {
+            observacoes = observacoes.substring(0, 47) + "...";
+        }
+        return new Object[]{
+            consulta.getId(),
+            consulta.getDataHorarioFormatado(),
+            consulta.getNomeMedico(),
+            consulta.getNomePaciente(),
+            consulta.getStatus().getDescricao(),
+            observacoes != null ? observacoes : ""
+        };
+    }
+
+    /** Consultas de um bloco e suas linhas já formatadas (montadas em segundo plano). */
+    private static final class Bloco {
+        final LinhaConsulta[] consultas;
+        final Object[][] linhas;
+
+        Bloco(List<LinhaConsulta> lidas) {
+            this.consultas = lidas.toArray(new LinhaConsulta[0]);
+            this.linhas = new Object[consultas.length][];
+            for (int i = 0; i < consultas.length; i++) {
+                linhas[i] = linhaDe(consultas[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.clinica.view;
+
+import br.com.clinica.service.ColunaRelatorio;
+import br.com.clinica.service.ReceptorRelatorio;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Modelo de tabela da TelaRelatorios, alimentado diretamente pelo RelatorioService.
+ * O relatório roda fora da thread do Swing: as linhas recebidas são acumuladas em blocos de
+ * TAMANHO_BLOCO e repassadas à tabela com invokeLater, de modo que as primeiras linhas aparecem
+ * enquanto o restante ainda está sendo lido do banco.
+ * Interage com as classes: ReceptorRelatorio, ColunaRelatorio, TelaRelatorios.
+ */
+public class ModeloTabelaRelatorio extends AbstractTableModel implements ReceptorRelatorio {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int TAMANHO_BLOCO = 200;
+
+    // Estado lido pela JTable: só é alterado na thread do Swing
+    private List<ColunaRelatorio> colunas = List.of();
+    private final List<Object[]> linhas = new ArrayList<>();
+
+    // Bloco em montagem na thread do relatório
+    private List<Object[]> pendentes = new ArrayList<>(TAMANHO_BLOCO);
+
+    private final Runnable aoDefinirColunas;
+    private final Consumer<String> aoConcluir;
+
+    /**
+     * @param aoDefinirColunas Executado na thread do Swing logo após as colunas serem criadas na tabela.
+     * @param aoConcluir Recebe o resumo na thread do Swing, depois da última linha.
+     */
+    public ModeloTabelaRelatorio(Runnable aoDefinirColunas, Consumer<String> aoConcluir) {
+        this.aoDefinirColunas = aoDefinirColunas;
+        this.aoConcluir = aoConcluir;
+    }
+
+    // Lógica: Espera a tabela recriar as colunas antes de liberar a primeira linha, para que
+    // nenhum bloco chegue com a estrutura antiga.
+    @Override
+    public void iniciar(List<ColunaRelatorio> novasColunas) {
+        executarNoSwing(() -> {
+            colunas = List.copyOf(novasColunas);
+            linhas.clear();
+            fireTableStructureChanged();
+            aoDefinirColunas.run();
+        });
+    }
+
+    @Override
+    public void adicionarLinha(Object[] valores) {
+        pendentes.add(valores);
+        if (pendentes.size() >= TAMANHO_BLOCO) {
+            enviarPendentes();
+        }
+    }
+
+    @Override
+    public void concluir(String resumo) {
+        enviarPendentes();
+        SwingUtilities.invokeLater(() -> aoConcluir.accept(resumo));
+    }
+
+    private void enviarPendentes() {
+        if (pendentes.isEmpty()) return;
+        List<Object[]> bloco = pendentes;
+        pendentes = new ArrayList<>(TAMANHO_BLOCO);
+        SwingUtilities.invokeLater(() -> {
+            int primeira = linhas.size();
+            linhas.addAll(bloco);
+            fireTableRowsInserted(primeira, linhas.size() - 1);
+        });
+    }
+
+    private static void executarNoSwing(Runnable tarefa) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            tarefa.run();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(tarefa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            System.err.println("Erro ao preparar a tabela do relatório: " + e.getCause().getMessage());
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return linhas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return colunas.size();
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return colunas.get(coluna).getNome();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return colunas.get(coluna).getTipo();
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        return linhas.get(linha)[coluna];
+    }
+
+    @Override
+    public boolean isCellEditable(int linha, int coluna) {
+        return false;
+    }
+}
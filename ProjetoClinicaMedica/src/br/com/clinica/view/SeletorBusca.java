@@ -0,0 +1,280 @@
+package br.com.clinica.view;
+
+import br.com.clinica.service.IndiceNomes;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Campo de seleção com busca incremental (type-ahead), usado no lugar de um JComboBox com todos os
+ * cadastros. A cada tecla o texto é procurado no IndiceNomes e os MAX_SUGESTOES melhores resultados
+ * aparecem em uma lista abaixo do campo; setas escolhem, Enter (ou clique) seleciona e Esc fecha.
+ * Enquanto o índice não foi montado, o campo fica desabilitado.
+ * Opcionalmente, quando o índice traz menos de MIN_SUGESTOES_INDICE sugestões, uma busca
+ * complementar (ex.: no banco) roda em segundo plano e acrescenta os registros que faltam à lista,
+ * como cadastros feitos em outra estação depois da montagem do índice.
+ * Todos os métodos devem ser chamados na thread do Swing.
+ * Interage com as classes: IndiceNomes, CarregadorAssincrono, TelaNovoAgendamento.
+ */
+public class SeletorBusca<T> extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_SUGESTOES = 15;
+    // Abaixo disso a busca complementar é consultada, a partir de MIN_TERMO_COMPLEMENTAR caracteres
+    private static final int MIN_SUGESTOES_INDICE = 5;
+    private static final int MIN_TERMO_COMPLEMENTAR = 3;
+
+    /** Busca fora do índice, executada fora da thread do Swing. */
+    public interface BuscaComplementar<T> {
+        List<T> buscar(String termo, int limite) throws Exception;
+    }
+
+    private final JTextField txtBusca = new JTextField();
+    private final DefaultListModel<T> sugestoes = new DefaultListModel<>();
+    private final JList<T> lstSugestoes = new JList<>(sugestoes);
+    private final JPopupMenu popup = new JPopupMenu();
+    private IndiceNomes<T> indice;
+    private T selecionado;
+    private Consumer<T> aoSelecionar;
+    private CarregadorAssincrono carregador;
+    private String canal;
+    private BuscaComplementar<T> buscaComplementar;
+    private Function<T, String> chaveDe;
+
+    // Evita tratar como digitação o texto escrito pelo próprio seletor ao selecionar
+    private boolean atualizandoTexto;
+
+    public SeletorBusca() {
+        super(new BorderLayout());
+        setOpaque(false);
+        add(txtBusca, BorderLayout.CENTER);
+        txtBusca.setEnabled(false);
+        txtBusca.setToolTipText("Digite parte do nome ou do documento");
+
+        lstSugestoes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lstSugestoes.setFocusable(false);
+        JScrollPane rolagem = new JScrollPane(lstSugestoes);
+        rolagem.setBorder(null);
+        popup.setFocusable(false);
+        popup.add(rolagem);
+
+        txtBusca.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textoAlterado(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { textoAlterado(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { textoAlterado(); }
+        });
+        txtBusca.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                teclaPressionada(e);
+            }
+        });
+        txtBusca.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+        lstSugestoes.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int linha = lstSugestoes.locationToIndex(e.getPoint());
+                if (linha >= 0) selecionar(sugestoes.get(linha));
+            }
+        });
+    }
+
+    /**
+     * Define o índice pesquisado e habilita o campo.
+     */
+    public void setIndice(IndiceNomes<T> indice) {
+        this.indice = indice;
+        txtBusca.setEnabled(indice != null);
+    }
+
+    /**
+     * Define a busca usada quando o índice traz poucas sugestões.
+     * @param carregador O carregador da tela, que executa a busca em segundo plano.
+     * @param canal Canal do carregador reservado a este seletor.
+     * @param chaveDe Extrai a chave (ex.: CPF) usada para não repetir registros já sugeridos pelo índice.
+     */
+    public void setBuscaComplementar(CarregadorAssincrono carregador, String canal, BuscaComplementar<T> busca,
+                                     Function<T, String> chaveDe) {
+        this.carregador = carregador;
+        this.canal = canal;
+        this.buscaComplementar = busca;
+        this.chaveDe = chaveDe;
+    }
+
+    /**
+     * @param aoSelecionar Chamado ao selecionar um registro e ao desfazer a seleção (com null).
+     */
+    public void setAoSelecionar(Consumer<T> aoSelecionar) {
+        this.aoSelecionar = aoSelecionar;
+    }
+
+    /**
+     * @return O registro selecionado, ou null se o texto digitado não corresponder a uma seleção.
+     */
+    public T getSelecionado() {
+        return selecionado;
+    }
+
+    /**
+     * Seleciona o registro e exibe-o no campo (null limpa o campo).
+     */
+    public void setSelecionado(T registro) {
+        atualizandoTexto = true;
+        try {
+            txtBusca.setText(registro != null ? registro.toString() : "");
+        } finally {
+            atualizandoTexto = false;
+        }
+        popup.setVisible(false);
+        alterarSelecao(registro);
+    }
+
+    /**
+     * Limpa o texto e a seleção.
+     */
+    public void limpar() {
+        setSelecionado(null);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        if (txtBusca != null) {
+            txtBusca.setFont(font);
+            lstSugestoes.setFont(font);
+        }
+    }
+
+    // Lógica: Qualquer digitação desfaz a seleção anterior; a busca no índice roda na própria
+    // thread do Swing, pois responde em memória; só a complementar vai ao banco, em segundo plano.
+    private void textoAlterado() {
+        if (atualizandoTexto) return;
+        alterarSelecao(null);
+
+        String termo = txtBusca.getText().trim();
+        if (indice == null || termo.isEmpty()) {
+            sugestoes.clear();
+            popup.setVisible(false);
+            if (buscaComplementar != null) carregador.cancelar(canal);
+            return;
+        }
+        List<T> encontrados = indice.buscar(termo, MAX_SUGESTOES);
+        mostrarSugestoes(encontrados);
+
+        if (buscaComplementar == null) return;
+        if (encontrados.size() < MIN_SUGESTOES_INDICE && termo.length() >= MIN_TERMO_COMPLEMENTAR) {
+            carregador.carregar(canal, () -> buscaComplementar.buscar(termo, MAX_SUGESTOES),
+                extras -> complementar(termo, extras),
+                e -> System.err.println("Erro na busca complementar: " + e.getMessage()));
+        } else {
+            carregador.cancelar(canal);
+        }
+    }
+
+    // Lógica: Só acrescenta se o texto ainda for o pesquisado e nada tiver sido selecionado;
+    // as sugestões do índice ficam na frente, seguidas dos registros que só o banco conhecia.
+    private void complementar(String termo, List<T> extras) {
+        if (selecionado != null || !termo.equals(txtBusca.getText().trim())) return;
+        List<T> todos = new ArrayList<>();
+        Set<String> chaves = new HashSet<>();
+        for (int i = 0; i < sugestoes.size(); i++) {
+            todos.add(sugestoes.get(i));
+            chaves.add(chaveDe.apply(sugestoes.get(i)));
+        }
+        int antes = todos.size();
+        for (T registro : extras) {
+            if (todos.size() >= MAX_SUGESTOES) break;
+            if (chaves.add(chaveDe.apply(registro))) todos.add(registro);
+        }
+        if (todos.size() > antes) mostrarSugestoes(todos);
+    }
+
+    private void mostrarSugestoes(List<T> encontrados) {
+        sugestoes.clear();
+        for (T registro : encontrados) {
+            sugestoes.addElement(registro);
+        }
+        if (encontrados.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        lstSugestoes.setSelectedIndex(0);
+        lstSugestoes.setVisibleRowCount(Math.min(encontrados.size(), 8));
+        popup.setPopupSize(new Dimension(txtBusca.getWidth(), popup.getPreferredSize().height));
+        if (txtBusca.isShowing()) {
+            popup.show(txtBusca, 0, txtBusca.getHeight());
+            txtBusca.requestFocusInWindow();
+        }
+    }
+
+    private void teclaPressionada(KeyEvent e) {
+        if (!popup.isVisible()) return;
+        int atual = lstSugestoes.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                moverSugestao(Math.min(atual + 1, sugestoes.size() - 1));
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                moverSugestao(Math.max(atual - 1, 0));
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (atual >= 0) selecionar(sugestoes.get(atual));
+                e.consume();
+                break;
+            case KeyEvent.VK_ESCAPE:
+                popup.setVisible(false);
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void moverSugestao(int linha) {
+        lstSugestoes.setSelectedIndex(linha);
+        lstSugestoes.ensureIndexIsVisible(linha);
+    }
+
+    private void selecionar(T registro) {
+        setSelecionado(registro);
+        txtBusca.requestFocusInWindow();
+    }
+
+    private void alterarSelecao(T registro) {
+        if (selecionado == registro) return;
+        selecionado = registro;
+        if (aoSelecionar != null) aoSelecionar.accept(registro);
+    }
+}
@@ -4,15 +4,17 @@ import br.com.clinica.dao.ConsultaDAO;
 import br.com.clinica.dao.MedicoDAO;
 import br.com.clinica.dao.PacienteDAO;
 import br.com.clinica.model.Consulta;
+import br.com.clinica.model.LinhaConsulta;
 import br.com.clinica.model.Medico;
 import br.com.clinica.model.Paciente;
 import br.com.clinica.service.ConsultaService;
+import br.com.clinica.service.AgendaSemanalService;
+import br.com.clinica.service.SemanaAgenda;
 import br.com.clinica.util.UITheme;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -20,11 +22,12 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Exibe a agenda de consultas em um formato de calendário visual semanal.
@@ -44,14 +47,18 @@ import java.util.stream.Collectors;
  * Lambdas substituem classes anônimas para interfaces funcionais (como ActionListener),
  * tornando o código mais legível e reduzindo significativamente a verbosidade.
  * 
- * Interage com as classes: ConsultaService, MedicoDAO, PacienteDAO, UITheme.
+ * As linhas da grade vêm das grades de horários dos médicos (GradeHorariosService), e não de
+ * um intervalo fixo: com filtro por médico, a grade dele; caso contrário, a união das grades.
+ * Cada semana é lida e guardada pelo AgendaSemanalService, que também pré-carrega as vizinhas.
+ * 
+ * Interage com as classes: ConsultaService, AgendaSemanalService, SemanaAgenda, ModeloGradeAgenda, MedicoDAO, PacienteDAO, UITheme.
  */
 public class TelaAgendaCalendario extends JFrame implements UITheme {
     
     private static final long serialVersionUID = 1L;
     
     private JTable tabelaAgenda; 
-    private DefaultTableModel modeloTabela;
+    private ModeloGradeAgenda modeloGrade;
     private JLabel lblMesAno;
     private JLabel lblDataAtual; // Nova variável para o display de data elegante
     private JPanel diasPanel;
@@ -60,24 +67,26 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
     private JComboBox<Object> cbFiltroItem;
     private JLabel lblSemanaAtual;
     
-    private ConsultaDAO consultaDAO;
     private MedicoDAO medicoDAO; 
     private PacienteDAO pacienteDAO; 
+    private ConsultaDAO consultaDAO;
     private ConsultaService consultaService;
+    private AgendaSemanalService agendaService;
     
     private Calendar calendarioAtual;
-    private Map<String, Consulta> mapaConsultas;
+    private CarregadorAssincrono carregador;
 
     /**
      * Construtor da tela. Inicializa as dependências e a interface.
      */
     public TelaAgendaCalendario() {
-        this.consultaDAO = new ConsultaDAO();
         this.medicoDAO = new MedicoDAO();
         this.pacienteDAO = new PacienteDAO();
+        this.consultaDAO = new ConsultaDAO();
         this.consultaService = new ConsultaService();
+        this.agendaService = AgendaSemanalService.getInstance();
         this.calendarioAtual = Calendar.getInstance();
-        this.mapaConsultas = new HashMap<>();
+        this.carregador = new CarregadorAssincrono(this);
 
         initialize(); 
         atualizarVisualizacao();
@@ -669,15 +678,9 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
      * Cria e configura a estrutura da tabela principal da agenda com cores funcionais.
      */
     private void criarTabelaAgendamento() {
-        String[] colunas = new String[8];
-        colunas[0] = "Horário";
+        modeloGrade = new ModeloGradeAgenda();
         
-        modeloTabela = new DefaultTableModel(null, colunas) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
-        
-        tabelaAgenda.setModel(modeloTabela); 
+        tabelaAgenda.setModel(modeloGrade); 
         tabelaAgenda.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         tabelaAgenda.setRowHeight(32);
         tabelaAgenda.setGridColor(new Color(220, 220, 220));
@@ -705,7 +708,7 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
         tabelaAgenda.getColumnModel().getColumn(0).setCellRenderer(new HorarioRenderer());
         
         // Renderizador para colunas de agendamento (com cores)
-        AgendamentoRenderer agendamentoRenderer = new AgendamentoRenderer();
+        AgendamentoRenderer agendamentoRenderer = new AgendamentoRenderer(modeloGrade);
         for (int i = 1; i < tabelaAgenda.getColumnCount(); i++) {
             tabelaAgenda.getColumnModel().getColumn(i).setCellRenderer(agendamentoRenderer);
         }
@@ -724,8 +727,7 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
                 
                 if (linha < 0 || coluna < 1) return;
                 
-                String chave = linha + "," + coluna;
-                Consulta consulta = mapaConsultas.get(chave);
+                LinhaConsulta consulta = modeloGrade.getConsulta(linha, coluna);
                 
                 if (consulta != null) {
                     // Menu de contexto (clique direito)
@@ -767,18 +769,18 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
      * @param e O evento de mouse.
      * @param consulta A consulta selecionada.
      */
-    private void mostrarMenuDeAcoesCompleto(MouseEvent e, Consulta consulta) {
+    private void mostrarMenuDeAcoesCompleto(MouseEvent e, LinhaConsulta consulta) {
         JPopupMenu popup = new JPopupMenu();
         popup.setBorder(BorderFactory.createLineBorder(PRIMARY_BLUE, 1));
         
         // Cabeçalho do menu com informações da consulta
-        JMenuItem cabecalho = new JMenuItem(String.format("Consulta: %s", consulta.getPaciente().getNome()));
+        JMenuItem cabecalho = new JMenuItem(String.format("Consulta: %s", consulta.getNomePaciente()));
         cabecalho.setFont(new Font("Segoe UI", Font.BOLD, 12));
         cabecalho.setForeground(PRIMARY_BLUE);
         cabecalho.setEnabled(false);
         popup.add(cabecalho);
         
-        JMenuItem infoMedico = new JMenuItem(String.format("Médico: %s", consulta.getMedico().getNome()));
+        JMenuItem infoMedico = new JMenuItem(String.format("Médico: %s", consulta.getNomeMedico()));
         infoMedico.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         infoMedico.setEnabled(false);
         popup.add(infoMedico);
@@ -841,10 +843,9 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
         JPopupMenu popup = new JPopupMenu();
         popup.setBorder(BorderFactory.createLineBorder(SUCCESS_GREEN, 1));
         
-        // Calcular horário da célula
-        int hora = 8 + (linha / 2);
-        int minuto = (linha % 2) * 30;
-        String horarioStr = String.format("%02d:%02d", hora, minuto);
+        // Horário da célula vem da grade exibida
+        LocalTime horario = modeloGrade.getHorario(linha);
+        String horarioStr = String.format("%02d:%02d", horario.getHour(), horario.getMinute());
         
         JMenuItem cabecalho = new JMenuItem(String.format("Horário: %s", horarioStr));
         cabecalho.setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -865,31 +866,51 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
     
     /**
      * Altera o status de uma consulta utilizando o ConsultaService.
-     * @param consulta A consulta a ser alterada.
+     * A grade guarda apenas a linha da consulta; a consulta completa é lida do banco na própria gravação.
+     * @param linha A consulta a ser alterada.
      * @param acao O novo status desejado.
      */
-    private void alterarStatusConsulta(Consulta consulta, StatusAcao acao) {
-        try {
-            switch (acao) {
-                case REALIZADA:
-                    String obs = JOptionPane.showInputDialog(this, "Observações da consulta:", "Consulta Realizada", JOptionPane.PLAIN_MESSAGE);
-                    if (obs != null) {
-                        consultaService.marcarComoRealizada(consulta, obs);
-                        JOptionPane.showMessageDialog(this, "Status alterado para: Realizada", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                    }
-                    break;
-                case CANCELADA:
-                    int confirm = JOptionPane.showConfirmDialog(this, "Deseja realmente cancelar esta consulta?", "Confirmar", JOptionPane.YES_NO_OPTION);
-                    if (confirm == JOptionPane.YES_OPTION) {
-                        consultaService.cancelarConsulta(consulta);
-                        JOptionPane.showMessageDialog(this, "Consulta cancelada com sucesso.", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                    }
-                    break;
-            }
+    private void alterarStatusConsulta(LinhaConsulta linha, StatusAcao acao) {
+        switch (acao) {
+            case REALIZADA:
+                String obs = JOptionPane.showInputDialog(this, "Observações da consulta:", "Consulta Realizada", JOptionPane.PLAIN_MESSAGE);
+                if (obs != null) {
+                    gravarStatus(() -> { consultaService.marcarComoRealizada(lerConsulta(linha), obs); return null; }, "Status alterado para: Realizada");
+                }
+                break;
+            case CANCELADA:
+                int confirm = JOptionPane.showConfirmDialog(this, "Deseja realmente cancelar esta consulta?", "Confirmar", JOptionPane.YES_NO_OPTION);
+                if (confirm == JOptionPane.YES_OPTION) {
+                    gravarStatus(() -> { consultaService.cancelarConsulta(lerConsulta(linha)); return null; }, "Consulta cancelada com sucesso.");
+                }
+                break;
+        }
+    }
+
+    /**
+     * Lê a consulta completa (com médico e paciente) de uma linha da grade. Roda em segundo plano.
+     */
+    private Consulta lerConsulta(LinhaConsulta linha) throws SQLException {
+        Consulta consulta = consultaDAO.findById(linha.getId());
+        if (consulta == null) {
+            throw new IllegalStateException("A consulta não existe mais.");
+        }
+        return consulta;
+    }
+
+    /**
+     * Grava a mudança de status em segundo plano e recarrega a semana ao terminar.
+     */
+    private void gravarStatus(CarregadorAssincrono.Tarefa<Void> gravacao, String mensagemSucesso) {
+        carregador.executar(gravacao, nada -> {
+            JOptionPane.showMessageDialog(this, mensagemSucesso, "Sucesso", JOptionPane.INFORMATION_MESSAGE);
             atualizarVisualizacao();
-        } catch (IllegalStateException | SQLException ex) {
+        }, ex -> {
+            // A semana guardada pode estar desatualizada (ex.: consulta alterada em outra estação)
+            agendaService.invalidarTudo();
             JOptionPane.showMessageDialog(this, "Erro ao alterar status: " + ex.getMessage(), "Erro de Operação", JOptionPane.ERROR_MESSAGE);
-        }
+            atualizarVisualizacao();
+        });
     }
     
     /**
@@ -1088,134 +1109,68 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
         String tipo = (String) cbTipoFiltro.getSelectedItem();
         cbFiltroItem.removeAllItems();
         cbFiltroItem.addItem("Selecione...");
-        try {
-            if ("Por Médico".equals(tipo)) {
-                /**
-                 * Uso de Method Reference com forEach.
-                 * 'medicoDAO.findAll().forEach(cbFiltroItem::addItem)' é equivalente a:
-                 * 'medicoDAO.findAll().forEach(medico -> cbFiltroItem.addItem(medico))'
-                 * O '::' é uma sintaxe especial para referenciar métodos existentes,
-                 * tornando o código ainda mais conciso quando a lambda apenas chama um método.
-                 */
-                medicoDAO.findAll().forEach(cbFiltroItem::addItem);
-            } else if ("Por Paciente".equals(tipo)) {
-                /**
-                 * Mesmo padrão de Method Reference para carregar pacientes.
-                 * Esta sintaxe é preferível quando a lambda faria apenas uma chamada de método.
-                 */
-                pacienteDAO.findAll().forEach(cbFiltroItem::addItem);
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar filtros: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        if (!"Por Médico".equals(tipo) && !"Por Paciente".equals(tipo)) {
+            carregador.cancelar("itensFiltro");
+            return;
         }
+
+        /**
+         * A lista é lida em segundo plano; trocar o tipo de novo antes do fim substitui o pedido.
+         * 'itens.forEach(cbFiltroItem::addItem)' é um Method Reference equivalente a
+         * 'itens.forEach(item -> cbFiltroItem.addItem(item))'.
+         */
+        carregador.carregar("itensFiltro", () -> "Por Médico".equals(tipo)
+                ? new ArrayList<Object>(medicoDAO.findAll())
+                : new ArrayList<Object>(pacienteDAO.findAll()),
+            itens -> itens.forEach(cbFiltroItem::addItem),
+            ex -> JOptionPane.showMessageDialog(this, "Erro ao carregar filtros: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE));
     }
 
     /**
      * Aplica o filtro selecionado e recarrega a grade de consultas.
      */
     private void aplicarFiltro() {
-        try {
-            List<Consulta> todasConsultas = consultaDAO.findAll();
-            
-            Object itemSelecionado = cbFiltroItem.getSelectedItem();
-            if (itemSelecionado instanceof Medico) {
-                /**
-                 * Uso de Stream API com Expressões Lambda para filtragem.
-                 * 'todasConsultas.stream().filter(c -> c.getMedico().getCrm().equals(...))'
-                 * utiliza uma lambda como Predicate para testar cada elemento.
-                 * 'c -> expressão_booleana' define a condição de filtragem, onde 'c'
-                 * representa cada consulta na lista. Apenas consultas que retornam 'true'
-                 * são mantidas no resultado final via '.collect(Collectors.toList())'.
-                 */
-                todasConsultas = todasConsultas.stream()
-                    .filter(c -> c.getMedico().getCrm().equals(((Medico)itemSelecionado).getCrm()))
-                    .collect(Collectors.toList());
-            } else if (itemSelecionado instanceof Paciente) {
-                /**
-                 * Lambda similar para filtragem por paciente.
-                 * Demonstra como a mesma estrutura de Stream + Lambda pode ser reutilizada
-                 * para diferentes critérios de filtragem, mantendo o código consistente.
-                 */
-                 todasConsultas = todasConsultas.stream()
-                    .filter(c -> c.getPaciente().getCpf().equals(((Paciente)itemSelecionado).getCpf()))
-                    .collect(Collectors.toList());
-            }
+        LocalDate segunda = calcularInicioSemana().toLocalDate();
+        Object itemSelecionado = cbFiltroItem.getSelectedItem();
+        String crmMedico = itemSelecionado instanceof Medico ? ((Medico) itemSelecionado).getCrm() : null;
+        String cpfPaciente = itemSelecionado instanceof Paciente ? ((Paciente) itemSelecionado).getCpf() : null;
 
-            popularTabela(todasConsultas);
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Erro ao aplicar filtro: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        /**
+         * Apenas a semana visível é buscada no banco, com uma consulta por período (o filtro por
+         * médico ou paciente também é resolvido no SQL). Semanas já exibidas ou pré-carregadas
+         * saem do cache do AgendaSemanalService e são exibidas na hora, sem ir ao banco.
+         * Caso contrário, a leitura roda fora da thread do Swing no canal "semana": ao navegar
+         * rápido entre semanas, só a última semana pedida é de fato carregada e exibida.
+         */
+        SemanaAgenda emCache = agendaService.obterEmCache(crmMedico, cpfPaciente, segunda);
+        if (emCache != null) {
+            carregador.cancelar("semana");
+            exibirSemana(emCache, crmMedico, cpfPaciente);
+            return;
         }
+        carregador.carregar("semana", () -> agendaService.carregar(crmMedico, cpfPaciente, segunda),
+            semana -> exibirSemana(semana, crmMedico, cpfPaciente),
+            ex -> JOptionPane.showMessageDialog(this, "Erro ao aplicar filtro: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE));
     }
 
     /**
-     * Popula a tabela principal com os dados das consultas na grade semanal.
-     * Inclui o mapeamento correto para aplicação das cores.
+     * Exibe a semana na grade e pede o pré-carregamento das semanas vizinhas com o mesmo filtro.
      */
-    private void popularTabela(List<Consulta> consultas) {
-        String[] colunas = {"Horário", "Seg", "Ter", "Qua", "Qui", "Sex", "Sáb", "Dom"};
-        String[][] dados = new String[22][8];
-        
-        // Preencher coluna de horários
-        for (int i = 0; i < 22; i++) {
-            dados[i][0] = String.format("%02d:%02d", 8 + (i / 2), (i % 2) * 30);
-        }
-        
-        modeloTabela.setDataVector(dados, colunas);
-        tabelaAgenda.getColumnModel().getColumn(0).setPreferredWidth(70);
-        
-        // Limpar mapeamento anterior
-        mapaConsultas.clear();
-        
-        // Calcular limites da semana
+    private void exibirSemana(SemanaAgenda semana, String crmMedico, String cpfPaciente) {
+        modeloGrade.exibirSemana(semana.getHorarios(), semana.getConsultas(), semana.getSegunda().atStartOfDay());
+        agendaService.preCarregarVizinhas(crmMedico, cpfPaciente, semana.getSegunda());
+    }
+
+    /**
+     * Calcula a segunda-feira 00:00 da semana exibida, com a mesma regra usada nos cabeçalhos.
+     * @return O início (inclusivo) da semana visível.
+     */
+    private LocalDateTime calcularInicioSemana() {
         Calendar inicioSemana = (Calendar) calendarioAtual.clone();
         inicioSemana.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
-        inicioSemana.set(Calendar.HOUR_OF_DAY, 0);
-        inicioSemana.set(Calendar.MINUTE, 0);
-        inicioSemana.set(Calendar.SECOND, 0);
-
-        Calendar fimSemana = (Calendar) inicioSemana.clone();
-        fimSemana.add(Calendar.DAY_OF_YEAR, 7);
-        
-        // Filtrar e mapear consultas da semana
-        /**
-         * Complexa cadeia de Stream API com múltiplas operações usando lambdas:
-         * 1. '.filter(c -> { ... })' - Lambda que filtra consultas dentro do período da semana
-         * 2. '.forEach(c -> { ... })' - Lambda que processa cada consulta filtrada
-         * Esta estrutura demonstra como lambdas podem encadear operações complexas
-         * de forma fluida e legível, substituindo loops tradicionais.
-         */
-        consultas.stream()
-            .filter(c -> {
-                Date dataConsulta = Date.from(c.getDataHorario().atZone(ZoneId.systemDefault()).toInstant());
-                return !dataConsulta.before(inicioSemana.getTime()) && dataConsulta.before(fimSemana.getTime());
-            })
-            .forEach(c -> {
-                // Calcular posição na tabela
-                int linha = (c.getDataHorario().getHour() - 8) * 2 + (c.getDataHorario().getMinute() / 30);
-                
-                Calendar cal = Calendar.getInstance();
-                cal.setTime(Date.from(c.getDataHorario().atZone(ZoneId.systemDefault()).toInstant()));
-                int coluna = (cal.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY) ? 7 : cal.get(Calendar.DAY_OF_WEEK) - 1;
-
-                if (linha >= 0 && linha < 22 && coluna >= 1 && coluna <= 7) {
-                    String sigla = c.getStatus().getSigla();
-                    String textoConsulta = String.format("[%s] %s", sigla, c.getPaciente().getNome());
-                    modeloTabela.setValueAt(textoConsulta, linha, coluna);
-                    
-                    // Mapear consulta para aplicação de cores
-                    String chave = linha + "," + coluna;
-                    mapaConsultas.put(chave, c);
-                }
-            });
-        
-        // Reaplicar renderizadores após popular tabela
-        aplicarRenderizadoresComCores();
-        
-        // Forçar repaint da tabela
-        tabelaAgenda.revalidate();
-        tabelaAgenda.repaint();
+        return LocalDateTime.ofInstant(inicioSemana.toInstant(), ZoneId.systemDefault()).toLocalDate().atStartOfDay();
     }
-    
+
     private void navegarMes(int incremento) {
         calendarioAtual.add(Calendar.MONTH, incremento);
         atualizarVisualizacao();
@@ -1254,73 +1209,77 @@ public class TelaAgendaCalendario extends JFrame implements UITheme {
     /**
      * Renderizador para a coluna de horários.
      */
-    private class HorarioRenderer extends DefaultTableCellRenderer {
+    private static class HorarioRenderer extends DefaultTableCellRenderer {
+        private static final long serialVersionUID = 1L;
+        private static final Font FONTE = new Font("Segoe UI", Font.BOLD, 12);
+
+        HorarioRenderer() {
+            setBackground(LIGHT_GRAY);
+            setForeground(DARK_TEXT);
+            setHorizontalAlignment(SwingConstants.CENTER);
+            setFont(FONTE);
+        }
+
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, 
                 boolean hasFocus, int row, int column) {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setBackground(LIGHT_GRAY);
             setForeground(DARK_TEXT);
-            setHorizontalAlignment(SwingConstants.CENTER);
-            setFont(new Font("Segoe UI", Font.BOLD, 12));
             return this;
         }
     }
     
     /**
      * Renderizador customizado para as células de agendamento com cores funcionais.
+     * Cores, fontes e dicas são criadas uma única vez (as dicas vêm prontas do ModeloGradeAgenda),
+     * então pintar a grade não aloca objetos.
      */
-    private class AgendamentoRenderer extends DefaultTableCellRenderer {
+    private static class AgendamentoRenderer extends DefaultTableCellRenderer {
+        private static final long serialVersionUID = 1L;
+        // Cores semi-transparentes por status, indexadas por StatusConsulta.ordinal()
+        private static final Color[] CORES_STATUS = new Color[Consulta.StatusConsulta.values().length];
+        static {
+            CORES_STATUS[Consulta.StatusConsulta.AGENDADA.ordinal()] = new Color(52, 144, 220, 180);
+            CORES_STATUS[Consulta.StatusConsulta.REALIZADA.ordinal()] = new Color(76, 175, 80, 180);
+            CORES_STATUS[Consulta.StatusConsulta.CANCELADA.ordinal()] = new Color(244, 67, 54, 180);
+            CORES_STATUS[Consulta.StatusConsulta.NAO_COMPARECEU.ordinal()] = new Color(108, 117, 125, 180);
+        }
+        private static final Font FONTE_CONSULTA = new Font("Segoe UI", Font.BOLD, 10);
+        private static final Font FONTE_VAZIA = new Font("Segoe UI", Font.PLAIN, 10);
+        private static final String DICA_VAZIA = "Clique direito para novo agendamento";
+
+        private final ModeloGradeAgenda modelo;
+
+        AgendamentoRenderer(ModeloGradeAgenda modelo) {
+            this.modelo = modelo;
+            // Garantir que a célula seja opaca para mostrar cores
+            setOpaque(true);
+            setForeground(DARK_TEXT);
+        }
+
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, 
                 boolean hasFocus, int row, int column) {
             
             // Configuração básica do componente
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-            
-            // Garantir que a célula seja opaca para mostrar cores
-            setOpaque(true);
+            setForeground(DARK_TEXT);
             
             // Verificar se existe consulta nesta posição
-            String chave = row + "," + column;
-            Consulta consulta = mapaConsultas.get(chave);
+            LinhaConsulta consulta = modelo.getConsulta(row, column);
             
             if (consulta != null) {
                 // Aplicar cor baseada no status da consulta
-                Color corFundo;
-                switch(consulta.getStatus()) {
-                    case AGENDADA:
-                        corFundo = new Color(52, 144, 220, 180); // Azul semi-transparente
-                        break;
-                    case REALIZADA:
-                        corFundo = new Color(76, 175, 80, 180); // Verde semi-transparente
-                        break;
-                    case CANCELADA:
-                        corFundo = new Color(244, 67, 54, 180); // Vermelho semi-transparente
-                        break;
-                    case NAO_COMPARECEU:
-                        corFundo = new Color(108, 117, 125, 180); // Cinza semi-transparente
-                        break;
-                    default:
-                        corFundo = CLEAN_WHITE;
-                        break;
-                }
-                
-                setBackground(corFundo);
-                setForeground(DARK_TEXT);
-                setFont(new Font("Segoe UI", Font.BOLD, 10));
-                
-                // Tooltip informativo
-                setToolTipText(String.format("<html><b>Paciente:</b> %s<br><b>Médico:</b> %s<br><b>Status:</b> %s<br><i>Clique direito para opções</i></html>", 
-                    consulta.getPaciente().getNome(), 
-                    consulta.getMedico().getNome(),
-                    consulta.getStatus().getDescricao()));
+                Color corFundo = CORES_STATUS[consulta.getStatusOrdinal()];
+                setBackground(corFundo != null ? corFundo : CLEAN_WHITE);
+                setFont(FONTE_CONSULTA);
+                setToolTipText(modelo.getDica(row, column));
             } else {
                 // Célula vazia
                 setBackground(CLEAN_WHITE);
-                setForeground(DARK_TEXT);
-                setFont(new Font("Segoe UI", Font.PLAIN, 10));
-                setToolTipText("Clique direito para novo agendamento");
+                setFont(FONTE_VAZIA);
+                setToolTipText(DICA_VAZIA);
             }
             
             return this;
@@ -7,42 +7,46 @@ import br.com.clinica.util.UITheme;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
-import java.util.List;
-import java.util.Optional;
 
 /**
  * Tela para gerenciamento de consultas existentes.
  * Permite a visualização de todas as consultas em uma tabela, a edição de
  * observações e a alteração de status (ex: marcar como realizada ou cancelar).
  * Esta classe utiliza um ConsultaService para centralizar as regras de negócio.
- * Interage com as classes: ConsultaDAO, ConsultaService, Consulta, UITheme.
+ * A tabela usa um modelo virtual (ModeloTabelaConsultas) que só lê do banco os blocos de linhas
+ * exibidos; mudanças de status e observações atualizam apenas a linha afetada.
+ * Interage com as classes: ConsultaDAO, ConsultaService, Consulta, ModeloTabelaConsultas, UITheme.
  */
 public class TelaGerenciarConsultas extends JFrame implements UITheme {
     
     private static final long serialVersionUID = 1L;
     
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ModeloTabelaConsultas tableModel;
     private JTextArea txtObservacoes;
     private JButton btnSalvarObs;
     private JLabel lblInfoObservacoes;
     
     private ConsultaDAO consultaDAO;
     private ConsultaService consultaService;
+    private CarregadorAssincrono carregador;
     private Consulta consultaSelecionada;
     
+    // Executado uma vez após a próxima recarga da lista (usado para localizar uma consulta pelo ID)
+    private Runnable aposCarregarLista;
+    
     /**
      * Construtor padrão. Inicializa a tela para visualização geral.
      */
     public TelaGerenciarConsultas() {
         this.consultaDAO = new ConsultaDAO();
         this.consultaService = new ConsultaService();
+        this.carregador = new CarregadorAssincrono(this);
         this.consultaSelecionada = null;
         
         inicializarInterface();
@@ -56,23 +60,17 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
     public TelaGerenciarConsultas(Long consultaId) {
         this(); // Chama o construtor padrão para montar a interface
 
-        // Tenta selecionar a consulta na tabela após ela ser carregada
-        SwingUtilities.invokeLater(() -> {
-            try {
-                for (int i = 0; i < tableModel.getRowCount(); i++) {
-                    if (tableModel.getValueAt(i, 0).equals(consultaId)) {
-                        table.setRowSelectionInterval(i, i);
-                        table.scrollRectToVisible(table.getCellRect(i, 0, true)); // Garante que a linha esteja visível
-                        carregarConsultaSelecionada();
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Erro ao carregar consulta específica: " + e.getMessage(),
-                    "Erro de Sistema", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+        // Seleciona a consulta quando o total da lista chegar
+        aposCarregarLista = () -> localizarConsulta(consultaId);
+    }
+
+    // Lógica: Pergunta ao modelo a posição da consulta na ordenação da lista e rola direto até ela;
+    // a JTable pinta a linha e o modelo carrega apenas o bloco correspondente.
+    private void localizarConsulta(Long consultaId) {
+        tableModel.localizar(consultaId, posicao -> {
+            if (posicao < 0 || posicao >= tableModel.getRowCount()) return;
+            table.setRowSelectionInterval(posicao, posicao);
+            table.scrollRectToVisible(table.getCellRect(posicao, 0, true)); // Garante que a linha esteja visível
         });
     }
     
@@ -124,13 +122,7 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
     }
 
     private JScrollPane criarTabelaConsultas() {
-        String[] colunas = {"ID", "Data/Hora", "Médico", "Paciente", "Status", "Observações"};
-        tableModel = new DefaultTableModel(colunas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ModeloTabelaConsultas(consultaDAO, carregador);
         
         table = new JTable(tableModel);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 16));
@@ -187,61 +179,65 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
         return buttonPanel;
     }
     
+    /**
+     * Recarrega a lista: relê o total e descarta os blocos de linhas em memória.
+     */
     private void carregarConsultas() {
-        try {
-            List<Consulta> consultas = consultaDAO.findAll();
-            tableModel.setRowCount(0);
-            
-            for (Consulta consulta : consultas) {
-                String observacoes = consulta.getObservacoes();
-                if (observacoes != null && observacoes.length() > 50) {
-                    observacoes = observacoes.substring(0, 47) + "...";
-                }
-                
-                tableModel.addRow(new Object[]{
-                    consulta.getId(),
-                    consulta.getDataHorarioFormatado(),
-                    consulta.getMedico().getNome(),
-                    consulta.getPaciente().getNome(),
-                    consulta.getStatus().getDescricao(),
-                    observacoes != null ? observacoes : ""
-                });
-            }
-            resetPainelObservacoes();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar consultas: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        resetPainelObservacoes();
+        tableModel.recarregar(() -> {
+            Runnable depois = aposCarregarLista;
+            aposCarregarLista = null;
+            if (depois != null) depois.run();
+        });
     }
     
     private void carregarConsultaSelecionada() {
         int selectedRow = table.getSelectedRow();
         if (selectedRow >= 0) {
-            try {
-                Long id = (Long) tableModel.getValueAt(selectedRow, 0);
-                
-                Optional<Consulta> optConsulta = consultaDAO.findAll().stream()
-                    .filter(c -> c.getId().equals(id))
-                    .findFirst();
-                
-                if (optConsulta.isPresent()) {
-                    consultaSelecionada = optConsulta.get();
-                    String obs = consultaSelecionada.getObservacoes();
-                    txtObservacoes.setText(obs != null ? obs : "");
-                    txtObservacoes.setEnabled(true);
-                    btnSalvarObs.setEnabled(true);
-                    lblInfoObservacoes.setText("Editando observações...");
+            Long id = tableModel.getId(selectedRow);
+            if (id == null) {
+                // Linha de um bloco que ainda não chegou
+                carregador.cancelar("selecao");
+                resetPainelObservacoes();
+                return;
+            }
+
+            // Navegação rápida pela tabela: só a última linha selecionada é carregada
+            carregador.carregar("selecao", () -> consultaDAO.findById(id), consulta -> {
+                if (consulta != null) {
+                    exibirConsulta(consulta);
                 } else {
                     resetPainelObservacoes();
                 }
-            } catch (Exception e) {
+            }, e -> {
                 JOptionPane.showMessageDialog(this, "Erro ao carregar consulta: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
                 resetPainelObservacoes();
-            }
+            });
         } else {
+            carregador.cancelar("selecao");
             resetPainelObservacoes();
         }
     }
 
+    private void exibirConsulta(Consulta consulta) {
+        consultaSelecionada = consulta;
+        String obs = consulta.getObservacoes();
+        txtObservacoes.setText(obs != null ? obs : "");
+        txtObservacoes.setEnabled(true);
+        btnSalvarObs.setEnabled(true);
+        lblInfoObservacoes.setText("Editando observações...");
+    }
+
+    /**
+     * Atualiza só a linha e o painel da consulta gravada, em vez de recarregar a lista inteira.
+     */
+    private void consultaGravada(Consulta consulta) {
+        tableModel.atualizarConsulta(consulta);
+        if (consultaSelecionada == consulta) {
+            exibirConsulta(consulta);
+        }
+    }
+
     private void resetPainelObservacoes() {
         consultaSelecionada = null;
         txtObservacoes.setText("");
@@ -253,14 +249,17 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
     private void salvarObservacoes() {
         if (consultaSelecionada == null) return;
         
-        try {
-            consultaSelecionada.setObservacoes(txtObservacoes.getText().trim());
-            consultaDAO.update(consultaSelecionada);
+        Consulta consulta = consultaSelecionada;
+        String observacoes = txtObservacoes.getText().trim();
+        carregador.executar(() -> consultaDAO.updateObservacoes(consulta.getId(), observacoes), gravou -> {
+            if (!gravou) {
+                JOptionPane.showMessageDialog(this, "A consulta não existe mais.", "Aviso", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            consulta.setObservacoes(observacoes);
             JOptionPane.showMessageDialog(this, "Observações salvas com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            carregarConsultas();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao salvar observações: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+            consultaGravada(consulta);
+        }, e -> JOptionPane.showMessageDialog(this, "Erro ao salvar observações: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
     }
     
     private void cancelarConsulta() {
@@ -272,13 +271,18 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
         int confirm = JOptionPane.showConfirmDialog(this, "Deseja realmente cancelar esta consulta?", "Confirmar Cancelamento", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                consultaService.cancelarConsulta(consultaSelecionada);
+            Consulta consulta = consultaSelecionada;
+            carregador.executar(() -> {
+                consultaService.cancelarConsulta(consulta);
+                return null;
+            }, ok -> {
                 JOptionPane.showMessageDialog(this, "Consulta cancelada com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                carregarConsultas();
-            } catch (IllegalStateException | HeadlessException | java.sql.SQLException e) {
+                consultaGravada(consulta);
+            }, e -> {
                 JOptionPane.showMessageDialog(this, "Erro ao cancelar consulta: " + e.getMessage(), "Erro de Operação", JOptionPane.ERROR_MESSAGE);
-            }
+                // O objeto pode ter ficado com o status alterado em memória: relê a consulta do banco
+                carregarConsultaSelecionada();
+            });
         }
     }
     
@@ -291,13 +295,18 @@ public class TelaGerenciarConsultas extends JFrame implements UITheme {
         String observacoes = JOptionPane.showInputDialog(this, "Digite as observações da consulta realizada:", "Observações da Consulta", JOptionPane.QUESTION_MESSAGE);
         
         if (observacoes != null) {
-            try {
-                consultaService.marcarComoRealizada(consultaSelecionada, observacoes);
+            Consulta consulta = consultaSelecionada;
+            carregador.executar(() -> {
+                consultaService.marcarComoRealizada(consulta, observacoes);
+                return null;
+            }, ok -> {
                 JOptionPane.showMessageDialog(this, "Consulta marcada como realizada!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                carregarConsultas();
-            } catch (IllegalStateException | HeadlessException | java.sql.SQLException e) {
+                consultaGravada(consulta);
+            }, e -> {
                 JOptionPane.showMessageDialog(this, "Erro ao marcar consulta: " + e.getMessage(), "Erro de Operação", JOptionPane.ERROR_MESSAGE);
-            }
+                // O objeto pode ter ficado com o status alterado em memória: relê a consulta do banco
+                carregarConsultaSelecionada();
+            });
         }
     }
 
@@ -2,6 +2,8 @@ package br.com.clinica.view;
 
 import br.com.clinica.dao.MedicoDAO;
 import br.com.clinica.model.Medico;
+import br.com.clinica.service.AgendaSemanalService;
+import br.com.clinica.service.CacheRelatorios;
 import br.com.clinica.util.ValidadorCRM;
 
 import javax.swing.*;
@@ -18,7 +20,6 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Gerencia o Cadastro, Leitura, Atualização e Exclusão (CRUD) de médicos.
@@ -31,6 +32,12 @@ public class TelaMedicos extends JFrame {
     
     private static final long serialVersionUID = 1L;
     
+    // Quantidade de registros buscados por vez na listagem completa (paginação keyset)
+    private static final int TAMANHO_PAGINA = 100;
+
+    // Quantidade máxima de resultados de uma busca (os mais relevantes primeiro)
+    private static final int LIMITE_BUSCA = 200;
+    
     // Paleta de cores padrão do sistema
     private static final Color PRIMARY_BLUE = new Color(52, 144, 220);
     private static final Color SUCCESS_GREEN = new Color(40, 167, 69);
@@ -58,12 +65,18 @@ public class TelaMedicos extends JFrame {
     // Controle de estado e persistência
     private Medico medicoSelecionado = null;
     private MedicoDAO medicoDAO;
+    private CarregadorAssincrono carregador;
+    
+    // Paginação de "Listar Todos": último registro carregado e se ainda há páginas no banco
+    private Medico ultimoMedicoCarregado;
+    private boolean fimDaLista = true;
     
     /**
      * Construtor da tela de médicos. Inicializa o DAO e a interface gráfica.
      */
     public TelaMedicos() {
         this.medicoDAO = new MedicoDAO();
+        this.carregador = new CarregadorAssincrono(this);
         inicializarInterface();
     }
     
@@ -285,7 +298,16 @@ public class TelaMedicos extends JFrame {
             }
         });
         
-        return new JScrollPane(table);
+        JScrollPane scrollPane = new JScrollPane(table);
+        // Ao chegar perto do fim da rolagem, busca a próxima página da listagem completa
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar barra = (JScrollBar) e.getAdjustable();
+            if (!e.getValueIsAdjusting() && !fimDaLista && !carregador.estaCarregando("lista")
+                    && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - table.getRowHeight() * 5) {
+                carregarProximaPagina();
+            }
+        });
+        return scrollPane;
     }
     
     /**
@@ -308,43 +330,61 @@ public class TelaMedicos extends JFrame {
      * Busca médicos no banco de dados com base no termo digitado e popula a tabela.
      */
     private void buscarMedicos() {
-        String termoBusca = txtBusca.getText().trim().toLowerCase();
+        String termoBusca = txtBusca.getText().trim();
         if (termoBusca.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Digite um termo para buscar.", "Aviso", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        try {
-            List<Medico> todosMedicos = medicoDAO.findAll();
-            List<Medico> medicosFiltrados = todosMedicos.stream()
-                .filter(m -> m.getNome().toLowerCase().contains(termoBusca) || m.getCrm().toLowerCase().contains(termoBusca))
-                .collect(Collectors.toList());
-            
-            popularTabela(medicosFiltrados);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao buscar médicos: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        // Busca indexada no banco (CRM e nome por prefixo, depois palavras do nome), já limitada e ordenada.
+        // Mesmo canal da listagem: uma busca substitui a carga de páginas pendente
+        carregador.carregar("lista", () -> medicoDAO.buscar(termoBusca, LIMITE_BUSCA),
+            this::popularTabela,
+            e -> JOptionPane.showMessageDialog(this, "Erro ao buscar médicos: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
-     * Carrega todos os médicos do banco de dados e popula a tabela.
+     * Lista todos os médicos a partir da primeira página; as seguintes são buscadas ao rolar a tabela.
      */
     private void carregarTodosMedicos() {
-        try {
-            List<Medico> medicos = medicoDAO.findAll();
-            popularTabela(medicos);
-        } catch (Exception e) {
+        tableModel.setRowCount(0);
+        ultimoMedicoCarregado = null;
+        fimDaLista = false;
+        carregarProximaPagina();
+    }
+
+    /**
+     * Busca a página seguinte ao último médico carregado e a acrescenta à tabela.
+     * Interage com a classe MedicoDAO (findPagina).
+     */
+    private void carregarProximaPagina() {
+        Medico ultimo = ultimoMedicoCarregado;
+        carregador.carregar("lista", () -> medicoDAO.findPagina(ultimo, TAMANHO_PAGINA), medicos -> {
+            fimDaLista = medicos.size() < TAMANHO_PAGINA;
+            if (!medicos.isEmpty()) {
+                ultimoMedicoCarregado = medicos.get(medicos.size() - 1);
+            }
+            adicionarLinhas(medicos);
+        }, e -> {
+            fimDaLista = true;
             JOptionPane.showMessageDialog(this, "Erro ao carregar médicos: " + e.getMessage(), "Erro de Carregamento", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     /**
-     * Preenche a tabela com uma lista de médicos.
+     * Preenche a tabela com uma lista de médicos (resultado de busca, sem paginação).
      * @param medicos A lista de médicos a ser exibida.
      */
     private void popularTabela(List<Medico> medicos) {
         tableModel.setRowCount(0);
-        
+        fimDaLista = true;
+        adicionarLinhas(medicos);
+    }
+
+    /**
+     * Acrescenta médicos ao final da tabela.
+     */
+    private void adicionarLinhas(List<Medico> medicos) {
         if (medicos != null && !medicos.isEmpty()) {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
             for (Medico medico : medicos) {
@@ -366,15 +406,14 @@ public class TelaMedicos extends JFrame {
     private void carregarMedicoSelecionado() {
         int selectedRow = table.getSelectedRow();
         if (selectedRow >= 0) {
-            try {
-                String crm = (String) tableModel.getValueAt(selectedRow, 0);
-                medicoSelecionado = medicoDAO.findById(crm);
+            String crm = (String) tableModel.getValueAt(selectedRow, 0);
+            // Cliques seguidos em linhas diferentes: só o último médico é exibido
+            carregador.carregar("selecao", () -> medicoDAO.findById(crm), medico -> {
+                medicoSelecionado = medico;
                 if (medicoSelecionado != null) {
                     preencherFormularioComDados(medicoSelecionado);
                 }
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Erro ao carregar médico: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao carregar médico: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE));
         }
     }
 
@@ -452,16 +491,23 @@ public class TelaMedicos extends JFrame {
             medico.setHorarioFim(LocalTime.of(((java.util.Date) spinnerFim.getValue()).getHours(), ((java.util.Date) spinnerFim.getValue()).getMinutes()));
             medico.setDiasAtendimento(diasSelecionados);
 
-            if (medicoSelecionado == null) {
-                medicoDAO.save(medico);
-                JOptionPane.showMessageDialog(this, "Médico cadastrado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                medicoDAO.update(medico);
-                JOptionPane.showMessageDialog(this, "Médico atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            }
-            
-            limparFormulario();
-            carregarTodosMedicos();
+            boolean novo = medicoSelecionado == null;
+            carregador.executar(() -> {
+                if (novo) {
+                    medicoDAO.save(medico);
+                } else {
+                    medicoDAO.update(medico);
+                    // Nomes em cache nos relatórios ficariam desatualizados
+                    CacheRelatorios.getInstance().invalidarTudo();
+                }
+                // A grade da agenda depende da jornada de todos os médicos
+                AgendaSemanalService.getInstance().invalidarTudo();
+                return null;
+            }, ok -> {
+                JOptionPane.showMessageDialog(this, novo ? "Médico cadastrado com sucesso!" : "Médico atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                limparFormulario();
+                carregarTodosMedicos();
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao salvar médico: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
 
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Erro ao salvar médico: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
@@ -480,14 +526,17 @@ public class TelaMedicos extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Deseja realmente excluir o médico " + medicoSelecionado.getNome() + "?", "Confirmar Exclusão", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                medicoDAO.delete(medicoSelecionado.getCrm());
+            String crm = medicoSelecionado.getCrm();
+            carregador.executar(() -> {
+                medicoDAO.delete(crm);
+                CacheRelatorios.getInstance().invalidarTudo();
+                AgendaSemanalService.getInstance().invalidarTudo();
+                return null;
+            }, ok -> {
                 JOptionPane.showMessageDialog(this, "Médico excluído com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
                 limparFormulario();
                 carregarTodosMedicos();
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Erro ao excluir médico: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao excluir médico: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
         }
     }
 
@@ -1,9 +1,12 @@
 package br.com.clinica.view;
 
 import br.com.clinica.dao.*;
+import br.com.clinica.exception.HorarioIndisponivelException;
 import br.com.clinica.model.*;
 import br.com.clinica.service.ConsultaService;
 import br.com.clinica.service.EmailService;
+import br.com.clinica.service.IndiceNomes;
+import br.com.clinica.service.IndicePacientesService;
 import br.com.clinica.util.UITheme;
 
 import javax.swing.*;
@@ -29,16 +32,18 @@ import java.util.List;
  * Tela para a criação de um novo agendamento de consulta.
  * Esta tela é um formulário que permite ao usuário selecionar um médico, um paciente,
  * uma data e um horário disponível para agendar uma nova consulta.
- * Interage com as camadas de DAO para carregar dados iniciais (médicos e pacientes)
- * e com a camada de Serviço (ConsultaService) para executar a lógica de negócio.
+ * Médico e paciente são escolhidos por busca incremental (SeletorBusca) sobre índices em memória,
+ * sem carregar todos os cadastros em comboboxes.
+ * Interage com as camadas de DAO para carregar dados iniciais (médicos e pacientes),
+ * com o IndicePacientesService e com a camada de Serviço (ConsultaService) para executar a lógica de negócio.
  */
 public class TelaNovoAgendamento extends JFrame implements UITheme {
 
     private static final long serialVersionUID = 1L;
 
     // Componentes da interface
-    private JComboBox<Medico> cbMedicos;
-    private JComboBox<Paciente> cbPacientes;
+    private SeletorBusca<Medico> selMedico;
+    private SeletorBusca<Paciente> selPaciente;
     private JFormattedTextField txtData;
     private JComboBox<String> cbHorarios;
     private JCheckBox chkEnviarEmail;
@@ -46,18 +51,18 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
 
     // Camadas de dados e serviço
     private MedicoDAO medicoDAO;
-    private PacienteDAO pacienteDAO;
     private ConsultaDAO consultaDAO;
     private ConsultaService consultaService;
+    private CarregadorAssincrono carregador;
 
     /**
      * Construtor da tela. Inicializa as dependências e a interface.
      */
     public TelaNovoAgendamento() {
         this.medicoDAO = new MedicoDAO();
-        this.pacienteDAO = new PacienteDAO();
         this.consultaDAO = new ConsultaDAO();
         this.consultaService = new ConsultaService();
+        this.carregador = new CarregadorAssincrono(this);
 
         inicializarInterface();
         carregarDadosIniciais();
@@ -127,10 +132,10 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
         gbc.gridy = 0;
         gbc.gridx = 0;
         gbc.weightx = 0.5;
-        formPanel.add(criarCampo("Médico:", cbMedicos = new JComboBox<>()), gbc);
+        formPanel.add(criarCampo("Médico (nome ou CRM):", selMedico = new SeletorBusca<>()), gbc);
 
         gbc.gridx = 1;
-        formPanel.add(criarCampo("Paciente:", cbPacientes = new JComboBox<>()), gbc);
+        formPanel.add(criarCampo("Paciente (nome ou CPF):", selPaciente = new SeletorBusca<>()), gbc);
 
         // Linha 2: Data e Horário
         gbc.gridy = 1;
@@ -160,7 +165,7 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
         formPanel.add(chkEnviarEmail, gbc);
 
         // Listeners para atualizar horários
-        cbMedicos.addActionListener(e -> carregarHorariosDisponiveis());
+        selMedico.setAoSelecionar(medico -> carregarHorariosDisponiveis());
         txtData.addKeyListener(new KeyAdapter() {
             public void keyReleased(KeyEvent evt) {
                 if (txtData.getText().replaceAll("[_/]", "").length() == 8) {
@@ -188,22 +193,26 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
     }
 
     /**
-     * Carrega os dados iniciais nos comboboxes de médicos e pacientes.
+     * Prepara os índices de busca dos seletores de médico e paciente, em segundo plano.
+     * O de médicos é montado a cada abertura da tela (são poucos); o de pacientes é o mantido pelo
+     * IndicePacientesService, normalmente já montado desde o início do sistema, complementado
+     * pela busca no banco quando traz poucos resultados.
      */
     private void carregarDadosIniciais() {
-        try {
-            List<Medico> medicos = medicoDAO.findAll();
-            for (Medico medico : medicos) {
-                cbMedicos.addItem(medico);
-            }
-            
-            List<Paciente> pacientes = pacienteDAO.findAll();
-            for (Paciente paciente : pacientes) {
-                cbPacientes.addItem(paciente);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar dados iniciais: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        carregador.carregar("medicos", () -> {
+            IndiceNomes<Medico> indice = new IndiceNomes<>(Medico::getCrm, Medico::getNome);
+            indice.montar(medicoDAO.findAll());
+            return indice;
+        }, selMedico::setIndice, this::mostrarErroDadosIniciais);
+        carregador.carregar("pacientes", () -> IndicePacientesService.getInstance().getIndice(),
+            selPaciente::setIndice, this::mostrarErroDadosIniciais);
+        // Pacientes cadastrados em outra estação depois da montagem do índice vêm do banco
+        selPaciente.setBuscaComplementar(carregador, "busca-pacientes",
+            IndicePacientesService.getInstance()::buscarNoBanco, Paciente::getCpf);
+    }
+
+    private void mostrarErroDadosIniciais(Exception e) {
+        JOptionPane.showMessageDialog(this, "Erro ao carregar dados iniciais: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -212,13 +221,24 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
     private void carregarHorariosDisponiveis() {
         cbHorarios.removeAllItems();
 
-        Medico medico = (Medico) cbMedicos.getSelectedItem();
-        if (medico == null) return;
+        Medico medico = selMedico.getSelecionado();
+        if (medico == null) {
+            carregador.cancelar("horarios");
+            return;
+        }
 
+        LocalDate data;
         try {
-            LocalDate data = LocalDate.parse(txtData.getText().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-            List<String> horarios = consultaService.getHorariosDisponiveis(medico, data);
-            
+            data = LocalDate.parse(txtData.getText().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        } catch (DateTimeParseException ex) {
+            // Data ainda não está completa ou é inválida, não faz nada
+            carregador.cancelar("horarios");
+            return;
+        }
+
+        // Trocas rápidas de médico ou data: só os horários da última combinação são exibidos
+        carregador.carregar("horarios", () -> consultaService.getHorariosDisponiveis(medico, data), horarios -> {
+            cbHorarios.removeAllItems();
             if (horarios.isEmpty()) {
                 cbHorarios.addItem("Sem horários");
             } else {
@@ -226,20 +246,19 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
                     cbHorarios.addItem(horario);
                 }
             }
-        } catch (DateTimeParseException ex) {
-            // Data ainda não está completa ou é inválida, não faz nada
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar horários: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, "Erro ao carregar horários: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
     }
 
     /**
      * Confirma e salva o agendamento, utilizando a camada de serviço.
      */
     private void confirmarAgendamento() {
+        Medico medico;
+        Paciente paciente;
+        LocalDateTime dataHorario;
         try {
-            Medico medico = (Medico) cbMedicos.getSelectedItem();
-            Paciente paciente = (Paciente) cbPacientes.getSelectedItem();
+            medico = selMedico.getSelecionado();
+            paciente = selPaciente.getSelecionado();
             String horarioStr = (String) cbHorarios.getSelectedItem();
 
             if (medico == null || paciente == null || horarioStr == null || horarioStr.equals("Sem horários")) {
@@ -249,38 +268,58 @@ public class TelaNovoAgendamento extends JFrame implements UITheme {
 
             LocalDate data = LocalDate.parse(txtData.getText().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
             LocalTime horario = LocalTime.parse(horarioStr);
-            LocalDateTime dataHorario = LocalDateTime.of(data, horario);
+            dataHorario = LocalDateTime.of(data, horario);
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Formato de data inválido. Use dd/MM/yyyy.", "Erro de Validação", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-            Consulta novaConsulta = consultaService.agendarNovaConsulta(medico, paciente, dataHorario, txtObservacoes.getText());
-            
-            String msgSucesso = "Consulta agendada com sucesso para " + novaConsulta.getPaciente().getNome() + "!";
-            
-            if (chkEnviarEmail.isSelected()) {
-                String email = JOptionPane.showInputDialog(this, "Digite o e-mail do paciente para a confirmação:");
-                if (email != null && !email.trim().isEmpty()) {
-                    boolean enviado = EmailService.enviarConfirmacaoConsulta(email, paciente.getNome(), medico.getNome(), novaConsulta.getDataHorarioFormatado());
-                    if (!enviado) {
-                        msgSucesso += "\n(Aviso: Falha ao enviar o e-mail de confirmação.)";
-                    }
+        String observacoes = txtObservacoes.getText();
+        carregador.executar(() -> consultaService.agendarNovaConsulta(medico, paciente, dataHorario, observacoes),
+            novaConsulta -> concluirAgendamento(novaConsulta, medico, paciente),
+            e -> {
+                if (e instanceof HorarioIndisponivelException) {
+                    JOptionPane.showMessageDialog(this, e.getMessage() + "\nEscolha outro horário.", "Horário Indisponível", JOptionPane.WARNING_MESSAGE);
+                    carregarHorariosDisponiveis();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Erro ao agendar consulta: " + e.getMessage(), "Erro de Negócio", JOptionPane.ERROR_MESSAGE);
                 }
-            }
-            
+            });
+    }
+
+    /**
+     * Após a gravação: pede o e-mail (se marcado), envia a confirmação em segundo plano e limpa o formulário.
+     */
+    private void concluirAgendamento(Consulta novaConsulta, Medico medico, Paciente paciente) {
+        String msgSucesso = "Consulta agendada com sucesso para " + novaConsulta.getPaciente().getNome() + "!";
+
+        String email = chkEnviarEmail.isSelected()
+            ? JOptionPane.showInputDialog(this, "Digite o e-mail do paciente para a confirmação:") : null;
+        if (email == null || email.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, msgSucesso, "Sucesso", JOptionPane.INFORMATION_MESSAGE);
             limparCampos();
-
-        } catch (DateTimeParseException e) {
-            JOptionPane.showMessageDialog(this, "Formato de data inválido. Use dd/MM/yyyy.", "Erro de Validação", JOptionPane.ERROR_MESSAGE);
-        } catch (IllegalStateException | SQLException e) {
-            JOptionPane.showMessageDialog(this, "Erro ao agendar consulta: " + e.getMessage(), "Erro de Negócio", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        carregador.executar(
+            () -> EmailService.enviarConfirmacaoConsulta(email, paciente.getNome(), medico.getNome(), novaConsulta.getDataHorarioFormatado()),
+            enviado -> {
+                String msg = enviado ? msgSucesso : msgSucesso + "\n(Aviso: Falha ao enviar o e-mail de confirmação.)";
+                JOptionPane.showMessageDialog(this, msg, "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                limparCampos();
+            },
+            e -> {
+                JOptionPane.showMessageDialog(this, msgSucesso + "\n(Aviso: Falha ao enviar o e-mail de confirmação.)", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                limparCampos();
+            });
     }
 
     /**
      * Limpa todos os campos do formulário para um novo preenchimento.
      */
     private void limparCampos() {
-        cbMedicos.setSelectedIndex(0);
-        cbPacientes.setSelectedIndex(0);
+        selMedico.limpar();
+        selPaciente.limpar();
         txtData.setText("");
         cbHorarios.removeAllItems();
         txtObservacoes.setText("");
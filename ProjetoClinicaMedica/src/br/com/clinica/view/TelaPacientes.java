@@ -2,6 +2,8 @@ package br.com.clinica.view;
 
 import br.com.clinica.dao.PacienteDAO;
 import br.com.clinica.model.Paciente;
+import br.com.clinica.service.AgendaSemanalService;
+import br.com.clinica.service.CacheRelatorios;
 import br.com.clinica.util.ValidadorCPF;
 
 import javax.swing.*;
@@ -17,7 +19,6 @@ import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Gerencia o Cadastro, Leitura, Atualização e Exclusão (CRUD) de pacientes.
@@ -29,6 +30,12 @@ import java.util.stream.Collectors;
 public class TelaPacientes extends JFrame {
 
     private static final long serialVersionUID = 1L;
+    
+    // Quantidade de registros buscados por vez na listagem completa (paginação keyset)
+    private static final int TAMANHO_PAGINA = 100;
+
+    // Quantidade máxima de resultados de uma busca (os mais relevantes primeiro)
+    private static final int LIMITE_BUSCA = 200;
 
     // Paleta de cores padrão do sistema
     private static final Color PRIMARY_BLUE = new Color(52, 144, 220);
@@ -43,6 +50,7 @@ public class TelaPacientes extends JFrame {
     private JTable table;
     private DefaultTableModel tableModel;
     private PacienteDAO pacienteDAO;
+    private CarregadorAssincrono carregador;
 
     // Campos do formulário
     private JTextField txtCpf;
@@ -57,12 +65,17 @@ public class TelaPacientes extends JFrame {
     
     // Controle de estado
     private Paciente pacienteSelecionado = null;
+    
+    // Paginação de "Listar Todos": último registro carregado e se ainda há páginas no banco
+    private Paciente ultimoPacienteCarregado;
+    private boolean fimDaLista = true;
 
     /**
      * Construtor da tela de pacientes. Inicializa o DAO e a interface gráfica.
      */
     public TelaPacientes() {
         this.pacienteDAO = new PacienteDAO();
+        this.carregador = new CarregadorAssincrono(this);
         inicializarInterface();
     }
 
@@ -254,7 +267,16 @@ public class TelaPacientes extends JFrame {
             }
         });
         
-        return new JScrollPane(table);
+        JScrollPane scrollPane = new JScrollPane(table);
+        // Ao chegar perto do fim da rolagem, busca a próxima página da listagem completa
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar barra = (JScrollBar) e.getAdjustable();
+            if (!e.getValueIsAdjusting() && !fimDaLista && !carregador.estaCarregando("lista")
+                    && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - table.getRowHeight() * 5) {
+                carregarProximaPagina();
+            }
+        });
+        return scrollPane;
     }
     
     /**
@@ -287,45 +309,62 @@ public class TelaPacientes extends JFrame {
      * Interage com a classe PacienteDAO.
      */
     private void buscarPacientes() {
-        String termoBusca = txtBusca.getText().trim().toLowerCase();
+        String termoBusca = txtBusca.getText().trim();
         if (termoBusca.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Digite um termo para buscar.", "Aviso", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        try {
-            List<Paciente> todosPacientes = pacienteDAO.findAll();
-            List<Paciente> pacientesFiltrados = todosPacientes.stream()
-                .filter(p -> p.getNome().toLowerCase().contains(termoBusca) || p.getCpf().contains(termoBusca.replaceAll("[^0-9]", "")))
-                .collect(Collectors.toList());
-            
-            popularTabela(pacientesFiltrados);
-
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao buscar pacientes: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        // Busca indexada no banco (CPF e nome por prefixo, depois palavras do nome), já limitada e ordenada.
+        // Mesmo canal da listagem: uma busca substitui a carga de páginas pendente
+        carregador.carregar("lista", () -> pacienteDAO.buscar(termoBusca, LIMITE_BUSCA),
+            this::popularTabela,
+            e -> JOptionPane.showMessageDialog(this, "Erro ao buscar pacientes: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
-     * Carrega todos os pacientes do banco de dados e popula a tabela.
+     * Lista todos os pacientes a partir da primeira página; as seguintes são buscadas ao rolar a tabela.
      * Interage com a classe PacienteDAO.
      */
     private void carregarTodosPacientes() {
-        try {
-            List<Paciente> pacientes = pacienteDAO.findAll();
-            popularTabela(pacientes);
-        } catch (Exception e) {
+        tableModel.setRowCount(0);
+        ultimoPacienteCarregado = null;
+        fimDaLista = false;
+        carregarProximaPagina();
+    }
+
+    /**
+     * Busca a página seguinte ao último paciente carregado e a acrescenta à tabela.
+     * Interage com a classe PacienteDAO (findPagina).
+     */
+    private void carregarProximaPagina() {
+        Paciente ultimo = ultimoPacienteCarregado;
+        carregador.carregar("lista", () -> pacienteDAO.findPagina(ultimo, TAMANHO_PAGINA), pacientes -> {
+            fimDaLista = pacientes.size() < TAMANHO_PAGINA;
+            if (!pacientes.isEmpty()) {
+                ultimoPacienteCarregado = pacientes.get(pacientes.size() - 1);
+            }
+            adicionarLinhas(pacientes);
+        }, e -> {
+            fimDaLista = true;
             JOptionPane.showMessageDialog(this, "Erro ao carregar pacientes: " + e.getMessage(), "Erro de Carregamento", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     /**
-     * Preenche a tabela com uma lista de pacientes.
+     * Preenche a tabela com uma lista de pacientes (resultado de busca, sem paginação).
      * @param pacientes A lista de pacientes a ser exibida.
      */
     private void popularTabela(List<Paciente> pacientes) {
         tableModel.setRowCount(0);
-        
+        fimDaLista = true;
+        adicionarLinhas(pacientes);
+    }
+
+    /**
+     * Acrescenta pacientes ao final da tabela.
+     */
+    private void adicionarLinhas(List<Paciente> pacientes) {
         if (pacientes != null && !pacientes.isEmpty()) {
             for (Paciente paciente : pacientes) {
                 Object[] row = {
@@ -347,17 +386,17 @@ public class TelaPacientes extends JFrame {
     private void carregarPacienteSelecionado() {
         int selectedRow = table.getSelectedRow();
         if (selectedRow >= 0) {
-            try {
-                String cpfFormatado = (String) tableModel.getValueAt(selectedRow, 0);
-                String cpf = cpfFormatado.replaceAll("[^0-9]", "");
-                
-                pacienteSelecionado = pacienteDAO.findById(cpf);
+            String cpfFormatado = (String) tableModel.getValueAt(selectedRow, 0);
+            String cpf = cpfFormatado.replaceAll("[^0-9]", "");
+
+            // Cliques seguidos em linhas diferentes: só o último paciente é exibido
+            // O histórico médico só é lido aqui, ao abrir o cadastro para edição
+            carregador.carregar("selecao", () -> pacienteDAO.carregarHistoricoMedico(pacienteDAO.findById(cpf)), paciente -> {
+                pacienteSelecionado = paciente;
                 if (pacienteSelecionado != null) {
                     preencherFormularioComDados(pacienteSelecionado);
                 }
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Erro ao carregar paciente: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao carregar paciente: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE));
         }
     }
 
@@ -426,16 +465,22 @@ public class TelaPacientes extends JFrame {
                 txtHistorico.getText().trim()
             );
 
-            if (pacienteSelecionado == null) {
-                pacienteDAO.save(paciente);
-                JOptionPane.showMessageDialog(this, "Paciente cadastrado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                pacienteDAO.update(paciente);
-                JOptionPane.showMessageDialog(this, "Paciente atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            }
-            
-            limparFormulario();
-            carregarTodosPacientes();
+            boolean novo = pacienteSelecionado == null;
+            carregador.executar(() -> {
+                if (novo) {
+                    pacienteDAO.save(paciente);
+                } else {
+                    pacienteDAO.update(paciente);
+                    // Nomes em cache nos relatórios e na agenda ficariam desatualizados
+                    CacheRelatorios.getInstance().invalidarTudo();
+                    AgendaSemanalService.getInstance().invalidarTudo();
+                }
+                return null;
+            }, ok -> {
+                JOptionPane.showMessageDialog(this, novo ? "Paciente cadastrado com sucesso!" : "Paciente atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                limparFormulario();
+                carregarTodosPacientes();
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao salvar paciente: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
 
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Erro ao salvar paciente: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
@@ -455,14 +500,17 @@ public class TelaPacientes extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Deseja realmente excluir o paciente " + pacienteSelecionado.getNome() + "?", "Confirmar Exclusão", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                pacienteDAO.delete(pacienteSelecionado.getCpf());
+            String cpf = pacienteSelecionado.getCpf();
+            carregador.executar(() -> {
+                pacienteDAO.delete(cpf);
+                CacheRelatorios.getInstance().invalidarTudo();
+                AgendaSemanalService.getInstance().invalidarTudo();
+                return null;
+            }, ok -> {
                 JOptionPane.showMessageDialog(this, "Paciente excluído com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
                 limparFormulario();
                 carregarTodosPacientes();
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Erro ao excluir paciente: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Erro ao excluir paciente: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
         }
     }
 
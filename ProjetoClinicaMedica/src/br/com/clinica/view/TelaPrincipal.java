@@ -5,6 +5,7 @@ import br.com.clinica.dao.ConsultaDAO;
 import br.com.clinica.dao.PacienteDAO;
 import br.com.clinica.model.Consulta;
 import br.com.clinica.model.Paciente;
+import br.com.clinica.service.ResumoDiarioService;
 import br.com.clinica.util.ValidadorCPF;
 
 import javax.swing.*;
@@ -16,12 +17,16 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.sql.Connection;
 import java.text.ParseException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Tela principal do sistema de gestão de clínica médica.
@@ -34,12 +39,16 @@ import java.util.List;
  * - Header: Contém a logo, título do sistema, e botões de ação ("Sobre").
  * - Centro: Dividido em duas áreas por um JSplitPane:
  * - Esquerda: Exibe uma imagem médica.
- * - Direita: Contém um grid de botões para navegação às telas principais.
+ * - Direita: Faixa de indicadores do dia e do mês (ResumoDiarioService) e um grid de botões
+ *   para navegação às telas principais.
  * - Footer: Apresenta informações de copyright ou versão do sistema.
  */
 public class TelaPrincipal extends JFrame {
 
     private static final long serialVersionUID = 1L;
+    
+    // Consultas buscadas por vez no popup de histórico (paginação keyset do ConsultaDAO)
+    private static final int TAMANHO_PAGINA_HISTORICO = 50;
 
     // Paleta de cores médica profissional
     private static final Color PRIMARY_BLUE = new Color(52, 144, 220);
@@ -50,10 +59,13 @@ public class TelaPrincipal extends JFrame {
     // Componentes principais da interface
     private JPanel contentPane;
     private JPanel botoesPanel;
+    private JLabel lblIndicadoresHoje;
+    private JLabel lblIndicadoresMes;
 
     // DAOs para funcionalidades extras
     private PacienteDAO pacienteDAO;
     private ConsultaDAO consultaDAO;
+    private CarregadorAssincrono carregador;
 
     /**
      * Construtor principal da TelaPrincipal.
@@ -62,9 +74,18 @@ public class TelaPrincipal extends JFrame {
     public TelaPrincipal() {
         this.pacienteDAO = new PacienteDAO();
         this.consultaDAO = new ConsultaDAO();
+        this.carregador = new CarregadorAssincrono(this);
         configurarJanelaPrincipal();
         inicializarComponentes();
         verificarConexaoBanco();
+
+        // Os indicadores são relidos sempre que o usuário volta à tela principal
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowActivated(WindowEvent e) {
+                atualizarIndicadores();
+            }
+        });
     }
     
     /**
@@ -166,7 +187,12 @@ public class TelaPrincipal extends JFrame {
         
         criarBotoesFuncionais();
 
-        JSplitPane centralPanel = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, criarPainelImagem(), botoesPanel);
+        JPanel direitaPanel = new JPanel(new BorderLayout());
+        direitaPanel.setBackground(LIGHT_GRAY);
+        direitaPanel.add(criarPainelIndicadores(), BorderLayout.NORTH);
+        direitaPanel.add(botoesPanel, BorderLayout.CENTER);
+
+        JSplitPane centralPanel = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, criarPainelImagem(), direitaPanel);
         centralPanel.setResizeWeight(0.5);
         centralPanel.setDividerSize(5);
         centralPanel.setBorder(null);
@@ -174,6 +200,56 @@ public class TelaPrincipal extends JFrame {
         return centralPanel;
     }
 
+    /**
+     * Cria a faixa de indicadores (consultas de hoje e do mês), preenchida por atualizarIndicadores().
+     * @return O JPanel dos indicadores.
+     */
+    private JPanel criarPainelIndicadores() {
+        JPanel indicadoresPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+        indicadoresPanel.setBackground(CLEAN_WHITE);
+        indicadoresPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(222, 226, 230)),
+            new EmptyBorder(15, 40, 15, 40)));
+
+        lblIndicadoresHoje = new JLabel("Hoje: carregando...");
+        lblIndicadoresHoje.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        lblIndicadoresHoje.setForeground(DARK_TEXT);
+        lblIndicadoresMes = new JLabel(" ");
+        lblIndicadoresMes.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        lblIndicadoresMes.setForeground(PRIMARY_BLUE);
+
+        indicadoresPanel.add(lblIndicadoresHoje);
+        indicadoresPanel.add(lblIndicadoresMes);
+        return indicadoresPanel;
+    }
+
+    /**
+     * Lê os totais de hoje e do mês em segundo plano e atualiza a faixa de indicadores.
+     * Interage com a classe ResumoDiarioService.
+     */
+    private void atualizarIndicadores() {
+        // Ativações seguidas da janela resultam em uma única leitura
+        carregador.carregar("indicadores", () -> {
+            ResumoDiarioService resumo = ResumoDiarioService.getInstance();
+            return List.of(resumo.contarHoje(), resumo.contarMesAtual());
+        }, totais -> {
+            Map<Consulta.StatusConsulta, Long> hoje = totais.get(0);
+            Map<Consulta.StatusConsulta, Long> mes = totais.get(1);
+            lblIndicadoresHoje.setText(String.format("Hoje: %d agendadas | %d realizadas | %d canceladas",
+                hoje.get(Consulta.StatusConsulta.AGENDADA), hoje.get(Consulta.StatusConsulta.REALIZADA),
+                hoje.get(Consulta.StatusConsulta.CANCELADA)));
+            long totalMes = mes.values().stream().mapToLong(Long::longValue).sum();
+            long canceladasMes = mes.get(Consulta.StatusConsulta.CANCELADA);
+            lblIndicadoresMes.setText(String.format("Mês: %d consultas | %d realizadas | %.1f%% de cancelamento",
+                totalMes, mes.get(Consulta.StatusConsulta.REALIZADA),
+                totalMes > 0 ? (canceladasMes * 100.0) / totalMes : 0.0));
+        }, e -> {
+            lblIndicadoresHoje.setText("Indicadores indisponíveis");
+            lblIndicadoresMes.setText(" ");
+            System.err.println("Erro ao carregar indicadores: " + e.getMessage());
+        });
+    }
+
     /**
      * Cria o painel que exibe a imagem principal da aplicação.
      * @return O JPanel da imagem.
@@ -338,17 +414,17 @@ public class TelaPrincipal extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             String cpf = cpfField.getText().replaceAll("[^0-9]", "");
             if (ValidadorCPF.validar(cpf)) {
-                try {
+                carregador.carregar("historico", () -> {
                     Paciente paciente = pacienteDAO.findById(cpf);
-                    if (paciente != null) {
-                        List<Consulta> historico = consultaDAO.findByPaciente(cpf);
-                        mostrarHistoricoPopup(paciente, historico);
+                    return paciente == null ? null
+                        : new HistoricoInicial(paciente, consultaDAO.findPaginaPorPaciente(cpf, null, TAMANHO_PAGINA_HISTORICO));
+                }, historico -> {
+                    if (historico != null) {
+                        mostrarHistoricoPopup(historico.paciente, historico.primeiraPagina);
                     } else {
                         JOptionPane.showMessageDialog(this, "Paciente com o CPF informado não encontrado.", "Erro", JOptionPane.ERROR_MESSAGE);
                     }
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(this, "Erro ao buscar histórico: " + ex.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, "Erro ao buscar histórico: " + ex.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE));
             } else {
                 JOptionPane.showMessageDialog(this, "CPF inválido. Por favor, tente novamente.", "Erro de Validação", JOptionPane.ERROR_MESSAGE);
             }
@@ -357,8 +433,9 @@ public class TelaPrincipal extends JFrame {
 
     /**
      * Exibe uma nova janela (JDialog) com o histórico de consultas de um paciente em uma tabela.
+     * As páginas seguintes do histórico são buscadas conforme o usuário rola a tabela.
      * @param paciente O paciente cujo histórico será exibido.
-     * @param consultas A lista de consultas do paciente.
+     * @param consultas A primeira página de consultas do paciente.
      */
     private void mostrarHistoricoPopup(Paciente paciente, List<Consulta> consultas) {
         if (consultas.isEmpty()) {
@@ -379,6 +456,48 @@ public class TelaPrincipal extends JFrame {
             }
         };
 
+        adicionarLinhasHistorico(modeloTabela, consultas);
+        
+        JTable tabela = new JTable(modeloTabela);
+        tabela.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        tabela.setRowHeight(28);
+        
+        // Estado da paginação: [0] = última consulta carregada, ou null quando não há mais páginas
+        Consulta[] ultimaCarregada = { consultas.size() < TAMANHO_PAGINA_HISTORICO ? null : consultas.get(consultas.size() - 1) };
+        CarregadorAssincrono carregadorDialogo = new CarregadorAssincrono(dialog);
+        JScrollPane scrollPane = new JScrollPane(tabela);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar barra = (JScrollBar) e.getAdjustable();
+            if (e.getValueIsAdjusting() || ultimaCarregada[0] == null || carregadorDialogo.estaCarregando("pagina")
+                    || barra.getValue() + barra.getVisibleAmount() < barra.getMaximum() - tabela.getRowHeight() * 5) {
+                return;
+            }
+            Consulta ultima = ultimaCarregada[0];
+            carregadorDialogo.carregar("pagina", () -> consultaDAO.findPaginaPorPaciente(paciente.getCpf(), ultima, TAMANHO_PAGINA_HISTORICO), pagina -> {
+                ultimaCarregada[0] = pagina.size() < TAMANHO_PAGINA_HISTORICO ? null : pagina.get(pagina.size() - 1);
+                adicionarLinhasHistorico(modeloTabela, pagina);
+            }, ex -> {
+                ultimaCarregada[0] = null;
+                JOptionPane.showMessageDialog(dialog, "Erro ao buscar histórico: " + ex.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
+            });
+        });
+        
+        dialog.add(scrollPane, BorderLayout.CENTER);
+        dialog.setVisible(true);
+    }
+    
+    /** Paciente encontrado na busca de histórico e a primeira página de suas consultas. */
+    private static final class HistoricoInicial {
+        final Paciente paciente;
+        final List<Consulta> primeiraPagina;
+
+        HistoricoInicial(Paciente paciente, List<Consulta> primeiraPagina) {
+            this.paciente = paciente;
+            this.primeiraPagina = primeiraPagina;
+        }
+    }
+
+    private void adicionarLinhasHistorico(DefaultTableModel modeloTabela, List<Consulta> consultas) {
         for (Consulta consulta : consultas) {
             modeloTabela.addRow(new Object[]{
                 consulta.getDataHorarioFormatado(),
@@ -387,25 +506,18 @@ public class TelaPrincipal extends JFrame {
                 consulta.getObservacoes()
             });
         }
-        
-        JTable tabela = new JTable(modeloTabela);
-        tabela.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        tabela.setRowHeight(28);
-        
-        dialog.add(new JScrollPane(tabela), BorderLayout.CENTER);
-        dialog.setVisible(true);
     }
     
     /**
      * Verifica a conexão com o banco de dados.
      */
     private void verificarConexaoBanco() {
-        try {
-            DatabaseConnection.getInstance().getConnection();
-            System.out.println("Conexão ao banco de dados: OK");
-        } catch (Exception ex) {
-            System.err.println("Conexão ao banco de dados: FALHOU!");
-        }
+        carregador.carregar("conexao", () -> {
+            try (Connection conexao = DatabaseConnection.getInstance().getConnection()) {
+                return true;
+            }
+        }, ok -> System.out.println("Conexão ao banco de dados: OK"),
+           ex -> System.err.println("Conexão ao banco de dados: FALHOU!"));
     }
     
     /**
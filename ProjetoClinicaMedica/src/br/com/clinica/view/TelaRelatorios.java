@@ -2,12 +2,14 @@ package br.com.clinica.view;
 
 import br.com.clinica.dao.MedicoDAO;
 import br.com.clinica.model.Medico;
+import br.com.clinica.service.CacheRelatorios;
 import br.com.clinica.service.RelatorioService;
 import br.com.clinica.util.UITheme;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -15,7 +17,6 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.List;
 
 /**
@@ -36,6 +37,7 @@ public class TelaRelatorios extends JFrame implements UITheme {
     private ButtonGroup grupoRelatorios;
     private RelatorioService relatorioService;
     private MedicoDAO medicoDAO;
+    private CarregadorAssincrono carregador;
 
     // Componentes dos painéis de filtro - Consultas por Médico
     private JComboBox<Medico> cbMedicoFiltro;
@@ -50,12 +52,16 @@ public class TelaRelatorios extends JFrame implements UITheme {
     private JComboBox<String> cbMesDistribuicao;
     private JComboBox<Integer> cbAnoDistribuicao;
 
+    // Componente do painel de filtro - Pacientes Inativos
+    private JSpinner spinnerMesesInatividade;
+
     // Componente do painel de filtro - Histórico do Paciente
     private JTextField txtPacienteFiltro;
 
     public TelaRelatorios() {
         this.relatorioService = new RelatorioService();
         this.medicoDAO = new MedicoDAO();
+        this.carregador = new CarregadorAssincrono(this);
         inicializarInterface();
         carregarDadosFiltros();
     }
@@ -189,7 +195,7 @@ public class TelaRelatorios extends JFrame implements UITheme {
         painelContainerFiltros.add(criarPainelFiltroComMedico(), "Consultas por Médico");
         painelContainerFiltros.add(criarPainelFiltroConsultasCanceladas(), "Consultas Canceladas");
         painelContainerFiltros.add(criarPainelFiltroPaciente(), "Histórico do Paciente");
-        painelContainerFiltros.add(filtroVazio, "Pacientes Inativos");
+        painelContainerFiltros.add(criarPainelFiltroPacientesInativos(), "Pacientes Inativos");
         painelContainerFiltros.add(criarPainelFiltroDistribuicaoConsultas(), "Distribuição de Consultas");
         painelContainerFiltros.add(filtroVazio, "DEFAULT");
         
@@ -363,6 +369,34 @@ public class TelaRelatorios extends JFrame implements UITheme {
         return panel;
     }
     
+    /**
+     * Cria painel de filtro para Pacientes Inativos (janela de inatividade em meses).
+     * @return O painel de filtros configurado.
+     */
+    private JPanel criarPainelFiltroPacientesInativos() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 15));
+        panel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createTitledBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200), 1),
+                "Filtros Disponíveis",
+                0, 0,
+                new Font("Segoe UI", Font.BOLD, 14),
+                DARK_TEXT
+            ),
+            new EmptyBorder(5, 10, 5, 10)
+        ));
+        panel.setBackground(CLEAN_WHITE);
+        
+        JLabel lblMeses = new JLabel("Sem consultas há (meses):");
+        lblMeses.setFont(new Font("Dialog", Font.BOLD, 18));
+        panel.add(lblMeses);
+        spinnerMesesInatividade = new JSpinner(new SpinnerNumberModel(RelatorioService.MESES_INATIVIDADE_PADRAO, 1, 120, 1));
+        spinnerMesesInatividade.setFont(new Font("Dialog", Font.PLAIN, 16));
+        panel.add(spinnerMesesInatividade);
+        
+        return panel;
+    }
+    
     private JPanel criarPainelFiltroPaciente() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 15));
         panel.setBorder(BorderFactory.createCompoundBorder(
@@ -396,32 +430,28 @@ public class TelaRelatorios extends JFrame implements UITheme {
     }
     
     private void carregarDadosFiltros() {
-        try {
-            // Carregar dados para filtro com médico
-            cbMedicoFiltro.addItem(null);
-            medicoDAO.findAll().forEach(cbMedicoFiltro::addItem);
-            cbMedicoFiltro.setRenderer(new DefaultListCellRenderer() {
-                public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
-                    super.getListCellRendererComponent(l,v,i,s,f);
-                    setText(v instanceof Medico ? ((Medico)v).getNome() : "Todos");
-                    return this;
-                }
-            });
-
-            // Carregar anos para todos os filtros de ano
-            cbAnoFiltro.addItem(null);
-            cbAnoCanceladas.addItem(null);
-            cbAnoDistribuicao.addItem(null);
-            
-            int anoAtual = LocalDate.now().getYear();
-            for (int i = anoAtual; i > anoAtual - 5; i--) {
-                cbAnoFiltro.addItem(i);
-                cbAnoCanceladas.addItem(i);
-                cbAnoDistribuicao.addItem(i);
+        // Carregar dados para filtro com médico (a lista chega em segundo plano)
+        cbMedicoFiltro.addItem(null);
+        carregador.carregar("medicos", medicoDAO::findAll, medicos -> medicos.forEach(cbMedicoFiltro::addItem),
+            e -> JOptionPane.showMessageDialog(this, "Erro ao carregar filtros: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE));
+        cbMedicoFiltro.setRenderer(new DefaultListCellRenderer() {
+            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
+                super.getListCellRendererComponent(l,v,i,s,f);
+                setText(v instanceof Medico ? ((Medico)v).getNome() : "Todos");
+                return this;
             }
+        });
 
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar filtros: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        // Carregar anos para todos os filtros de ano
+        cbAnoFiltro.addItem(null);
+        cbAnoCanceladas.addItem(null);
+        cbAnoDistribuicao.addItem(null);
+        
+        int anoAtual = LocalDate.now().getYear();
+        for (int i = anoAtual; i > anoAtual - 5; i--) {
+            cbAnoFiltro.addItem(i);
+            cbAnoCanceladas.addItem(i);
+            cbAnoDistribuicao.addItem(i);
         }
     }
 
@@ -432,45 +462,67 @@ public class TelaRelatorios extends JFrame implements UITheme {
             return;
         }
         String tipoRelatorio = selectedButton.getActionCommand();
-        Map<String, Object> resultado;
 
-        try {
-            int mes, ano;
-            
-            switch (tipoRelatorio) {
-                case "Consultas por Médico":
-                    mes = cbMesFiltro.getSelectedIndex();
-                    ano = cbAnoFiltro.getSelectedItem() != null ? (Integer) cbAnoFiltro.getSelectedItem() : 0;
-                    resultado = relatorioService.gerarRelatorioConsultasPorMedico((Medico) cbMedicoFiltro.getSelectedItem(), mes, ano);
-                    break;
-                case "Consultas Canceladas":
-                    mes = cbMesCanceladas.getSelectedIndex();
-                    ano = cbAnoCanceladas.getSelectedItem() != null ? (Integer) cbAnoCanceladas.getSelectedItem() : 0;
-                    resultado = relatorioService.gerarRelatorioConsultasCanceladas(mes, ano);
-                    break;
-                case "Histórico do Paciente":
-                    resultado = relatorioService.gerarRelatorioHistoricoPaciente(txtPacienteFiltro.getText());
-                    break;
-                case "Pacientes Inativos":
-                    resultado = relatorioService.gerarRelatorioPacientesInativos();
-                    break;
-                case "Distribuição de Consultas":
-                    mes = cbMesDistribuicao.getSelectedIndex();
-                    ano = cbAnoDistribuicao.getSelectedItem() != null ? (Integer) cbAnoDistribuicao.getSelectedItem() : 0;
-                    resultado = relatorioService.gerarRelatorioDistribuicaoConsultas(mes, ano);
-                    break;
-                default:
-                    JOptionPane.showMessageDialog(this, "Relatório não implementado.", "Aviso", JOptionPane.WARNING_MESSAGE);
-                    return;
-            }
-
-            table.setModel((DefaultTableModel) resultado.get("tableModel"));
+        // Filtros lidos aqui, na thread do Swing; o relatório em si roda em segundo plano
+        // O modelo só é ligado à tabela quando o relatório começa a chegar: um pedido que espera
+        // outro ainda em andamento não apaga o que está sendo exibido
+        ModeloTabelaRelatorio[] modeloRef = new ModeloTabelaRelatorio[1];
+        ModeloTabelaRelatorio modelo = new ModeloTabelaRelatorio(() -> {
+            table.setModel(modeloRef[0]);
             esconderColunasDeID();
-            txtResumo.setText((String) resultado.get("summaryText"));
+        }, txtResumo::setText);
+        modeloRef[0] = modelo;
+        GeracaoRelatorio geracao;
+        int mes, ano;
+        switch (tipoRelatorio) {
+            case "Consultas por Médico":
+                mes = cbMesFiltro.getSelectedIndex();
+                ano = cbAnoFiltro.getSelectedItem() != null ? (Integer) cbAnoFiltro.getSelectedItem() : 0;
+                Medico medico = (Medico) cbMedicoFiltro.getSelectedItem();
+                geracao = () -> relatorioService.gerarRelatorioConsultasPorMedico(medico, mes, ano, modelo);
+                break;
+            case "Consultas Canceladas":
+                mes = cbMesCanceladas.getSelectedIndex();
+                ano = cbAnoCanceladas.getSelectedItem() != null ? (Integer) cbAnoCanceladas.getSelectedItem() : 0;
+                geracao = () -> relatorioService.gerarRelatorioConsultasCanceladas(mes, ano, modelo);
+                break;
+            case "Histórico do Paciente":
+                String paciente = txtPacienteFiltro.getText();
+                geracao = () -> relatorioService.gerarRelatorioHistoricoPaciente(paciente, modelo);
+                break;
+            case "Pacientes Inativos":
+                int meses = (Integer) spinnerMesesInatividade.getValue();
+                geracao = () -> relatorioService.gerarRelatorioPacientesInativos(meses, modelo);
+                break;
+            case "Distribuição de Consultas":
+                mes = cbMesDistribuicao.getSelectedIndex();
+                ano = cbAnoDistribuicao.getSelectedItem() != null ? (Integer) cbAnoDistribuicao.getSelectedItem() : 0;
+                geracao = () -> relatorioService.gerarRelatorioDistribuicaoConsultas(mes, ano, modelo);
+                break;
+            default:
+                JOptionPane.showMessageDialog(this, "Relatório não implementado.", "Aviso", JOptionPane.WARNING_MESSAGE);
+                return;
+        }
 
-        } catch (Exception e) {
+        txtResumo.setText("Gerando relatório...");
+        carregador.carregar("relatorio", () -> {
+            geracao.executar();
+            return null;
+        }, ok -> atualizarDicaCache(), e -> {
+            atualizarDicaCache();
+            txtResumo.setText("");
             JOptionPane.showMessageDialog(this, "Erro ao gerar relatório: " + e.getMessage(), "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
-        }
+        });
+    }
+
+    private void atualizarDicaCache() {
+        CacheRelatorios cache = CacheRelatorios.getInstance();
+        txtResumo.setToolTipText(String.format("Cache de relatórios: %d acertos, %d falhas, %d guardados",
+            cache.getAcertos(), cache.getFalhas(), cache.getTamanho()));
+    }
+
+    private interface GeracaoRelatorio {
+        void executar() throws SQLException;
     }
     
     private void abrirTelaDeDetalhes() {
@@ -479,7 +531,7 @@ public class TelaRelatorios extends JFrame implements UITheme {
         if (linha == -1) return;
 
         String nomeColuna = table.getColumnName(coluna);
-        DefaultTableModel model = (DefaultTableModel) table.getModel();
+        TableModel model = table.getModel();
         
         try {
             if (nomeColuna.equals("Paciente")) {